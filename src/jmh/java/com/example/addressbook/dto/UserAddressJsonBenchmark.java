@@ -0,0 +1,49 @@
+package com.example.addressbook.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks Jackson serialization of address lists, as written by the list and search endpoints.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserAddressJsonBenchmark {
+
+    @Param({"1", "50", "1000"})
+    private int size;
+
+    private ObjectWriter writer;
+    private List<UserAddressDTO> addresses;
+
+    @Setup
+    public void setUp() {
+        // Same defaults Spring MVC applies (java.time module, ISO dates)
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, UserAddressDTO.class));
+
+        LocalDateTime now = LocalDateTime.now();
+        addresses = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            addresses.add(new UserAddressDTO(i, "User " + i, "555-" + i, "user" + i + "@example.com",
+                    i + " Main St", "Springfield", "IL", "62701", "USA", now, now));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws Exception {
+        return writer.writeValueAsBytes(addresses);
+    }
+}
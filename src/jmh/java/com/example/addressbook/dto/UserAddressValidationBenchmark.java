@@ -0,0 +1,63 @@
+package com.example.addressbook.dto;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks Bean Validation of request bodies, for a valid DTO and one failing several constraints.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserAddressValidationBenchmark {
+
+    private ValidatorFactory factory;
+    private Validator validator;
+    private UserAddressDTO valid;
+    private UserAddressDTO invalid;
+
+    @Setup
+    public void setUp() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+        valid = UserAddressDTO.builder()
+                .name("John Doe")
+                .phone("1234567890")
+                .email("john@example.com")
+                .street("123 Main St")
+                .city("New York")
+                .state("NY")
+                .zipCode("10001")
+                .country("USA")
+                .build();
+        invalid = UserAddressDTO.builder()
+                .name("")
+                .email("not-an-email")
+                .zipCode("x".repeat(50))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserAddressDTO>> validateValid() {
+        return validator.validate(valid);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserAddressDTO>> validateInvalid() {
+        return validator.validate(invalid);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.addressbook.mapper;
+
+import com.example.addressbook.dto.UserAddressDTO;
+import com.example.addressbook.entity.UserAddress;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the entity/DTO conversions on every read and write path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserAddressMapperBenchmark {
+
+    private final UserAddressMapper mapper = new UserAddressMapper();
+
+    private UserAddress entity;
+    private UserAddressDTO dto;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        entity = UserAddress.builder()
+                .id(1L)
+                .name("John Doe")
+                .phone("1234567890")
+                .email("john@example.com")
+                .street("123 Main St")
+                .city("New York")
+                .state("NY")
+                .zipCode("10001")
+                .country("USA")
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        dto = mapper.toDTO(entity);
+    }
+
+    @Benchmark
+    public UserAddressDTO toDTO() {
+        return mapper.toDTO(entity);
+    }
+
+    @Benchmark
+    public UserAddress toEntity() {
+        return mapper.toEntity(dto);
+    }
+
+    @Benchmark
+    public UserAddress updateEntity() {
+        mapper.updateEntity(dto, entity);
+        return entity;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.addressbook.repository;
+
+import com.example.addressbook.AddressBookApplication;
+import com.example.addressbook.entity.UserAddress;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link UserAddressRepository#searchByKeyword} against a seeded H2 table.
+ * <p>
+ * The keyword search is the SQL fallback behind {@code /api/addresses/search} and scans every row,
+ * so its cost grows with the table. {@code city-421} matches one row in a thousand; the miss
+ * measures the scan alone. The full-text and trigram indexes are disabled so startup and seeding
+ * do not build them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SearchByKeywordBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    @Param({"city-421", "no-such-address"})
+    private String keyword;
+
+    private ConfigurableApplicationContext context;
+    private UserAddressRepository repository;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(AddressBookApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + rows + "-" + keyword + ";LAZY_QUERY_EXECUTION=TRUE",
+                        "addressbook.search.fulltext.enabled=false",
+                        "addressbook.search.trigram.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        repository = context.getBean(UserAddressRepository.class);
+
+        // Set-based insert straight through JDBC, bypassing the entity listeners
+        context.getBean(JdbcTemplate.class).update(
+                "INSERT INTO user_addresses (id, name, phone, email, street, city, state, zip_code, country, "
+                        + "created_at, updated_at) "
+                        + "SELECT X, 'User ' || X, '555-' || X, 'user' || X || '@example.com', X || ' Main St', "
+                        + "'City-' || MOD(X, 1000), 'IL', '62701', 'USA', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP "
+                        + "FROM SYSTEM_RANGE(1, ?)", rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<UserAddress> searchByKeyword() {
+        return repository.searchByKeyword(keyword);
+    }
+}
@@ -2,11 +2,13 @@ package com.example.addressbook;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 /**
  * Main entry point for the User Address Directory application.
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class AddressBookApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,102 @@
+package com.example.addressbook.cache;
+
+import com.example.addressbook.config.JsonCacheProperties;
+import com.example.addressbook.datasource.PrimaryPin;
+import com.example.addressbook.dto.UserAddressDTO;
+import com.example.addressbook.event.UserAddressChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of single addresses already encoded as JSON, so hot reads skip the
+ * database, the mapper and Jackson entirely.
+ * <p>
+ * Entries are evicted by size and TTL and invalidated after commit whenever the address
+ * changes. An invalidation waits for any in-flight load of the same id, so a value read
+ * before the commit cannot be left behind. Hit and miss counts are published as the
+ * {@code cache.*} meters with {@code cache=addressJson}.
+ * <p>
+ * Entries are always loaded from the primary, so with read replicas on a lagging replica cannot
+ * put an address back as it was before a write. A thread {@link PrimaryPin pinned} to the
+ * primary, i.e. a client that has just written, bypasses the cache altogether.
+ */
+@Component
+public class AddressJsonCache implements MeterBinder {
+
+    /**
+     * Cached JSON for one address together with the version it was encoded from.
+     */
+    public record Entry(Long id, LocalDateTime updatedAt, byte[] json) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, Entry> cache;
+
+    public AddressJsonCache(ObjectMapper objectMapper, JsonCacheProperties properties) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached JSON for an address, loading and encoding it on a miss.
+     *
+     * @param id     the address ID
+     * @param loader loads the address on a miss, pinned to the primary; exceptions propagate and
+     *               nothing is cached
+     * @return the cached entry, or a fresh uncached one when the thread is pinned
+     */
+    public Entry get(Long id, Function<Long, UserAddressDTO> loader) {
+        if (PrimaryPin.isPinned()) {
+            return encode(loader.apply(id));
+        }
+        return cache.get(id, key -> encode(PrimaryPin.onPrimary(() -> loader.apply(key))));
+    }
+
+    /**
+     * Returns the cached entry without loading, or null if absent or the thread is pinned.
+     */
+    public Entry getIfPresent(Long id) {
+        return PrimaryPin.isPinned() ? null : cache.getIfPresent(id);
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(UserAddressChangedEvent event) {
+        cache.invalidate(event.getId());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "addressJson");
+    }
+
+    private Entry encode(UserAddressDTO dto) {
+        try {
+            return new Entry(dto.getId(), dto.getUpdatedAt(), objectMapper.writeValueAsBytes(dto));
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.addressbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for bulk inserts.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "addressbook.bulk")
+public class BulkProperties {
+
+    /**
+     * Number of rows inserted and committed per transaction.
+     */
+    private int chunkSize = 500;
+}
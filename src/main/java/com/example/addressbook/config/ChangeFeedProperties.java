@@ -0,0 +1,32 @@
+package com.example.addressbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the {@code GET /api/addresses/events} change stream.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "addressbook.events")
+public class ChangeFeedProperties {
+
+    /**
+     * Number of most recent changes kept for replay. A subscriber that falls this far behind
+     * is disconnected.
+     */
+    private int bufferSize = 10_000;
+
+    /**
+     * How often an idle stream sends a comment, so proxies keep it open and closed clients are noticed.
+     */
+    private Duration heartbeat = Duration.ofSeconds(15);
+
+    /**
+     * Maximum number of open streams; further subscribers are answered with 503.
+     */
+    private int maxSubscribers = 100;
+}
@@ -0,0 +1,35 @@
+package com.example.addressbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the {@code GET /api/addresses/changes} delta sync.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "addressbook.changes")
+public class ChangesProperties {
+
+    /**
+     * How long a change is held back before it is reported. A change is stamped when it is
+     * written but becomes visible when it commits, or later on a read replica; holding back the
+     * newest changes keeps one stamped earlier but committed later from falling behind a token
+     * already handed out.
+     */
+    private Duration settleTime = Duration.ofSeconds(5);
+
+    /**
+     * How long deletes are remembered. A token older than this is answered with 410 and the
+     * client must reload every address.
+     */
+    private Duration tombstoneRetention = Duration.ofDays(30);
+
+    /**
+     * How often tombstones past their retention are purged.
+     */
+    private Duration purgeInterval = Duration.ofHours(1);
+}
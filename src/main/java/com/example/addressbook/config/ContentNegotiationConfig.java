@@ -0,0 +1,56 @@
+package com.example.addressbook.config;
+
+import com.example.addressbook.dto.AddressFields;
+import com.example.addressbook.dto.UserAddressDTO;
+import com.example.addressbook.protobuf.AddressProtobufHttpMessageConverter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary response encodings, chosen by the {@code Accept} header:
+ * {@code application/cbor}, {@code application/x-jackson-smile} and
+ * {@code application/x-protobuf}. JSON stays the default for clients that ask for nothing in
+ * particular.
+ * <p>
+ * CBOR and Smile use Spring Boot's Jackson settings, so field names and date formats match
+ * the JSON responses. Protobuf is appended after every other converter, so it is only used
+ * when requested.
+ * <p>
+ * Every Jackson mapper built from Boot's builder carries the {@link AddressFields} filter on
+ * {@link UserAddressDTO}, writing all properties unless a request selects fewer.
+ */
+@Configuration
+public class ContentNegotiationConfig implements WebMvcConfigurer {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer addressFieldsFilterCustomizer() {
+        return builder -> builder
+                .mixIn(UserAddressDTO.class, AddressFields.FilterMixin.class)
+                .filters(AddressFields.ALL.filters());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new AddressProtobufHttpMessageConverter());
+    }
+}
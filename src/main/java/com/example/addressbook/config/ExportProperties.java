@@ -0,0 +1,20 @@
+package com.example.addressbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the streaming NDJSON export.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "addressbook.export")
+public class ExportProperties {
+
+    /**
+     * Number of rows after which the persistence context is cleared so exported
+     * entities can be garbage collected.
+     */
+    private int clearInterval = 1000;
+}
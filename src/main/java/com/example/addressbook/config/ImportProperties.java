@@ -0,0 +1,31 @@
+package com.example.addressbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for {@code POST /api/addresses/import}. Rows are committed in chunks of
+ * {@code addressbook.bulk.chunk-size}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "addressbook.import")
+public class ImportProperties {
+
+    /**
+     * Threads converting and validating rows, shared by all imports.
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Chunks read ahead of the one being inserted, per import. Bounds the memory an import
+     * holds, whatever the size of the file.
+     */
+    private int readAhead = 2 * Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Maximum number of rejected rows listed in the report; all of them are counted.
+     */
+    private int maxReportedErrors = 1000;
+}
@@ -0,0 +1,26 @@
+package com.example.addressbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the cache of pre-serialized address JSON.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "addressbook.json-cache")
+public class JsonCacheProperties {
+
+    /**
+     * Maximum number of cached addresses; 0 disables caching.
+     */
+    private long maxSize = 10_000;
+
+    /**
+     * Time after which an entry is reloaded even if it was not invalidated.
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+}
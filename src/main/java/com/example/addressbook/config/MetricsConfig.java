@@ -0,0 +1,50 @@
+package com.example.addressbook.config;
+
+import com.example.addressbook.metrics.ResponseSizeFilter;
+import com.example.addressbook.metrics.TimedJsonHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * Per-layer latency and size metrics, alongside the {@code http.server.requests} and
+ * {@code spring.data.repository.invocations} timers Spring Boot records on its own:
+ * <ul>
+ *   <li>{@code addressbook.service}: {@code @Timed} service methods, including entity/DTO mapping</li>
+ *   <li>{@code addressbook.serialization}: writing JSON response bodies</li>
+ *   <li>{@code addressbook.query.results}: rows returned per list or search call</li>
+ *   <li>{@code http.server.response.size}: response body bytes</li>
+ * </ul>
+ * Percentile histograms are switched on in {@code application.yml}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    /**
+     * Replaces Spring Boot's default JSON converter with one that times serialization.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                 MeterRegistry registry) {
+        return new TimedJsonHttpMessageConverter(objectMapper, registry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ResponseSizeFilter> responseSizeFilter(MeterRegistry registry) {
+        FilterRegistrationBean<ResponseSizeFilter> registration =
+                new FilterRegistrationBean<>(new ResponseSizeFilter(registry));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.addressbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Page size settings for the cursor-paginated list and search endpoints.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "addressbook.pagination")
+public class PaginationProperties {
+
+    /**
+     * Page size used when the client does not pass a limit.
+     */
+    private int defaultLimit = 50;
+
+    /**
+     * Upper bound for the limit a client may request.
+     */
+    private int maxLimit = 1000;
+}
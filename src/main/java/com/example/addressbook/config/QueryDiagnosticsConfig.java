@@ -0,0 +1,69 @@
+package com.example.addressbook.config;
+
+import com.example.addressbook.metrics.HibernateStatisticsEndpoint;
+import com.example.addressbook.metrics.HibernateStatisticsJmxExtension;
+import com.example.addressbook.metrics.SlowQueryLog;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Always-on query diagnostics, cheap enough for production where {@code show-sql} is not:
+ * <ul>
+ *   <li>the {@link SlowQueryLog} around every Spring Data repository call</li>
+ *   <li>Hibernate's own slow-SQL log ({@code org.hibernate.SQL_SLOW}) at the same threshold,
+ *       giving the generated SQL of derived and CRUD methods too</li>
+ *   <li>the {@code hibernate} actuator endpoint over Hibernate's statistics, reset over JMX only</li>
+ * </ul>
+ */
+@Configuration
+public class QueryDiagnosticsConfig {
+
+    @Bean
+    public SlowQueryLog slowQueryLog(SlowQueryProperties properties) {
+        return new SlowQueryLog(properties.getThreshold(), properties.getHistorySize());
+    }
+
+    /**
+     * Adds the slow-query interceptor to every repository proxy, the same way Spring Boot
+     * attaches its repository invocation timer.
+     */
+    @Bean
+    public static BeanPostProcessor slowQueryLogRepositoryPostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxy, repository) -> proxy.addAdvice(
+                                    slowQueryLog.getObject().interceptor(repository.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer slowSqlLogCustomizer(SlowQueryProperties properties) {
+        return hibernateProperties -> hibernateProperties.putIfAbsent(AvailableSettings.LOG_SLOW_QUERY,
+                properties.getThreshold().toMillis());
+    }
+
+    @Bean
+    public HibernateStatisticsEndpoint hibernateStatisticsEndpoint(EntityManagerFactory entityManagerFactory,
+                                                                   SlowQueryLog slowQueryLog) {
+        return new HibernateStatisticsEndpoint(
+                entityManagerFactory.unwrap(SessionFactory.class).getStatistics(), slowQueryLog);
+    }
+
+    @Bean
+    public HibernateStatisticsJmxExtension hibernateStatisticsJmxExtension(HibernateStatisticsEndpoint endpoint) {
+        return new HibernateStatisticsJmxExtension(endpoint);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.addressbook.config;
+
+import com.example.addressbook.datasource.ReadReplicas;
+import com.example.addressbook.datasource.ReadYourWritesFilter;
+import com.example.addressbook.datasource.ReplicaCacheJpaDialect;
+import com.example.addressbook.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Sends read-only transactions ({@code @Transactional(readOnly = true)}, and Spring Data's own
+ * read methods) to read replicas when {@code addressbook.read-replicas.enabled} is set.
+ * <p>
+ * Spring Boot's primary {@link DataSource} is wrapped in a {@link LazyConnectionDataSourceProxy},
+ * which only fetches a real connection at the first statement, once the transaction has marked
+ * it read-only, and then takes it from a {@link ReplicaRoutingDataSource}. Everything else,
+ * including Flyway, stays on the primary. Each replica has its own Hikari pool, reported in the
+ * {@code hikaricp.*} meters as {@code replica-1}, {@code replica-2}, ...
+ * <p>
+ * Replicas lag, so only reads from the primary use the entity and query caches; see
+ * {@link ReplicaCacheJpaDialect}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "addressbook.read-replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    public ReadReplicas readReplicas(ReadReplicaProperties properties, DataSourceProperties primary,
+                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (ReadReplicaProperties.Replica replica : properties.getReplicas()) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + (pools.size() + 1));
+            config.setJdbcUrl(replica.getUrl());
+            config.setDriverClassName(primary.determineDriverClassName());
+            config.setUsername(Objects.requireNonNullElse(replica.getUsername(), primary.determineUsername()));
+            config.setPassword(Objects.requireNonNullElse(replica.getPassword(), primary.determinePassword()));
+            config.setMaximumPoolSize(replica.getMaximumPoolSize());
+            config.setReadOnly(true);
+            meterRegistry.ifAvailable(registry ->
+                    config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            pools.add(new HikariDataSource(config));
+        }
+        return new ReadReplicas(pools, properties.getSelection());
+    }
+
+    /**
+     * Wraps the primary data source so read-only transactions are served by a replica.
+     */
+    @Bean
+    public static BeanPostProcessor replicaRoutingDataSourcePostProcessor(ObjectProvider<ReadReplicas> replicas) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource primary)) {
+                    return bean;
+                }
+                LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy();
+                proxy.setTargetDataSource(primary);
+                proxy.setReadOnlyDataSource(new ReplicaRoutingDataSource(primary, replicas.getObject()));
+                proxy.afterPropertiesSet();
+                return proxy;
+            }
+        };
+    }
+
+    /**
+     * Keeps transactions a replica may serve out of the second-level caches.
+     */
+    @Bean
+    public static BeanPostProcessor replicaCacheJpaDialectPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof JpaTransactionManager transactionManager) {
+                    transactionManager.setJpaDialect(new ReplicaCacheJpaDialect());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadReplicaProperties properties) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(properties.getReadYourWrites()));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        registration.setEnabled(!properties.getReadYourWrites().isZero());
+        return registration;
+    }
+}
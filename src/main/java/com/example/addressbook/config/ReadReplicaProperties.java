@@ -0,0 +1,70 @@
+package com.example.addressbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for sending read-only transactions to read replicas.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "addressbook.read-replicas")
+public class ReadReplicaProperties {
+
+    /**
+     * Route read-only transactions to {@link #replicas}; when false everything uses the primary.
+     */
+    private boolean enabled = false;
+
+    /**
+     * How a replica is picked for each read-only transaction.
+     */
+    private Selection selection = Selection.ROUND_ROBIN;
+
+    /**
+     * How long a client that wrote keeps reading from the primary, so it sees its own writes
+     * despite replication lag. Zero turns this off.
+     */
+    private Duration readYourWrites = Duration.ofSeconds(5);
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    public enum Selection {
+        /**
+         * Each replica in turn.
+         */
+        ROUND_ROBIN,
+
+        /**
+         * The replica with the fewest connections in use, in turn among equals.
+         */
+        LEAST_BUSY
+    }
+
+    /**
+     * Connection settings of one replica.
+     */
+    @Getter
+    @Setter
+    public static class Replica {
+
+        private String url;
+
+        /**
+         * Defaults to {@code spring.datasource.username}.
+         */
+        private String username;
+
+        /**
+         * Defaults to {@code spring.datasource.password}.
+         */
+        private String password;
+
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.addressbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings for keyword search.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "addressbook.search")
+public class SearchProperties {
+
+    private Trigram trigram = new Trigram();
+    private Fulltext fulltext = new Fulltext();
+
+    /**
+     * In-memory trigram index used for substring keyword search.
+     */
+    @Getter
+    @Setter
+    public static class Trigram {
+
+        /**
+         * Serve keyword search from the index; when false every search runs the SQL LIKE query.
+         */
+        private boolean enabled = true;
+    }
+
+    /**
+     * On-disk Lucene index used for ranked full-text search.
+     */
+    @Getter
+    @Setter
+    public static class Fulltext {
+
+        private boolean enabled = true;
+
+        /**
+         * Directory holding the index files; by default under the system temporary directory,
+         * since the index is rebuilt at startup and must not depend on the working directory.
+         */
+        private String directory = Path.of(System.getProperty("java.io.tmpdir"), "addressbook", "fulltext-index")
+                .toString();
+
+        /**
+         * Re-index every address at startup; needed whenever the database does not
+         * outlive the process, as with the default in-memory H2.
+         */
+        private boolean rebuildOnStartup = true;
+
+        /**
+         * Longest time a committed write may take to become visible to searches.
+         */
+        private Duration maxStaleness = Duration.ofSeconds(1);
+
+        /**
+         * Per-field score multipliers; fields not listed are not searched.
+         */
+        private Map<String, Float> boosts = new LinkedHashMap<>(Map.of(
+                "name", 4.0f,
+                "email", 2.0f,
+                "city", 2.0f,
+                "state", 1.5f,
+                "country", 1.5f,
+                "street", 1.0f,
+                "zipCode", 1.0f,
+                "phone", 1.0f));
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.addressbook.config;
+
+import com.example.addressbook.datasource.ShardConnectionProvider;
+import com.example.addressbook.datasource.ShardRoutingInterceptor;
+import com.example.addressbook.datasource.ShardScatterInterceptor;
+import com.example.addressbook.datasource.ShardTenantResolver;
+import com.example.addressbook.datasource.Shards;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayProperties;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Partitions {@code user_addresses} across several databases when
+ * {@code addressbook.sharding.enabled} is set; see {@link Shards} for where rows go.
+ * <p>
+ * Each shard is a Hibernate tenant: a session, and so a transaction, works on one shard,
+ * chosen when it opens. Service methods choose theirs from their {@code @ShardKey} argument,
+ * and Spring Data reads made without a chosen shard, such as list pages and searches, are run on
+ * every shard in parallel and merged. The shards listed in the properties get their own Hikari
+ * pool, reported in the {@code hikaricp.*} meters as {@code shard-1}, {@code shard-2}, ..., and
+ * are migrated with the application's Flyway scripts at startup.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "addressbook.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    /**
+     * Ids the entity's pooled generator hands out per sequence value, ending at the value read.
+     */
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    @Bean
+    public Shards shards(ShardingProperties properties, DataSource dataSource, DataSourceProperties primary,
+                         FlywayProperties flyway, ObjectProvider<MeterRegistry> meterRegistry) {
+        List<DataSource> dataSources = new ArrayList<>();
+        dataSources.add(new LazyConnectionDataSourceProxy(dataSource));
+        for (ShardingProperties.Shard shard : properties.getShards()) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("shard-" + dataSources.size());
+            config.setJdbcUrl(shard.getUrl());
+            config.setDriverClassName(primary.determineDriverClassName());
+            config.setUsername(Objects.requireNonNullElse(shard.getUsername(), primary.determineUsername()));
+            config.setPassword(Objects.requireNonNullElse(shard.getPassword(), primary.determinePassword()));
+            config.setMaximumPoolSize(shard.getMaximumPoolSize());
+            meterRegistry.ifAvailable(registry ->
+                    config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            HikariDataSource pool = new HikariDataSource(config);
+            Flyway.configure()
+                    .dataSource(pool)
+                    .locations(flyway.getLocations().toArray(String[]::new))
+                    .load()
+                    .migrate();
+            startIdsAt(pool, Shards.firstId(dataSources.size()));
+            dataSources.add(new LazyConnectionDataSourceProxy(pool));
+        }
+        return new Shards(dataSources);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer shardTenancyCustomizer(Shards shards) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.MULTI_TENANT_CONNECTION_PROVIDER,
+                    new ShardConnectionProvider(shards));
+            hibernateProperties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, new ShardTenantResolver());
+        };
+    }
+
+    /**
+     * Routes {@code @ShardKey} and {@code @EachShard} service methods, outside their transactions.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor shardRoutingAdvisor(ObjectProvider<Shards> shards) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(ShardRoutingInterceptor.POINTCUT,
+                new ShardRoutingInterceptor(shards::getObject));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    @Bean
+    public ShardScatterInterceptor shardScatterInterceptor(Shards shards,
+                                                           PlatformTransactionManager transactionManager) {
+        return new ShardScatterInterceptor(shards, transactionManager);
+    }
+
+    /**
+     * Adds the scatter-gather interceptor to every repository proxy.
+     */
+    @Bean
+    public static BeanPostProcessor shardScatterRepositoryPostProcessor(
+            ObjectProvider<ShardScatterInterceptor> interceptor) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxy, repository) -> proxy.addAdvice(interceptor.getObject())));
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Moves a new shard's id sequence to the start of its range; a sequence already in it is left alone.
+     */
+    private static void startIdsAt(DataSource shard, long firstId) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(shard);
+        Long next = jdbcTemplate.queryForObject("SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES "
+                + "WHERE SEQUENCE_NAME = 'USER_ADDRESSES_SEQ'", Long.class);
+        if (next == null || next < firstId) {
+            jdbcTemplate.execute("ALTER SEQUENCE user_addresses_seq RESTART WITH " + (firstId + ID_ALLOCATION_SIZE));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.addressbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for partitioning {@code user_addresses} across several databases.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "addressbook.sharding")
+public class ShardingProperties {
+
+    /**
+     * Spread addresses over {@code spring.datasource}, which is shard 0, and {@link #shards};
+     * when false everything uses {@code spring.datasource}.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Shards 1, 2, ... in order. Their position is part of every id they hand out, so shards
+     * may be appended but never reordered or removed.
+     */
+    private List<Shard> shards = new ArrayList<>();
+
+    /**
+     * Connection settings of one shard.
+     */
+    @Getter
+    @Setter
+    public static class Shard {
+
+        private String url;
+
+        /**
+         * Defaults to {@code spring.datasource.username}.
+         */
+        private String username;
+
+        /**
+         * Defaults to {@code spring.datasource.password}.
+         */
+        private String password;
+
+        private int maximumPoolSize = 10;
+    }
+}
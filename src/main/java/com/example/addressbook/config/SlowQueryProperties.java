@@ -0,0 +1,26 @@
+package com.example.addressbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the slow-query log.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "addressbook.slow-query")
+public class SlowQueryProperties {
+
+    /**
+     * Repository calls and SQL statements taking at least this long are logged.
+     */
+    private Duration threshold = Duration.ofMillis(200);
+
+    /**
+     * Number of most recent slow repository calls kept for the {@code hibernate} actuator endpoint.
+     */
+    private int historySize = 50;
+}
@@ -0,0 +1,47 @@
+package com.example.addressbook.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for asynchronous ({@code POST /api/addresses?async=true}) creates.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "addressbook.write-behind")
+public class WriteBehindProperties {
+
+    /**
+     * Accept asynchronous creates; when false they are answered with 503.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of addresses waiting to be written.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Maximum number of queued addresses inserted and committed in one transaction.
+     */
+    private int maxBatchSize = 500;
+
+    /**
+     * How long a request waits for space in a full queue before it is answered with 503.
+     */
+    private Duration offerTimeout = Duration.ofMillis(100);
+
+    /**
+     * How long the outcome of a ticket can be looked up after it was last updated.
+     */
+    private Duration ticketTtl = Duration.ofMinutes(10);
+
+    /**
+     * Maximum number of finished tickets kept; past it, the least useful are evicted first.
+     * Pending tickets do not count towards it and stay until their address is written.
+     */
+    private long maxTickets = 100_000;
+}
@@ -0,0 +1,33 @@
+package com.example.addressbook.controller;
+
+import com.example.addressbook.dto.AddressFields;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Writes only the addresses' selected properties when a {@link UserAddressController} read
+ * names a subset with {@code fields}. Applies to every Jackson encoding (JSON, CBOR, Smile);
+ * Protobuf omits the unselected fields because the service leaves them null.
+ */
+@ControllerAdvice(assignableTypes = UserAddressController.class)
+public class SparseFieldsResponseBodyAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            String selected = servletRequest.getServletRequest().getParameter(AddressFields.PARAM);
+            AddressFields fields = AddressFields.parse(selected);
+            if (!fields.isAll()) {
+                bodyContainer.setFilters(fields.filters());
+            }
+        }
+    }
+}
@@ -1,22 +1,76 @@
 package com.example.addressbook.controller;
 
+import com.example.addressbook.cache.AddressJsonCache;
+import com.example.addressbook.dto.AddressFields;
+import com.example.addressbook.dto.BulkCreateRequest;
+import com.example.addressbook.dto.BulkCreateResponse;
+import com.example.addressbook.dto.BulkDeleteRequest;
+import com.example.addressbook.dto.BulkDeleteResponse;
+import com.example.addressbook.dto.ChangeSet;
+import com.example.addressbook.dto.CollectionVersion;
+import com.example.addressbook.dto.CreateTicket;
+import com.example.addressbook.dto.CursorPage;
+import com.example.addressbook.dto.FullTextSearchResult;
+import com.example.addressbook.dto.ImportReport;
 import com.example.addressbook.dto.UserAddressDTO;
+import com.example.addressbook.event.AddressChangeFeed;
+import com.example.addressbook.exception.BadRequestException;
+import com.example.addressbook.exception.ResourceNotFoundException;
+import com.example.addressbook.protobuf.AddressProtobufHttpMessageConverter;
+import com.example.addressbook.service.UserAddressBulkService;
+import com.example.addressbook.service.UserAddressImportService;
 import com.example.addressbook.service.UserAddressService;
+import com.example.addressbook.service.UserAddressWriteBehindQueue;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * REST controller for managing user addresses.
+ * <p>
+ * Single-address and list reads carry a weak {@code ETag} and {@code Last-Modified}
+ * derived from {@code updatedAt}. Conditional requests are checked against a cheap version
+ * lookup before the body is loaded, so a 304 skips the row fetch and serialization. The
+ * ETags are weak so Tomcat may gzip the body, and they differ per {@code Accept}-negotiated
+ * encoding (JSON, CBOR, Smile, Protobuf).
+ * <p>
+ * Every read takes an optional {@code fields} parameter naming the address properties to
+ * return. Only those columns are queried, and only those properties are written, see
+ * {@link AddressFields} and {@link SparseFieldsResponseBodyAdvice}.
  */
 @RestController
 @RequestMapping("/api/addresses")
@@ -24,7 +78,33 @@ import java.util.List;
 @Tag(name = "User Address", description = "User Address Directory API")
 public class UserAddressController {
 
+    /**
+     * Media type of a JSON Merge Patch document (RFC 7396).
+     */
+    public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
+    /**
+     * Media type of a Jackson Smile document.
+     */
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    /**
+     * Media type of a CSV document.
+     */
+    public static final String CSV_VALUE = "text/csv";
+
+    private static final String FIELDS_DESCRIPTION = "Comma-separated address properties to return, e.g. name,city";
+
+    private static final List<MediaType> BINARY_TYPES = List.of(MediaType.APPLICATION_CBOR,
+            MediaType.parseMediaType(SMILE_VALUE), AddressProtobufHttpMessageConverter.PROTOBUF);
+
     private final UserAddressService service;
+    private final UserAddressBulkService bulkService;
+    private final UserAddressImportService importService;
+    private final UserAddressWriteBehindQueue writeBehindQueue;
+    private final AddressChangeFeed changeFeed;
+    private final ObjectMapper objectMapper;
+    private final AddressJsonCache jsonCache;
 
     /**
      * Creates a new user address.
@@ -41,27 +121,287 @@ public class UserAddressController {
     }
 
     /**
-     * Gets an address by ID.
+     * Queues a new address for a background writer and answers before it is inserted.
+     */
+    @PostMapping(params = "async=true")
+    @Operation(summary = "Queue a new address",
+            description = "Queues the address for a writer that inserts queued addresses in groups, one "
+                    + "transaction per group; poll the returned ticket for the generated id")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Address queued"),
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "503", description = "Queue full or asynchronous create disabled")
+    })
+    public ResponseEntity<CreateTicket> createAsync(@Valid @RequestBody UserAddressDTO dto) {
+        CreateTicket ticket = writeBehindQueue.submit(dto);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                        .path("/api/addresses/tickets/{ticket}")
+                        .buildAndExpand(ticket.getTicket())
+                        .toUri())
+                .body(ticket);
+    }
+
+    /**
+     * Looks up the outcome of a queued create.
+     */
+    @GetMapping("/tickets/{ticket}")
+    @Operation(summary = "Get a queued create",
+            description = "Reports whether a queued address is still pending, was created (with its id) or failed")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Ticket state"),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired ticket")
+    })
+    public ResponseEntity<CreateTicket> getTicket(
+            @Parameter(description = "Ticket returned by an asynchronous create") @PathVariable String ticket) {
+        return ResponseEntity.ok(writeBehindQueue.getTicket(ticket)
+                .orElseThrow(() -> new ResourceNotFoundException("Ticket not found: " + ticket)));
+    }
+
+    /**
+     * Creates many addresses in one request.
+     */
+    @PostMapping("/bulk")
+    @Operation(summary = "Create addresses in bulk",
+            description = "Creates up to " + BulkCreateRequest.MAX_ADDRESSES
+                    + " addresses using batched inserts, committing in chunks")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Addresses created successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid input")
+    })
+    public ResponseEntity<BulkCreateResponse> createBulk(@Valid @RequestBody BulkCreateRequest request) {
+        List<Long> ids = bulkService.createAll(request.getAddresses());
+        return ResponseEntity.status(HttpStatus.CREATED).body(new BulkCreateResponse(ids.size(), ids));
+    }
+
+    /**
+     * Imports addresses from an uploaded CSV file.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import addresses from CSV",
+            description = "Reads the CSV in the file part, with a header row naming the address properties, and "
+                    + "inserts valid rows in chunks, one transaction each. Rejected rows are listed in the report. "
+                    + "If the import stops early, send the file again with skip=committedRows to resume")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Every row read; see the report for rejected rows"),
+            @ApiResponse(responseCode = "400", description = "Invalid header, or the file is not valid CSV past "
+                    + "committedRows"),
+            @ApiResponse(responseCode = "503", description = "A chunk could not be written past committedRows")
+    })
+    public ResponseEntity<ImportReport> importCsv(
+            @RequestPart("file") MultipartFile file,
+            @Parameter(description = "Rows to pass over, e.g. committedRows of an earlier attempt")
+            @RequestParam(defaultValue = "0") long skip) throws IOException {
+        try (InputStream csv = file.getInputStream()) {
+            return importReport(importService.importCsv(csv, skip));
+        }
+    }
+
+    /**
+     * Imports addresses from a CSV request body, read as it arrives.
      */
-    @GetMapping("/{id}")
+    @PostMapping(value = "/import", consumes = CSV_VALUE)
+    @Operation(summary = "Import addresses from a CSV body",
+            description = "Same as the multipart import, for a text/csv request body")
+    public ResponseEntity<ImportReport> importCsvBody(
+            InputStream csv,
+            @Parameter(description = "Rows to pass over, e.g. committedRows of an earlier attempt")
+            @RequestParam(defaultValue = "0") long skip) throws IOException {
+        return importReport(importService.importCsv(csv, skip));
+    }
+
+    /**
+     * Deletes many addresses in one request, by id list or by location.
+     */
+    @PostMapping("/bulk/delete")
+    @Operation(summary = "Delete addresses in bulk",
+            description = "Deletes up to " + BulkDeleteRequest.MAX_IDS + " addresses by id, or every address "
+                    + "matching a city and/or country, using set-based deletes committed in chunks")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Number of addresses deleted"),
+            @ApiResponse(responseCode = "400", description = "Neither or both of ids and filter given")
+    })
+    public ResponseEntity<BulkDeleteResponse> deleteBulk(@Valid @RequestBody BulkDeleteRequest request) {
+        boolean byId = request.getIds() != null && !request.getIds().isEmpty();
+        boolean byLocation = hasText(request.getCity()) || hasText(request.getCountry());
+        if (byId == byLocation) {
+            throw new BadRequestException("Give either ids or a city/country filter");
+        }
+        long deleted = byId
+                ? bulkService.deleteAllById(request.getIds())
+                : bulkService.deleteAllByLocation(blankToNull(request.getCity()), blankToNull(request.getCountry()));
+        return ResponseEntity.ok(new BulkDeleteResponse(deleted));
+    }
+
+    /**
+     * Gets an address by ID. A full JSON body is served from the pre-serialized JSON cache; binary
+     * encodings and a subset of fields are serialized per request.
+     */
+    @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            SMILE_VALUE, AddressProtobufHttpMessageConverter.PROTOBUF_VALUE})
     @Operation(summary = "Get address by ID", description = "Retrieves a user address by its ID")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Address found"),
+            @ApiResponse(responseCode = "200", description = "Address found",
+                    content = @Content(schema = @Schema(implementation = UserAddressDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Address unchanged since the client's copy"),
             @ApiResponse(responseCode = "404", description = "Address not found")
     })
-    public ResponseEntity<UserAddressDTO> getById(
-            @Parameter(description = "Address ID") @PathVariable Long id) {
-        return ResponseEntity.ok(service.getById(id));
+    public ResponseEntity<?> getById(
+            @Parameter(description = "Address ID") @PathVariable Long id,
+            @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) String fields,
+            WebRequest request) {
+        AddressFields selected = AddressFields.parse(fields);
+        MediaType binary = preferredBinaryType(request);
+        if (!selected.isAll()) {
+            return getFields(id, selected, binary, request);
+        }
+        AddressJsonCache.Entry entry = jsonCache.getIfPresent(id);
+        UserAddressDTO dto = null;
+        LocalDateTime version;
+        if (entry != null) {
+            version = entry.updatedAt();
+        } else if (isConditional(request)) {
+            version = service.getVersion(id);
+        } else if (binary == null) {
+            entry = jsonCache.get(id, service::getById);
+            version = entry.updatedAt();
+        } else {
+            dto = service.getById(id);
+            version = dto.getUpdatedAt();
+        }
+
+        if (checkNotModified(request, binary, AddressFields.ALL, id + "-" + toMicros(version), toMillis(version))) {
+            return null;
+        }
+        if (binary != null) {
+            return ResponseEntity.ok()
+                    .contentType(binary)
+                    .body(dto != null ? dto : service.getById(id));
+        }
+        if (entry == null) {
+            entry = jsonCache.get(id, service::getById);
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(entry.json());
+    }
+
+    /**
+     * Gets a subset of an address's fields, selecting {@code updatedAt} as well for the
+     * validators unless the request is conditional.
+     */
+    private ResponseEntity<UserAddressDTO> getFields(Long id, AddressFields fields, MediaType binary,
+                                                     WebRequest request) {
+        UserAddressDTO dto = null;
+        LocalDateTime version;
+        if (isConditional(request)) {
+            version = service.getVersion(id);
+        } else {
+            dto = service.getById(id, fields.with("updatedAt"));
+            version = dto.getUpdatedAt();
+        }
+
+        if (checkNotModified(request, binary, fields, id + "-" + toMicros(version), toMillis(version))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(binary != null ? binary : MediaType.APPLICATION_JSON)
+                .body(dto != null ? fields.retain(dto) : service.getById(id, fields));
     }
 
     /**
-     * Gets all addresses.
+     * Gets a page of addresses.
      */
     @GetMapping
-    @Operation(summary = "Get all addresses", description = "Retrieves all user addresses")
-    @ApiResponse(responseCode = "200", description = "List of addresses")
-    public ResponseEntity<List<UserAddressDTO>> getAll() {
-        return ResponseEntity.ok(service.getAll());
+    @Operation(summary = "Get all addresses",
+            description = "Retrieves a page of user addresses; follow nextCursor to fetch the next page")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Page of addresses"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, limit or sort")
+    })
+    public ResponseEntity<CursorPage<UserAddressDTO>> getAll(
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String after,
+            @Parameter(description = "Maximum number of results") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Sort order: id or updatedAt") @RequestParam(defaultValue = "id") String sort,
+            @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) String fields,
+            WebRequest request) {
+        AddressFields selected = AddressFields.parse(fields);
+        if ("id".equals(sort)) {
+            return ifModified(request, selected, () -> service.getAll(after, limit, selected));
+        }
+        if ("updatedAt".equals(sort)) {
+            return ifModified(request, selected, () -> service.getAllByUpdatedAt(after, limit, selected));
+        }
+        throw new BadRequestException("sort must be one of: id, updatedAt");
+    }
+
+    /**
+     * Streams every address as newline-delimited JSON.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export all addresses",
+            description = "Streams every user address as newline-delimited JSON, one address per line")
+    @ApiResponse(responseCode = "200", description = "NDJSON stream of addresses")
+    public ResponseEntity<StreamingResponseBody> stream(
+            @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) String fields) {
+        AddressFields selected = AddressFields.parse(fields);
+        ObjectWriter writer = objectMapper.writer(selected.filters())
+                .forType(UserAddressDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                service.exportAll(dto -> {
+                    try {
+                        writer.writeValue(generator, dto);
+                        generator.writeRaw('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                }, selected);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Gets the address changes after a sync token.
+     */
+    @GetMapping("/changes")
+    @Operation(summary = "Get address changes",
+            description = "Returns the addresses created or updated and the ids of those deleted since the "
+                    + "token, oldest first, with the token for the next call. Without a token every address "
+                    + "is returned; follow nextToken while hasMore is true")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Changes since the token"),
+            @ApiResponse(responseCode = "400", description = "Invalid token or limit"),
+            @ApiResponse(responseCode = "410", description = "Token too old; reload every address")
+    })
+    public ResponseEntity<ChangeSet> getChanges(
+            @Parameter(description = "Token from the previous call") @RequestParam(required = false) String since,
+            @Parameter(description = "Maximum number of changes") @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(service.getChanges(since, limit));
+    }
+
+    /**
+     * Streams committed address changes as Server-Sent Events.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream address changes",
+            description = "Server-Sent Events named created, updated or deleted, in commit order, each carrying "
+                    + "the change as JSON. Reconnect with Last-Event-ID to resume; a reset event means changes "
+                    + "were missed and the addresses should be reloaded")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Event stream"),
+            @ApiResponse(responseCode = "503", description = "Too many open streams")
+    })
+    public SseEmitter events(
+            @Parameter(description = "Id of the last event received, to resume after it")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return changeFeed.subscribe(lastEventId);
     }
 
     /**
@@ -80,6 +420,24 @@ public class UserAddressController {
         return ResponseEntity.ok(service.update(id, dto));
     }
 
+    /**
+     * Partially updates an address with a JSON Merge Patch.
+     */
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Patch address",
+            description = "Applies a JSON Merge Patch; only supplied fields change and an unchanged "
+                    + "address is not written")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Address after the patch"),
+            @ApiResponse(responseCode = "400", description = "Unknown field or invalid value"),
+            @ApiResponse(responseCode = "404", description = "Address not found")
+    })
+    public ResponseEntity<UserAddressDTO> patch(
+            @Parameter(description = "Address ID") @PathVariable Long id,
+            @RequestBody Map<String, Object> patch) {
+        return ResponseEntity.ok(service.patch(id, patch));
+    }
+
     /**
      * Deletes an address.
      */
@@ -100,10 +458,41 @@ public class UserAddressController {
      */
     @GetMapping("/search")
     @Operation(summary = "Search addresses", description = "Searches addresses by keyword across all fields")
-    @ApiResponse(responseCode = "200", description = "Search results")
-    public ResponseEntity<List<UserAddressDTO>> search(
-            @Parameter(description = "Search keyword") @RequestParam(required = false) String q) {
-        return ResponseEntity.ok(service.search(q));
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Page of search results"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, limit or mode")
+    })
+    public ResponseEntity<CursorPage<UserAddressDTO>> search(
+            @Parameter(description = "Search keyword") @RequestParam(required = false) String q,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String after,
+            @Parameter(description = "Maximum number of results") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Search mode: substring or fulltext")
+            @RequestParam(defaultValue = "substring") String mode,
+            @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) String fields,
+            WebRequest request) {
+        if (!"substring".equals(mode)) {
+            throw new BadRequestException("mode must be one of: substring, fulltext");
+        }
+        AddressFields selected = AddressFields.parse(fields);
+        return ifModified(request, selected, () -> service.search(q, after, limit, selected));
+    }
+
+    /**
+     * Runs a relevance-ranked full-text search.
+     */
+    @GetMapping(value = "/search", params = "mode=fulltext")
+    @Operation(summary = "Full-text search",
+            description = "Returns the top addresses ranked by relevance, with name matches weighted highest")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Ranked search results"),
+            @ApiResponse(responseCode = "400", description = "Missing query"),
+            @ApiResponse(responseCode = "503", description = "Full-text search disabled or index still building")
+    })
+    public ResponseEntity<FullTextSearchResult> fullTextSearch(
+            @Parameter(description = "Free-text query") @RequestParam(required = false) String q,
+            @Parameter(description = "Maximum number of hits") @RequestParam(required = false) Integer limit,
+            @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(service.fullTextSearch(q, limit, AddressFields.parse(fields)));
     }
 
     /**
@@ -111,10 +500,15 @@ public class UserAddressController {
      */
     @GetMapping("/search/name")
     @Operation(summary = "Search by name", description = "Searches addresses by name")
-    @ApiResponse(responseCode = "200", description = "Search results")
-    public ResponseEntity<List<UserAddressDTO>> searchByName(
-            @Parameter(description = "Name to search") @RequestParam String name) {
-        return ResponseEntity.ok(service.findByName(name));
+    @ApiResponse(responseCode = "200", description = "Page of search results")
+    public ResponseEntity<CursorPage<UserAddressDTO>> searchByName(
+            @Parameter(description = "Name to search") @RequestParam String name,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String after,
+            @Parameter(description = "Maximum number of results") @RequestParam(required = false) Integer limit,
+            @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) String fields,
+            WebRequest request) {
+        AddressFields selected = AddressFields.parse(fields);
+        return ifModified(request, selected, () -> service.findByName(name, after, limit, selected));
     }
 
     /**
@@ -122,9 +516,110 @@ public class UserAddressController {
      */
     @GetMapping("/search/city")
     @Operation(summary = "Search by city", description = "Searches addresses by city")
-    @ApiResponse(responseCode = "200", description = "Search results")
-    public ResponseEntity<List<UserAddressDTO>> searchByCity(
-            @Parameter(description = "City to search") @RequestParam String city) {
-        return ResponseEntity.ok(service.findByCity(city));
+    @ApiResponse(responseCode = "200", description = "Page of search results")
+    public ResponseEntity<CursorPage<UserAddressDTO>> searchByCity(
+            @Parameter(description = "City to search") @RequestParam String city,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String after,
+            @Parameter(description = "Maximum number of results") @RequestParam(required = false) Integer limit,
+            @Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) String fields,
+            WebRequest request) {
+        AddressFields selected = AddressFields.parse(fields);
+        return ifModified(request, selected, () -> service.findByCity(city, after, limit, selected));
+    }
+
+    /**
+     * Answers a list or search request with 304 when the collection has not changed
+     * since the client's copy, and otherwise builds the body.
+     * <p>
+     * Only the ETag is checked. The latest {@code updatedAt} does not move when an address is
+     * deleted, so it is not sent as {@code Last-Modified} and {@code If-Modified-Since} is ignored.
+     */
+    private <T> ResponseEntity<T> ifModified(WebRequest request, AddressFields fields, Supplier<T> body) {
+        CollectionVersion version = service.getCollectionVersion();
+        LocalDateTime lastModified = version.getLastModified();
+        String tag = "c" + version.getCount() + "-" + (lastModified == null ? 0 : toMicros(lastModified));
+        if (checkNotModified(request, preferredBinaryType(request), fields, tag, -1)) {
+            return null;
+        }
+        return ResponseEntity.ok(body.get());
+    }
+
+    /**
+     * Checks the request's preconditions against a weak ETag for the given version, encoding and
+     * field selection, and against {@code lastModified} unless it is negative. Marks the response
+     * as varying by {@code Accept}, including when it is a 304.
+     */
+    private static boolean checkNotModified(WebRequest request, MediaType binary, AddressFields fields,
+                                            String version, long lastModified) {
+        if (request instanceof ServletWebRequest servletRequest && servletRequest.getResponse() != null) {
+            servletRequest.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        String encoding = binary == null ? "" : "-" + binary.getSubtype();
+        String selection = fields.isAll() ? "" : "-" + String.join(".", fields.names());
+        return request.checkNotModified("W/" + etag(version + encoding + selection), lastModified);
+    }
+
+    /**
+     * The binary encoding the client ranks above JSON, or null when JSON is acceptable first
+     * or no {@code Accept} header was sent.
+     */
+    private static MediaType preferredBinaryType(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return null;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(accepted);
+        } catch (InvalidMediaTypeException | InvalidMimeTypeException ex) {
+            // Left for content negotiation to reject
+            return null;
+        }
+        for (MediaType type : accepted) {
+            if (type.includes(MediaType.APPLICATION_JSON)) {
+                return null;
+            }
+            for (MediaType binary : BINARY_TYPES) {
+                if (type.includes(binary)) {
+                    return binary;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static ResponseEntity<ImportReport> importReport(ImportReport report) {
+        HttpStatus status = switch (report.getOutcome()) {
+            case COMPLETED -> HttpStatus.OK;
+            case MALFORMED -> HttpStatus.BAD_REQUEST;
+            case FAILED -> HttpStatus.SERVICE_UNAVAILABLE;
+        };
+        return ResponseEntity.status(status).body(report);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static String blankToNull(String value) {
+        return hasText(value) ? value.trim() : null;
+    }
+
+    private static boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    private static String etag(String value) {
+        return "\"" + value + "\"";
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
 }
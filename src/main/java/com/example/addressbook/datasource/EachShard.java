@@ -0,0 +1,19 @@
+package com.example.addressbook.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service method that must run on every shard in turn, such as a bulk delete by a
+ * filter; the counts it returns are added up.
+ * <p>
+ * Has no effect unless {@code addressbook.sharding.enabled} is set; see {@link ShardRoutingInterceptor}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface EachShard {
+}
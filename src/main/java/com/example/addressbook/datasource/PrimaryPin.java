@@ -0,0 +1,42 @@
+package com.example.addressbook.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks the current thread as having to read from the primary, e.g. for a client that has
+ * just written. Read by {@link ReplicaRoutingDataSource}.
+ */
+public final class PrimaryPin {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private PrimaryPin() {
+    }
+
+    public static boolean isPinned() {
+        return Boolean.TRUE.equals(PINNED.get());
+    }
+
+    public static void pin() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    public static void clear() {
+        PINNED.remove();
+    }
+
+    /**
+     * Runs a read pinned to the primary, leaving the thread pinned only if it already was.
+     */
+    public static <T> T onPrimary(Supplier<T> read) {
+        if (isPinned()) {
+            return read.get();
+        }
+        pin();
+        try {
+            return read.get();
+        } finally {
+            clear();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.addressbook.datasource;
+
+import com.example.addressbook.config.ReadReplicaProperties.Selection;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connection pools of the read replicas, and the choice of which one serves the next
+ * read-only transaction.
+ */
+public class ReadReplicas implements Closeable {
+
+    private final List<HikariDataSource> pools;
+    private final Selection selection;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadReplicas(List<HikariDataSource> pools, Selection selection) {
+        if (pools.isEmpty()) {
+            throw new IllegalArgumentException("At least one read replica is required");
+        }
+        this.pools = List.copyOf(pools);
+        this.selection = selection;
+    }
+
+    /**
+     * Picks the replica for the next read-only transaction.
+     */
+    public HikariDataSource select() {
+        int start = Math.floorMod(next.getAndIncrement(), pools.size());
+        if (selection == Selection.ROUND_ROBIN) {
+            return pools.get(start);
+        }
+        HikariDataSource leastBusy = null;
+        int fewest = Integer.MAX_VALUE;
+        for (int i = 0; i < pools.size(); i++) {
+            HikariDataSource pool = pools.get((start + i) % pools.size());
+            int active = activeConnections(pool);
+            if (active < fewest) {
+                leastBusy = pool;
+                fewest = active;
+            }
+        }
+        return leastBusy;
+    }
+
+    public List<HikariDataSource> getPools() {
+        return pools;
+    }
+
+    @Override
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    /**
+     * Connections in use, or none before the pool has started.
+     */
+    private static int activeConnections(HikariDataSource pool) {
+        HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+        return bean == null ? 0 : bean.getActiveConnections();
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.addressbook.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Read-your-writes for replica routing. A request that may write (anything but GET, HEAD and
+ * OPTIONS) gets a {@value #COOKIE} cookie living for the configured window; requests carrying
+ * it are {@link PrimaryPin pinned} to the primary, so the client does not read a replica that
+ * has not caught up with its write yet.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE = "addressbook-primary";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final int windowSeconds;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.windowSeconds = (int) Math.max(1, (window.toMillis() + 999) / 1000);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            Cookie cookie = new Cookie(COOKIE, "1");
+            cookie.setMaxAge(windowSeconds);
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+        if (WebUtils.getCookie(request, COOKIE) == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        PrimaryPin.pin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            PrimaryPin.clear();
+        }
+    }
+}
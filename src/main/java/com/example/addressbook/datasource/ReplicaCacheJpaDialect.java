@@ -0,0 +1,31 @@
+package com.example.addressbook.datasource;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.CacheMode;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+
+import java.sql.SQLException;
+
+/**
+ * Begins read-only transactions that a replica may serve with {@link CacheMode#IGNORE}, so they
+ * leave the entity and query caches alone. A replica that has not caught up with a write would
+ * otherwise put the old row back into the shared caches right after the write evicted it, for
+ * every client until the entry expires. {@link CacheMode#GET} is not enough: Hibernate still
+ * stores the results of a cacheable query that missed. Transactions of a {@link PrimaryPin pinned}
+ * thread read the primary and use the caches as usual.
+ */
+public class ReplicaCacheJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException, TransactionException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (definition.isReadOnly() && !PrimaryPin.isPinned()) {
+            getSession(entityManager).setCacheMode(CacheMode.IGNORE);
+        }
+        return transactionData;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.addressbook.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Source of connections for read-only transactions: a replica picked by {@link ReadReplicas},
+ * or the primary when the thread is {@link PrimaryPin pinned} or the replica cannot be reached.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final ReadReplicas replicas;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReadReplicas replicas) {
+        this.primary = primary;
+        this.replicas = replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (PrimaryPin.isPinned()) {
+            return source.from(primary);
+        }
+        HikariDataSource replica = replicas.select();
+        try {
+            return source.from(replica);
+        } catch (SQLException ex) {
+            log.warn("Read replica {} unavailable, reading from the primary", replica.getPoolName(), ex);
+            return source.from(primary);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection from(DataSource dataSource) throws SQLException;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.addressbook.datasource;
+
+import org.hibernate.engine.jdbc.connections.spi.AbstractDataSourceBasedMultiTenantConnectionProviderImpl;
+
+import javax.sql.DataSource;
+
+/**
+ * Hands Hibernate connections from the shard its session's tenant names, see
+ * {@link ShardTenantResolver}. Schema validation and other tenant-less work uses shard 0.
+ */
+public class ShardConnectionProvider extends AbstractDataSourceBasedMultiTenantConnectionProviderImpl<String> {
+
+    private final Shards shards;
+
+    public ShardConnectionProvider(Shards shards) {
+        this.shards = shards;
+    }
+
+    @Override
+    protected DataSource selectAnyDataSource() {
+        return shards.get(0);
+    }
+
+    @Override
+    protected DataSource selectDataSource(String tenantIdentifier) {
+        return shards.get(Integer.parseInt(tenantIdentifier));
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.addressbook.datasource;
+
+/**
+ * The shard the current thread works on. Read by {@link ShardTenantResolver} when a Hibernate
+ * session opens, so it must be set before the transaction starts.
+ * <p>
+ * Unset means no shard has been chosen: Spring Data reads then run on every shard, see
+ * {@link ShardScatterInterceptor}, and anything else uses shard 0.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * The chosen shard, or null if there is none.
+     */
+    public static Integer current() {
+        return SHARD.get();
+    }
+
+    /**
+     * Chooses a shard for the current thread.
+     *
+     * @return the previous choice, to hand back to {@link #restore}
+     */
+    public static Integer pin(int shard) {
+        Integer previous = SHARD.get();
+        SHARD.set(shard);
+        return previous;
+    }
+
+    public static void restore(Integer previous) {
+        if (previous == null) {
+            SHARD.remove();
+        } else {
+            SHARD.set(previous);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.addressbook.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the service method parameter that decides which shard the call runs on: an address
+ * id, a {@code UserAddressDTO} to be created (by its country), or a list of either. A list
+ * spanning several shards is split, the method runs once per shard with its part, and the
+ * results are put back together: lists in input order, counts added up.
+ * <p>
+ * Has no effect unless {@code addressbook.sharding.enabled} is set; see {@link ShardRoutingInterceptor}.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ShardKey {
+}
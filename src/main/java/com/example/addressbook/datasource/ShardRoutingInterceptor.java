@@ -0,0 +1,134 @@
+package com.example.addressbook.datasource;
+
+import com.example.addressbook.dto.UserAddressDTO;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs {@link ShardKey} and {@link EachShard} service methods on their shards. It is applied
+ * outside the transaction interceptor, so the transaction a method starts, and the Hibernate
+ * session in it, belong to the shard chosen here.
+ * <p>
+ * Calls made while a shard is already chosen, e.g. from another routed method, stay on it.
+ */
+public class ShardRoutingInterceptor implements MethodInterceptor {
+
+    /**
+     * Matches the methods this interceptor routes.
+     */
+    public static final Pointcut POINTCUT = new StaticMethodMatcherPointcut() {
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return method.isAnnotationPresent(EachShard.class) || keyIndex(method) >= 0;
+        }
+    };
+
+    private final Supplier<Shards> shards;
+
+    public ShardRoutingInterceptor(Supplier<Shards> shards) {
+        this.shards = shards;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (ShardContext.current() != null) {
+            return invocation.proceed();
+        }
+        Shards shards = this.shards.get();
+        Object[] arguments = invocation.getArguments();
+        if (method.isAnnotationPresent(EachShard.class)) {
+            List<Object> results = new ArrayList<>();
+            for (int shard = 0; shard < shards.count(); shard++) {
+                results.add(proceedOn(shard, invocation, arguments));
+            }
+            return sum(method, results);
+        }
+        int index = keyIndex(method);
+        if (!(arguments[index] instanceof List<?> keys)) {
+            return proceedOn(shardOf(shards, arguments[index]), invocation, arguments);
+        }
+
+        Map<Integer, List<Integer>> positions = new TreeMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            positions.computeIfAbsent(shardOf(shards, keys.get(i)), shard -> new ArrayList<>()).add(i);
+        }
+        if (positions.size() <= 1) {
+            return proceedOn(positions.isEmpty() ? 0 : positions.keySet().iterator().next(), invocation, arguments);
+        }
+        Object[] merged = new Object[keys.size()];
+        List<Object> counts = new ArrayList<>();
+        for (Map.Entry<Integer, List<Integer>> part : positions.entrySet()) {
+            Object[] partArguments = arguments.clone();
+            partArguments[index] = part.getValue().stream().map(keys::get).toList();
+            Object result = proceedOn(part.getKey(), invocation, partArguments);
+            if (result instanceof List<?> list) {
+                for (int i = 0; i < list.size(); i++) {
+                    merged[part.getValue().get(i)] = list.get(i);
+                }
+            } else {
+                counts.add(result);
+            }
+        }
+        return List.class.isAssignableFrom(method.getReturnType()) ? new ArrayList<>(Arrays.asList(merged))
+                : sum(method, counts);
+    }
+
+    private static Object proceedOn(int shard, MethodInvocation invocation, Object[] arguments) throws Throwable {
+        Integer previous = ShardContext.pin(shard);
+        try {
+            return ((ProxyMethodInvocation) invocation).invocableClone(arguments).proceed();
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+
+    private static int shardOf(Shards shards, Object key) {
+        if (key instanceof UserAddressDTO address) {
+            return shards.shardOf(address.getCountry());
+        }
+        return shards.shardOf((Long) key);
+    }
+
+    private static Object sum(Method method, List<Object> results) {
+        Class<?> type = method.getReturnType();
+        if (type == void.class) {
+            return null;
+        }
+        long total = results.stream().mapToLong(result -> ((Number) result).longValue()).sum();
+        if (type == long.class || type == Long.class) {
+            return total;
+        }
+        if (type == int.class || type == Integer.class) {
+            return Math.toIntExact(total);
+        }
+        throw new IllegalStateException("Cannot add up the results of " + method + " across shards");
+    }
+
+    /**
+     * Position of the {@link ShardKey} parameter, or -1.
+     */
+    static int keyIndex(Method method) {
+        Annotation[][] annotations = method.getParameterAnnotations();
+        for (int i = 0; i < annotations.length; i++) {
+            for (Annotation annotation : annotations[i]) {
+                if (annotation instanceof ShardKey) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+}
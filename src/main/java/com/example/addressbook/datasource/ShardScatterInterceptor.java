@@ -0,0 +1,310 @@
+package com.example.addressbook.datasource;
+
+import com.example.addressbook.dto.CollectionVersion;
+import com.example.addressbook.dto.UserAddressDTO;
+import com.example.addressbook.entity.AddressTombstone;
+import com.example.addressbook.entity.UserAddress;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.core.support.SurroundingTransactionDetectorMethodInterceptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Runs Spring Data read methods on every shard when no shard has been chosen, and merges the
+ * results into what one database holding every row would have returned:
+ * <ul>
+ *   <li>lists are put in the order of the query's {@code ORDER BY}, by {@code updatedAt} (or a
+ *       tombstone's {@code deletedAt}) then id or by id alone, and cut to the page size</li>
+ *   <li>an {@link Optional} is the first one found</li>
+ *   <li>a {@link CollectionVersion} counts every shard's rows and has the latest modification</li>
+ *   <li>a {@link Stream} reads the shards one after the other in shard order, which is id order</li>
+ * </ul>
+ * Lists are gathered in parallel, each shard in its own read-only transaction on a virtual
+ * thread. Pages must be keyset pages: every shard returns its own first page and the merge keeps
+ * the best of them.
+ * <p>
+ * Writes, Spring Data's own CRUD methods and calls made on a chosen shard run as usual.
+ */
+public class ShardScatterInterceptor implements MethodInterceptor, AutoCloseable {
+
+    private static final String ORDER_BY = "ORDER BY ";
+    private static final String ORDER_BY_UPDATED_AT = ORDER_BY + "u.updatedAt";
+    private static final String ORDER_BY_DELETED_AT = ORDER_BY + "t.deletedAt";
+
+    private static final Comparator<Object> BY_ID = Comparator.comparing(ShardScatterInterceptor::id,
+            Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private static final Comparator<Object> BY_UPDATED_AT = Comparator.<Object, LocalDateTime>comparing(
+            ShardScatterInterceptor::updatedAt, Comparator.nullsFirst(Comparator.naturalOrder())).thenComparing(BY_ID);
+
+    private final Shards shards;
+    private final PlatformTransactionManager transactionManager;
+    private final DefaultTransactionDefinition definition;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("shard-scatter-", 0).factory());
+
+    public ShardScatterInterceptor(Shards shards, PlatformTransactionManager transactionManager) {
+        this.shards = shards;
+        this.transactionManager = transactionManager;
+        this.definition = new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.definition.setReadOnly(true);
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (ShardContext.current() != null || !scatters(method)) {
+            return invocation.proceed();
+        }
+        if (Stream.class.isAssignableFrom(method.getReturnType())) {
+            ShardSequence rows = new ShardSequence((ProxyMethodInvocation) invocation);
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED), false)
+                    .onClose(rows::close);
+        }
+        return merge(method, invocation.getArguments(), gather((ProxyMethodInvocation) invocation));
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    /**
+     * Reads of the application's own repository methods; Spring Data's CRUD methods depend on
+     * per-thread call metadata and are left on the current shard.
+     */
+    private static boolean scatters(Method method) {
+        return !method.getDeclaringClass().getName().startsWith("org.springframework.data.")
+                && !method.isAnnotationPresent(Modifying.class);
+    }
+
+    private List<Object> gather(ProxyMethodInvocation invocation) throws Throwable {
+        TransactionTemplate template = new TransactionTemplate(transactionManager, definition);
+        List<Future<Object>> legs = new ArrayList<>(shards.count());
+        for (int shard = 0; shard < shards.count(); shard++) {
+            int target = shard;
+            MethodInvocation leg = invocation.invocableClone();
+            legs.add(executor.submit(() -> {
+                Integer previous = ShardContext.pin(target);
+                try {
+                    return template.execute(status -> proceed(leg));
+                } finally {
+                    ShardContext.restore(previous);
+                }
+            }));
+        }
+        List<Object> results = new ArrayList<>(legs.size());
+        for (Future<Object> leg : legs) {
+            try {
+                results.add(leg.get());
+            } catch (ExecutionException e) {
+                throw e.getCause();
+            }
+        }
+        return results;
+    }
+
+    private static Object merge(Method method, Object[] arguments, List<Object> results) {
+        Class<?> type = method.getReturnType();
+        if (List.class.isAssignableFrom(type)) {
+            List<Object> rows = new ArrayList<>();
+            results.forEach(result -> rows.addAll((List<?>) result));
+            Comparator<Object> order = order(method, arguments);
+            if (order != null) {
+                rows.sort(order);
+            }
+            int limit = limit(arguments);
+            return limit > 0 && rows.size() > limit ? new ArrayList<>(rows.subList(0, limit)) : rows;
+        }
+        if (type == Optional.class) {
+            return results.stream()
+                    .map(Optional.class::cast)
+                    .filter(Optional::isPresent)
+                    .findFirst()
+                    .orElse(Optional.empty());
+        }
+        if (type == CollectionVersion.class) {
+            CollectionVersion total = new CollectionVersion(0, null);
+            for (Object result : results) {
+                CollectionVersion version = (CollectionVersion) result;
+                total.setCount(total.getCount() + version.getCount());
+                if (version.getLastModified() != null && (total.getLastModified() == null
+                        || version.getLastModified().isAfter(total.getLastModified()))) {
+                    total.setLastModified(version.getLastModified());
+                }
+            }
+            return total;
+        }
+        throw new IllegalStateException("Cannot merge the results of " + method + " across shards");
+    }
+
+    /**
+     * The ordering of the method's JPQL, from its {@link Query} or else the condition it is passed.
+     */
+    private static Comparator<Object> order(Method method, Object[] arguments) {
+        Query query = AnnotatedElementUtils.findMergedAnnotation(method, Query.class);
+        String jpql = query != null ? query.value() : null;
+        for (int i = 0; jpql == null && i < arguments.length; i++) {
+            if (arguments[i] instanceof String condition && condition.contains(ORDER_BY)) {
+                jpql = condition;
+            }
+        }
+        if (jpql == null || !jpql.contains(ORDER_BY)) {
+            return null;
+        }
+        return jpql.contains(ORDER_BY_UPDATED_AT) || jpql.contains(ORDER_BY_DELETED_AT) ? BY_UPDATED_AT : BY_ID;
+    }
+
+    /**
+     * The page size, from a {@link Pageable} or an int limit argument; 0 for none.
+     */
+    private static int limit(Object[] arguments) {
+        for (Object argument : arguments) {
+            if (argument instanceof Pageable pageable) {
+                return pageable.isPaged() ? pageable.getPageSize() : 0;
+            }
+            if (argument instanceof Integer limit) {
+                return limit;
+            }
+        }
+        return 0;
+    }
+
+    private static Long id(Object row) {
+        if (row instanceof UserAddressDTO address) {
+            return address.getId();
+        }
+        if (row instanceof UserAddress address) {
+            return address.getId();
+        }
+        if (row instanceof AddressTombstone tombstone) {
+            return tombstone.getId();
+        }
+        return (Long) row;
+    }
+
+    private static LocalDateTime updatedAt(Object row) {
+        if (row instanceof UserAddressDTO address) {
+            return address.getUpdatedAt();
+        }
+        if (row instanceof AddressTombstone tombstone) {
+            return tombstone.getDeletedAt();
+        }
+        return ((UserAddress) row).getUpdatedAt();
+    }
+
+    /**
+     * Continues the call on one shard, inside the transaction just started for it. Spring Data
+     * checks for a surrounding transaction when the call begins, which was before that one, so
+     * the check is made again.
+     */
+    private static Object proceed(MethodInvocation invocation) {
+        try {
+            return SurroundingTransactionDetectorMethodInterceptor.INSTANCE.invoke(invocation);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+    /**
+     * The rows of a streaming read on each shard in turn. A shard's stream is opened, in a
+     * read-only transaction of its own, once the previous shard's is exhausted and closed.
+     */
+    private final class ShardSequence implements Iterator<Object> {
+
+        private final ProxyMethodInvocation invocation;
+        private int nextShard;
+        private TransactionStatus transaction;
+        private Stream<?> stream;
+        private Iterator<?> rows;
+
+        ShardSequence(ProxyMethodInvocation invocation) {
+            this.invocation = invocation;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (rows == null || !rows.hasNext()) {
+                closeShard();
+                if (nextShard >= shards.count()) {
+                    return false;
+                }
+                openShard(nextShard++);
+            }
+            return true;
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return rows.next();
+        }
+
+        void close() {
+            nextShard = shards.count();
+            closeShard();
+        }
+
+        private void openShard(int shard) {
+            Integer previous = ShardContext.pin(shard);
+            try {
+                transaction = transactionManager.getTransaction(definition);
+                stream = (Stream<?>) proceed(invocation.invocableClone());
+                rows = stream.iterator();
+            } catch (RuntimeException | Error e) {
+                close();
+                throw e;
+            } finally {
+                ShardContext.restore(previous);
+            }
+        }
+
+        private void closeShard() {
+            if (transaction == null) {
+                return;
+            }
+            TransactionStatus closing = transaction;
+            transaction = null;
+            rows = null;
+            try {
+                if (stream != null) {
+                    stream.close();
+                }
+            } finally {
+                stream = null;
+                transactionManager.commit(closing);
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.addressbook.datasource;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/**
+ * Opens each Hibernate session as the tenant named after the {@link ShardContext} shard, or
+ * shard 0 when none is chosen. Entity and query cache entries are kept per tenant, so cached
+ * results of one shard are never served for another.
+ */
+public class ShardTenantResolver implements CurrentTenantIdentifierResolver<String> {
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        Integer shard = ShardContext.current();
+        return shard == null ? "0" : shard.toString();
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+}
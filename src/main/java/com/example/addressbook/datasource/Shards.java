@@ -0,0 +1,86 @@
+package com.example.addressbook.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The databases {@code user_addresses} is partitioned across, and which one a row belongs to.
+ * <p>
+ * A new address is placed on the shard its country hashes to. Every shard draws ids from its
+ * own sequence, started at {@link #firstId(int)}, so an id is unique across shards and its top
+ * bits name the shard that holds it: point lookups go straight there, without knowing the
+ * country, and rows stay where they are when their country is changed.
+ */
+public class Shards implements Closeable {
+
+    /**
+     * Bits of an id below the shard number.
+     */
+    public static final int ID_SHARD_SHIFT = 48;
+
+    private final List<DataSource> dataSources;
+
+    /**
+     * @param dataSources shard 0, Spring Boot's own data source, followed by the configured shards
+     */
+    public Shards(List<DataSource> dataSources) {
+        if (dataSources.isEmpty() || dataSources.size() > 1 << (Long.SIZE - 1 - ID_SHARD_SHIFT)) {
+            throw new IllegalArgumentException("Between 1 and " + (1 << (Long.SIZE - 1 - ID_SHARD_SHIFT))
+                    + " shards are supported, got " + dataSources.size());
+        }
+        this.dataSources = List.copyOf(dataSources);
+    }
+
+    public int count() {
+        return dataSources.size();
+    }
+
+    public DataSource get(int shard) {
+        return dataSources.get(shard);
+    }
+
+    /**
+     * The shard holding the address with the given id.
+     */
+    public int shardOf(Long id) {
+        int shard = id == null ? 0 : (int) (id >>> ID_SHARD_SHIFT);
+        return shard < dataSources.size() ? shard : 0;
+    }
+
+    /**
+     * The shard a new address in the given country is written to; addresses without a country
+     * go to shard 0.
+     */
+    public int shardOf(String country) {
+        if (country == null || country.isBlank()) {
+            return 0;
+        }
+        return Math.floorMod(country.trim().toLowerCase(Locale.ROOT).hashCode(), dataSources.size());
+    }
+
+    /**
+     * The lowest id the given shard's sequence hands out.
+     */
+    public static long firstId(int shard) {
+        return (long) shard << ID_SHARD_SHIFT;
+    }
+
+    /**
+     * Closes the pools opened for the configured shards; shard 0 belongs to Spring Boot.
+     */
+    @Override
+    public void close() {
+        dataSources.stream().skip(1).forEach(dataSource -> {
+            try {
+                dataSource.unwrap(HikariDataSource.class).close();
+            } catch (SQLException e) {
+                throw new IllegalStateException("Shard is not a Hikari pool", e);
+            }
+        });
+    }
+}
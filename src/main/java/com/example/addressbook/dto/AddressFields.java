@@ -0,0 +1,181 @@
+package com.example.addressbook.dto;
+
+import com.example.addressbook.exception.BadRequestException;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * The {@link UserAddressDTO} properties a client asked for with {@code fields=name,city,...}.
+ * <p>
+ * Read paths select only these columns, and responses are written through the
+ * {@value #FILTER_ID} Jackson filter so only these properties appear, including ones whose
+ * value is null. {@link #ALL} is the default and leaves queries and responses unchanged.
+ */
+public final class AddressFields {
+
+    /**
+     * Request parameter carrying the comma-separated property names.
+     */
+    public static final String PARAM = "fields";
+
+    /**
+     * Id of the Jackson property filter applied to {@link UserAddressDTO}, see {@link FilterMixin}.
+     */
+    public static final String FILTER_ID = "addressFields";
+
+    /**
+     * Every property in declaration order, with how a selected column value is set on the DTO.
+     */
+    private static final Map<String, BiConsumer<UserAddressDTO, Object>> SETTERS;
+
+    static {
+        Map<String, BiConsumer<UserAddressDTO, Object>> setters = new LinkedHashMap<>();
+        setters.put("id", (dto, value) -> dto.setId((Long) value));
+        setters.put("name", (dto, value) -> dto.setName((String) value));
+        setters.put("phone", (dto, value) -> dto.setPhone((String) value));
+        setters.put("email", (dto, value) -> dto.setEmail((String) value));
+        setters.put("street", (dto, value) -> dto.setStreet((String) value));
+        setters.put("city", (dto, value) -> dto.setCity((String) value));
+        setters.put("state", (dto, value) -> dto.setState((String) value));
+        setters.put("zipCode", (dto, value) -> dto.setZipCode((String) value));
+        setters.put("country", (dto, value) -> dto.setCountry((String) value));
+        setters.put("createdAt", (dto, value) -> dto.setCreatedAt((LocalDateTime) value));
+        setters.put("updatedAt", (dto, value) -> dto.setUpdatedAt((LocalDateTime) value));
+        SETTERS = Collections.unmodifiableMap(setters);
+    }
+
+    public static final AddressFields ALL = new AddressFields(SETTERS.keySet());
+
+    private final Set<String> names;
+
+    private AddressFields(Set<String> names) {
+        this.names = Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * Parses a {@code fields} parameter; null or blank means every property.
+     *
+     * @throws BadRequestException if a name is not a property of {@link UserAddressDTO}
+     */
+    public static AddressFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> requested = new HashSet<>();
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!SETTERS.containsKey(trimmed)) {
+                throw new BadRequestException("Unknown field: " + trimmed
+                        + "; expected any of " + String.join(",", SETTERS.keySet()));
+            }
+            requested.add(trimmed);
+        }
+        return of(requested);
+    }
+
+    private static AddressFields of(Collection<String> requested) {
+        if (requested.isEmpty() || requested.containsAll(SETTERS.keySet())) {
+            return ALL;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : SETTERS.keySet()) {
+            if (requested.contains(name)) {
+                names.add(name);
+            }
+        }
+        return new AddressFields(names);
+    }
+
+    public boolean isAll() {
+        return this == ALL;
+    }
+
+    /**
+     * The selected property names, in {@link UserAddressDTO} declaration order.
+     */
+    public Set<String> names() {
+        return names;
+    }
+
+    /**
+     * These fields plus the given ones, e.g. the columns a page cursor is built from.
+     */
+    public AddressFields with(String... required) {
+        if (isAll() || names.containsAll(Arrays.asList(required))) {
+            return this;
+        }
+        Set<String> union = new HashSet<>(names);
+        union.addAll(Arrays.asList(required));
+        return of(union);
+    }
+
+    /**
+     * Sets one selected column value on a DTO.
+     */
+    public static void set(UserAddressDTO dto, String name, Object value) {
+        SETTERS.get(name).accept(dto, value);
+    }
+
+    /**
+     * Clears every property of the DTO that is not selected, e.g. one added by {@link #with}.
+     */
+    public UserAddressDTO retain(UserAddressDTO dto) {
+        if (!isAll()) {
+            SETTERS.forEach((name, setter) -> {
+                if (!names.contains(name)) {
+                    setter.accept(dto, null);
+                }
+            });
+        }
+        return dto;
+    }
+
+    /**
+     * Jackson filters writing only the selected properties of each {@link UserAddressDTO}.
+     */
+    public FilterProvider filters() {
+        SimpleFilterProvider filters = new SimpleFilterProvider()
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+        return isAll() ? filters : filters.addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(names));
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof AddressFields fields && names.equals(fields.names);
+    }
+
+    @Override
+    public int hashCode() {
+        return names.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return String.join(",", names);
+    }
+
+    /**
+     * Jackson mix-in attaching the {@value #FILTER_ID} filter to {@link UserAddressDTO}; registered
+     * on the application's object mappers together with a provider that defaults to writing all
+     * properties.
+     */
+    @JsonFilter(FILTER_ID)
+    public abstract static class FilterMixin {
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.addressbook.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Request body for creating many addresses in one call.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkCreateRequest {
+
+    public static final int MAX_ADDRESSES = 10_000;
+
+    @Valid
+    @NotEmpty(message = "At least one address is required")
+    @Size(max = MAX_ADDRESSES, message = "At most " + MAX_ADDRESSES + " addresses may be created per request")
+    private List<UserAddressDTO> addresses;
+}
@@ -0,0 +1,19 @@
+package com.example.addressbook.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Result of a bulk create: the generated ids in request order.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkCreateResponse {
+
+    private int created;
+    private List<Long> ids;
+}
@@ -0,0 +1,30 @@
+package com.example.addressbook.dto;
+
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Request body for deleting many addresses in one call, either by id or by location.
+ * Exactly one of {@code ids} or the {@code city}/{@code country} filter must be given;
+ * when both filter fields are given an address must match both.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkDeleteRequest {
+
+    public static final int MAX_IDS = 10_000;
+
+    @Size(max = MAX_IDS, message = "At most " + MAX_IDS + " ids may be deleted per request")
+    private List<Long> ids;
+
+    @Size(max = 100, message = "City must not exceed 100 characters")
+    private String city;
+
+    @Size(max = 100, message = "Country must not exceed 100 characters")
+    private String country;
+}
@@ -0,0 +1,16 @@
+package com.example.addressbook.dto;
+
+import lombok.*;
+
+/**
+ * Result of a bulk delete: how many addresses were removed.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkDeleteResponse {
+
+    private long deleted;
+}
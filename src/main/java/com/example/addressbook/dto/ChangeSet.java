@@ -0,0 +1,36 @@
+package com.example.addressbook.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * The address changes after a sync token, oldest first.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChangeSet {
+
+    /**
+     * Addresses created or updated since the token, as they are now.
+     */
+    private List<UserAddressDTO> updated;
+
+    /**
+     * Ids of the addresses deleted since the token.
+     */
+    private List<Long> deleted;
+
+    /**
+     * Token to pass as {@code since} on the next call.
+     */
+    private String nextToken;
+
+    /**
+     * Whether more changes are ready to be fetched straight away with {@link #nextToken}.
+     */
+    private boolean hasMore;
+}
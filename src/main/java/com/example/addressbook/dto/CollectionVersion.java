@@ -0,0 +1,24 @@
+package com.example.addressbook.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Version of the address collection as a whole. Any insert or update moves
+ * {@code lastModified} forward and any delete changes {@code count}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CollectionVersion {
+
+    private long count;
+
+    /**
+     * Latest modification time of any address, or null when there are none.
+     */
+    private LocalDateTime lastModified;
+}
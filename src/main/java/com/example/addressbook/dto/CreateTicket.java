@@ -0,0 +1,46 @@
+package com.example.addressbook.dto;
+
+import lombok.*;
+
+/**
+ * State of an address queued with {@code POST /api/addresses?async=true}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CreateTicket {
+
+    /**
+     * Progress of a queued create.
+     */
+    public enum Status {
+        PENDING, CREATED, FAILED
+    }
+
+    private String ticket;
+    private Status status;
+
+    /**
+     * The generated address id once {@link Status#CREATED}.
+     */
+    private Long id;
+
+    /**
+     * Why the address could not be created once {@link Status#FAILED}.
+     */
+    private String message;
+
+    public static CreateTicket pending(String ticket) {
+        return new CreateTicket(ticket, Status.PENDING, null, null);
+    }
+
+    public static CreateTicket created(String ticket, Long id) {
+        return new CreateTicket(ticket, Status.CREATED, id, null);
+    }
+
+    public static CreateTicket failed(String ticket, String message) {
+        return new CreateTicket(ticket, Status.FAILED, null, message);
+    }
+}
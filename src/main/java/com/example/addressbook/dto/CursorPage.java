@@ -0,0 +1,25 @@
+package com.example.addressbook.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated result.
+ *
+ * @param <T> the item type
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPage<T> {
+
+    private List<T> items;
+
+    /**
+     * Opaque cursor to pass as {@code after} to fetch the next page, or null on the last page.
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,23 @@
+package com.example.addressbook.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Top hits of a full-text search, best match first.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FullTextSearchResult {
+
+    /**
+     * Number of matching addresses, which may exceed the number of hits returned.
+     */
+    private long totalHits;
+
+    private List<ScoredAddressDTO> hits;
+}
@@ -0,0 +1,81 @@
+package com.example.addressbook.dto;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a CSV import. Rows are numbered from 1, not counting the header.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportReport {
+
+    /**
+     * How an import ended.
+     */
+    public enum Outcome {
+        /** Every row was read; rejected rows are listed in {@code errors}. */
+        COMPLETED,
+        /** The file could not be read past {@code committedRows}. */
+        MALFORMED,
+        /** A chunk could not be written; nothing after {@code committedRows} was imported. */
+        FAILED
+    }
+
+    private Outcome outcome;
+
+    /**
+     * Rows read, including skipped and rejected ones.
+     */
+    private long rows;
+
+    /**
+     * Rows inserted by this import.
+     */
+    private long imported;
+
+    /**
+     * Rows rejected by validation.
+     */
+    private long rejected;
+
+    /**
+     * Rows up to which every chunk is committed. Pass as {@code skip} to resume an import that
+     * did not complete.
+     */
+    private long committedRows;
+
+    /**
+     * The first rejected rows, in file order.
+     */
+    @Builder.Default
+    private List<RowError> errors = new ArrayList<>();
+
+    /**
+     * Why the import stopped early, or null when it completed.
+     */
+    private String message;
+
+    /**
+     * One rejected row.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+
+        private long row;
+
+        /**
+         * Column name to what is wrong with it.
+         */
+        private Map<String, String> errors;
+    }
+}
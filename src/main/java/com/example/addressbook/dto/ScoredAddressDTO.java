@@ -0,0 +1,17 @@
+package com.example.addressbook.dto;
+
+import lombok.*;
+
+/**
+ * An address returned by full-text search together with its relevance score.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScoredAddressDTO {
+
+    private float score;
+    private UserAddressDTO address;
+}
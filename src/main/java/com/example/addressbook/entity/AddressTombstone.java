@@ -0,0 +1,33 @@
+package com.example.addressbook.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record of a deleted user address, kept so clients syncing through
+ * {@code GET /api/addresses/changes} learn about deletes. Written alongside the delete, in the
+ * same transaction, and purged after {@code addressbook.changes.tombstone-retention}.
+ */
+@Entity
+@Table(name = "user_address_tombstones")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AddressTombstone {
+
+    /**
+     * Id of the deleted address.
+     */
+    @Id
+    private Long id;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -1,18 +1,25 @@
 package com.example.addressbook.entity;
 
+import com.example.addressbook.event.UserAddressChangePublisher;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 /**
  * Entity representing a user address record.
  */
 @Entity
 @Table(name = "user_addresses")
+@EntityListeners(UserAddressChangePublisher.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = UserAddress.CACHE_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -20,8 +27,18 @@ import java.time.LocalDateTime;
 @Builder
 public class UserAddress {
 
+    /**
+     * Second-level cache region for UserAddress entities.
+     */
+    public static final String CACHE_REGION = "userAddress";
+
+    /**
+     * Allocated from a pooled sequence rather than an identity column so Hibernate
+     * can batch inserts; one sequence call reserves {@code allocationSize} ids.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_addresses_seq")
+    @SequenceGenerator(name = "user_addresses_seq", sequenceName = "user_addresses_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Name is required")
@@ -58,6 +75,27 @@ public class UserAddress {
     @Column(length = 100)
     private String country;
 
+    /**
+     * Lower-cased copies of name, city and email, generated by the database. City and
+     * email are indexed so case-insensitive lookups can seek instead of scanning; name
+     * is only matched by substring, which no index serves. Read-only: values held in
+     * memory are not refreshed after a write.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Column(name = "name_lower", length = 100, insertable = false, updatable = false)
+    private String nameLower;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Column(name = "city_lower", length = 100, insertable = false, updatable = false)
+    private String cityLower;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Column(name = "email_lower", length = 100, insertable = false, updatable = false)
+    private String emailLower;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -66,12 +104,20 @@ public class UserAddress {
 
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        createdAt = now();
+        updatedAt = createdAt;
     }
 
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
+        updatedAt = now();
+    }
+
+    /**
+     * Current time at the column's microsecond precision, so the in-memory value
+     * matches what is stored and can be used as a keyset cursor.
+     */
+    public static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 }
@@ -0,0 +1,246 @@
+package com.example.addressbook.event;
+
+import com.example.addressbook.config.ChangeFeedProperties;
+import com.example.addressbook.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Committed address changes as Server-Sent Events, for {@code GET /api/addresses/events}.
+ * <p>
+ * Each {@link UserAddressChangedEvent} is numbered in commit order and kept in a ring buffer
+ * of the last {@code addressbook.events.buffer-size} changes. Writers only store the change
+ * and wake the subscribers. Each subscriber has a virtual thread that reads the buffer from its
+ * own position and sends what it finds. A subscriber that falls a whole buffer behind is
+ * disconnected rather than holding writers up; it can reconnect and resume with
+ * {@code Last-Event-ID}.
+ * <p>
+ * Event ids are {@code <feed>-<sequence>}, where the feed part changes on every start, so an id
+ * from before a restart is recognised. A stream asked to resume from a change that is no longer
+ * buffered starts with a {@value #RESET} event and carries on with new changes; the client
+ * should reload what it holds with {@code GET /api/addresses}. The number of open streams is
+ * published as {@code addressbook.events.subscribers} and disconnected laggards are counted in
+ * {@code addressbook.events.dropped}.
+ */
+@Slf4j
+@Component
+public class AddressChangeFeed {
+
+    public static final String SUBSCRIBERS_METRIC = "addressbook.events.subscribers";
+    public static final String DROPPED_METRIC = "addressbook.events.dropped";
+
+    /**
+     * Name of the event telling a client that changes were missed.
+     */
+    public static final String RESET = "reset";
+
+    /**
+     * One buffered change and its position in the feed.
+     */
+    record Change(long sequence, UserAddressChangedEvent event) {
+    }
+
+    private final ChangeFeedProperties properties;
+    private final String feedId = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final Change[] ring;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final Counter dropped;
+    private long latest;
+    private volatile boolean running = true;
+
+    public AddressChangeFeed(ChangeFeedProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.ring = new Change[properties.getBufferSize()];
+        Gauge.builder(SUBSCRIBERS_METRIC, subscriptions, Collection::size)
+                .description("Open address change streams")
+                .register(registry);
+        this.dropped = Counter.builder(DROPPED_METRIC)
+                .description("Change streams closed for falling a whole buffer behind")
+                .register(registry);
+    }
+
+    /**
+     * Adds a committed change to the feed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(UserAddressChangedEvent event) {
+        lock.lock();
+        try {
+            latest++;
+            ring[(int) (latest % ring.length)] = new Change(latest, event);
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Opens a stream of changes.
+     *
+     * @param lastEventId the id of the last event the client saw, or null for new changes only
+     * @return the emitter to return from the request
+     * @throws ServiceUnavailableException if the feed is shutting down or has too many subscribers
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        if (!running) {
+            throw new ServiceUnavailableException("Change stream is shutting down");
+        }
+        if (subscriptions.size() >= properties.getMaxSubscribers()) {
+            throw new ServiceUnavailableException("Too many change stream subscribers, please retry");
+        }
+        Subscription subscription = new Subscription(new SseEmitter(), lastEventId);
+        subscriptions.add(subscription);
+        subscription.emitter.onCompletion(subscription::close);
+        subscription.emitter.onTimeout(subscription::close);
+        subscription.emitter.onError(error -> subscription.close());
+        Thread.ofVirtual().name("address-events").start(subscription::run);
+        return subscription.emitter;
+    }
+
+    /**
+     * Closes every stream.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        lock.lock();
+        try {
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        subscriptions.forEach(subscription -> subscription.emitter.complete());
+    }
+
+    /**
+     * Waits up to the given time for changes after {@code position} and returns them in order.
+     *
+     * @return the changes, empty if none came in time, or null if some after {@code position}
+     *         have already been overwritten
+     */
+    List<Change> read(long position, long waitNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            while (latest == position && running && waitNanos > 0) {
+                waitNanos = appended.awaitNanos(waitNanos);
+            }
+            if (latest - position > ring.length) {
+                return null;
+            }
+            List<Change> changes = new ArrayList<>((int) (latest - position));
+            for (long sequence = position + 1; sequence <= latest; sequence++) {
+                changes.add(ring[(int) (sequence % ring.length)]);
+            }
+            return changes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The position just before the change following the given event id, or -1 if it is not
+     * from this feed or no longer buffered.
+     */
+    long positionOf(String lastEventId) {
+        lock.lock();
+        try {
+            if (lastEventId == null || lastEventId.isBlank()) {
+                return latest;
+            }
+            String prefix = feedId + "-";
+            if (!lastEventId.startsWith(prefix)) {
+                return -1;
+            }
+            long sequence = Long.parseLong(lastEventId.substring(prefix.length()));
+            return sequence <= latest && latest - sequence <= ring.length ? sequence : -1;
+        } catch (NumberFormatException ex) {
+            return -1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    String eventId(long sequence) {
+        return feedId + "-" + sequence;
+    }
+
+    /**
+     * One open stream, sent from its own thread.
+     */
+    private final class Subscription {
+
+        private final SseEmitter emitter;
+        private final String lastEventId;
+        private volatile boolean open = true;
+
+        Subscription(SseEmitter emitter, String lastEventId) {
+            this.emitter = emitter;
+            this.lastEventId = lastEventId;
+        }
+
+        void run() {
+            try {
+                long position = positionOf(lastEventId);
+                if (position < 0) {
+                    lock.lock();
+                    try {
+                        position = latest;
+                    } finally {
+                        lock.unlock();
+                    }
+                    emitter.send(SseEmitter.event().id(eventId(position)).name(RESET)
+                            .data("Changes were missed; reload the addresses"));
+                }
+                while (open && running) {
+                    List<Change> changes = read(position, properties.getHeartbeat().toNanos());
+                    if (changes == null) {
+                        dropped.increment();
+                        log.info("Closing an address change stream that fell {} changes behind", ring.length);
+                        emitter.complete();
+                        return;
+                    }
+                    if (changes.isEmpty()) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                    for (Change change : changes) {
+                        emitter.send(SseEmitter.event()
+                                .id(eventId(change.sequence()))
+                                .name(change.event().getType().name().toLowerCase(Locale.ROOT))
+                                .data(change.event(), MediaType.APPLICATION_JSON));
+                        position = change.sequence();
+                    }
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // the client went away or the stream timed out
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+            }
+        }
+
+        void close() {
+            open = false;
+            subscriptions.remove(this);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.addressbook.event;
+
+import com.example.addressbook.entity.UserAddress;
+import com.example.addressbook.mapper.UserAddressMapper;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that turns UserAddress lifecycle callbacks into
+ * {@link UserAddressChangedEvent}s, so every entity-level write is seen by
+ * event listeners whether it comes from the service or the repository.
+ * <p>
+ * Bulk JPQL statements bypass entity callbacks; code issuing them must publish
+ * events itself.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserAddressChangePublisher {
+
+    private final ApplicationEventPublisher publisher;
+    private final UserAddressMapper mapper = new UserAddressMapper();
+
+    @PostPersist
+    void onPersist(UserAddress entity) {
+        publisher.publishEvent(UserAddressChangedEvent.created(mapper.toDTO(entity)));
+    }
+
+    @PostUpdate
+    void onUpdate(UserAddress entity) {
+        publisher.publishEvent(UserAddressChangedEvent.updated(mapper.toDTO(entity)));
+    }
+
+    @PostRemove
+    void onRemove(UserAddress entity) {
+        publisher.publishEvent(UserAddressChangedEvent.deleted(entity.getId()));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.addressbook.event;
+
+import com.example.addressbook.dto.UserAddressDTO;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Application event describing a created, updated or deleted user address.
+ * <p>
+ * Listeners that maintain derived state (search indexes, caches) should use
+ * {@code @TransactionalEventListener} so they only see committed changes.
+ */
+@Getter
+@RequiredArgsConstructor
+public class UserAddressChangedEvent {
+
+    /**
+     * Kind of change.
+     */
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final ChangeType type;
+    private final Long id;
+
+    /**
+     * Snapshot of the address after the change, or null for {@link ChangeType#DELETED}.
+     */
+    private final UserAddressDTO address;
+
+    public static UserAddressChangedEvent created(UserAddressDTO address) {
+        return new UserAddressChangedEvent(ChangeType.CREATED, address.getId(), address);
+    }
+
+    public static UserAddressChangedEvent updated(UserAddressDTO address) {
+        return new UserAddressChangedEvent(ChangeType.UPDATED, address.getId(), address);
+    }
+
+    public static UserAddressChangedEvent deleted(Long id) {
+        return new UserAddressChangedEvent(ChangeType.DELETED, id, null);
+    }
+}
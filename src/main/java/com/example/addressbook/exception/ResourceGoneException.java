@@ -0,0 +1,16 @@
+package com.example.addressbook.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when the data needed to answer a request has been discarded, e.g. a sync
+ * token older than the deletes still remembered.
+ */
+@ResponseStatus(HttpStatus.GONE)
+public class ResourceGoneException extends RuntimeException {
+
+    public ResourceGoneException(String message) {
+        super(message);
+    }
+}
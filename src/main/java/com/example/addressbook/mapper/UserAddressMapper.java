@@ -6,6 +6,8 @@ import org.springframework.stereotype.Component;
 
 /**
  * Mapper for converting between UserAddress entity and UserAddressDTO.
+ * Conversions are not timed on their own, as they run once per row while exporting and building the
+ * full-text index; when called from a service they are part of its {@code addressbook.service} time.
  */
 @Component
 public class UserAddressMapper {
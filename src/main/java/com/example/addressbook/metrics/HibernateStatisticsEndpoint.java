@@ -0,0 +1,122 @@
+package com.example.addressbook.metrics;
+
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Actuator endpoint ({@code /actuator/hibernate}) reporting Hibernate {@link Statistics} since
+ * startup or the last reset: per-query execution counts, rows and timings sorted by total time,
+ * entity and session activity, second-level and query cache hit ratios, and the recent entries
+ * of the {@link SlowQueryLog}. Read-only on the web; the counters and the slow-query history are
+ * reset over JMX, by the {@link HibernateStatisticsJmxExtension}.
+ */
+@Endpoint(id = "hibernate")
+public class HibernateStatisticsEndpoint {
+
+    private final Statistics statistics;
+    private final SlowQueryLog slowQueryLog;
+
+    public HibernateStatisticsEndpoint(Statistics statistics, SlowQueryLog slowQueryLog) {
+        this.statistics = statistics;
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    public record Report(Instant since, Sessions sessions, Entities entities, Queries queries,
+                         Cache secondLevelCache, Cache queryCache, List<QueryReport> queryStatistics,
+                         List<SlowQueryLog.SlowQuery> slowQueries) {
+    }
+
+    public record Sessions(long opened, long closed, long transactions, long flushes,
+                           long connections, long statements) {
+    }
+
+    public record Entities(long loads, long fetches, long inserts, long updates, long deletes) {
+    }
+
+    public record Queries(long executions, long maxTimeMillis, String slowest,
+                          long planCacheHits, long planCacheMisses) {
+    }
+
+    /**
+     * Cache totals; {@code hitRatio} is null until the cache has been consulted.
+     */
+    public record Cache(long hits, long misses, long puts, Double hitRatio, List<Region> regions) {
+    }
+
+    public record Region(String name, long hits, long misses, long puts, long elementsInMemory, Double hitRatio) {
+    }
+
+    public record QueryReport(String query, long executions, long rows, long totalTimeMillis,
+                              double avgTimeMillis, long maxTimeMillis, long cacheHits, long cacheMisses) {
+    }
+
+    @ReadOperation
+    public Report report() {
+        return new Report(statistics.getStart(),
+                new Sessions(statistics.getSessionOpenCount(), statistics.getSessionCloseCount(),
+                        statistics.getTransactionCount(), statistics.getFlushCount(),
+                        statistics.getConnectCount(), statistics.getPrepareStatementCount()),
+                new Entities(statistics.getEntityLoadCount(), statistics.getEntityFetchCount(),
+                        statistics.getEntityInsertCount(), statistics.getEntityUpdateCount(),
+                        statistics.getEntityDeleteCount()),
+                new Queries(statistics.getQueryExecutionCount(), statistics.getQueryExecutionMaxTime(),
+                        statistics.getQueryExecutionMaxTimeQueryString(),
+                        statistics.getQueryPlanCacheHitCount(), statistics.getQueryPlanCacheMissCount()),
+                new Cache(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(),
+                        statistics.getSecondLevelCachePutCount(),
+                        ratio(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount()),
+                        regions()),
+                new Cache(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(),
+                        statistics.getQueryCachePutCount(),
+                        ratio(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()),
+                        List.of()),
+                queries(),
+                slowQueryLog.recent());
+    }
+
+    /**
+     * Clears the statistics and the slow-query history.
+     */
+    public void reset() {
+        statistics.clear();
+        slowQueryLog.clear();
+    }
+
+    private List<Region> regions() {
+        List<Region> regions = new ArrayList<>();
+        for (String name : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region != null) {
+                regions.add(new Region(name, region.getHitCount(), region.getMissCount(), region.getPutCount(),
+                        region.getElementCountInMemory(), ratio(region.getHitCount(), region.getMissCount())));
+            }
+        }
+        return regions;
+    }
+
+    private List<QueryReport> queries() {
+        List<QueryReport> queries = new ArrayList<>();
+        for (String query : statistics.getQueries()) {
+            QueryStatistics stats = statistics.getQueryStatistics(query);
+            queries.add(new QueryReport(query, stats.getExecutionCount(), stats.getExecutionRowCount(),
+                    stats.getExecutionTotalTime(), stats.getExecutionAvgTimeAsDouble(),
+                    stats.getExecutionMaxTime(), stats.getCacheHitCount(), stats.getCacheMissCount()));
+        }
+        queries.sort(Comparator.comparingLong(QueryReport::totalTimeMillis).reversed()
+                .thenComparing(Comparator.comparingLong(QueryReport::executions).reversed()));
+        return queries;
+    }
+
+    private static Double ratio(long hits, long misses) {
+        long lookups = hits + misses;
+        return lookups == 0 ? null : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.addressbook.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.jmx.annotation.EndpointJmxExtension;
+
+/**
+ * Adds the reset operation to the {@code hibernate} endpoint over JMX only, so the web endpoint
+ * stays read-only and an unauthenticated client cannot wipe the statistics being investigated.
+ */
+@EndpointJmxExtension(endpoint = HibernateStatisticsEndpoint.class)
+public class HibernateStatisticsJmxExtension {
+
+    private final HibernateStatisticsEndpoint endpoint;
+
+    public HibernateStatisticsJmxExtension(HibernateStatisticsEndpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        endpoint.reset();
+    }
+}
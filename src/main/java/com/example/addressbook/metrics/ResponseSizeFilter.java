@@ -0,0 +1,170 @@
+package com.example.addressbook.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+
+/**
+ * Records the size of each response body as the {@code http.server.response.size} summary,
+ * tagged like {@code http.server.requests} with method, uri template and status.
+ * <p>
+ * Bytes are counted as they are written rather than taken from {@code Content-Length}, so
+ * chunked and streamed responses are measured too. For async requests (the NDJSON export)
+ * the size is recorded when the async request completes.
+ */
+public class ResponseSizeFilter extends OncePerRequestFilter {
+
+    public static final String METRIC = "http.server.response.size";
+
+    private final MeterRegistry registry;
+
+    public ResponseSizeFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        CountingResponse counting = new CountingResponse(response);
+        try {
+            chain.doFilter(request, counting);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(request, response, counting.count());
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                record(request, response, counting.count());
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, long bytes) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder(METRIC)
+                .description("Response body size")
+                .baseUnit("bytes")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .tag("status", Integer.toString(response.getStatus()))
+                .register(registry)
+                .record(bytes);
+    }
+
+    /**
+     * Response wrapper counting the bytes written through its output stream or writer.
+     */
+    private static class CountingResponse extends HttpServletResponseWrapper {
+
+        private CountingOutputStream outputStream;
+        private PrintWriter writer;
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CountingOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(),
+                        Charset.forName(getCharacterEncoding())));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            super.flushBuffer();
+        }
+
+        long count() {
+            if (writer != null) {
+                writer.flush();
+            }
+            return outputStream == null ? 0 : outputStream.count;
+        }
+    }
+
+    private static class CountingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private long count;
+
+        CountingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            delegate.setWriteListener(listener);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.addressbook.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Logs repository calls that take longer than a threshold, with the JPQL of the method's
+ * {@code @Query}, the shape of each bound parameter and the number of rows returned.
+ * <p>
+ * Only parameter shapes (type, string length, collection size, page size) are recorded, never
+ * values, so addresses do not end up in logs. Fast calls cost one {@link System#nanoTime()}
+ * pair; the most recent slow calls are kept for the {@code hibernate} actuator endpoint.
+ */
+@Slf4j
+public class SlowQueryLog {
+
+    private final long thresholdNanos;
+    private final int historySize;
+    private final Deque<SlowQuery> recent = new ArrayDeque<>();
+
+    public SlowQueryLog(Duration threshold, int historySize) {
+        this.thresholdNanos = threshold.toNanos();
+        this.historySize = historySize;
+    }
+
+    /**
+     * A repository call that took at least the threshold.
+     *
+     * @param query      the JPQL of the method's {@code @Query}, or null for derived and CRUD methods
+     * @param parameters the shape of each argument
+     * @param rows       rows returned or affected, or null when not known up front (streams, aggregates)
+     */
+    public record SlowQuery(Instant timestamp, String method, String query, List<String> parameters,
+                            Integer rows, long durationMillis, boolean failed) {
+    }
+
+    /**
+     * Create an interceptor timing the calls of one repository proxy.
+     */
+    public MethodInterceptor interceptor(Class<?> repositoryInterface) {
+        return invocation -> {
+            long start = System.nanoTime();
+            Object result = null;
+            boolean failed = true;
+            try {
+                result = invocation.proceed();
+                failed = false;
+                return result;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                if (elapsed >= thresholdNanos) {
+                    record(repositoryInterface, invocation.getMethod(), invocation.getArguments(),
+                            result, elapsed, failed);
+                }
+            }
+        };
+    }
+
+    /**
+     * The most recent slow calls, newest first.
+     */
+    public synchronized List<SlowQuery> recent() {
+        return new ArrayList<>(recent);
+    }
+
+    public synchronized void clear() {
+        recent.clear();
+    }
+
+    void record(Class<?> repositoryInterface, Method method, Object[] arguments,
+                Object result, long elapsedNanos, boolean failed) {
+        Query query = AnnotatedElementUtils.findMergedAnnotation(method, Query.class);
+        List<String> parameters = new ArrayList<>(arguments.length);
+        for (Object argument : arguments) {
+            parameters.add(shape(argument));
+        }
+        SlowQuery slow = new SlowQuery(Instant.now(),
+                repositoryInterface.getSimpleName() + "." + method.getName(),
+                query != null ? query.value() : null,
+                List.copyOf(parameters),
+                failed ? null : rows(method, result),
+                Duration.ofNanos(elapsedNanos).toMillis(),
+                failed);
+
+        log.warn("Slow query {} took {} ms, {} rows, parameters {}{}{}", slow.method(), slow.durationMillis(),
+                slow.rows() != null ? slow.rows() : "?", slow.parameters(),
+                slow.failed() ? " (failed)" : "", slow.query() != null ? ": " + slow.query() : "");
+
+        synchronized (this) {
+            recent.addFirst(slow);
+            while (recent.size() > historySize) {
+                recent.removeLast();
+            }
+        }
+    }
+
+    static String shape(Object argument) {
+        if (argument == null) {
+            return "null";
+        }
+        if (argument instanceof CharSequence text) {
+            return "String(length=" + text.length() + ")";
+        }
+        if (argument instanceof Collection<?> collection) {
+            return "Collection(size=" + collection.size() + ")";
+        }
+        if (argument instanceof Map<?, ?> map) {
+            return "Map(size=" + map.size() + ")";
+        }
+        if (argument instanceof Pageable pageable) {
+            return pageable.isPaged()
+                    ? "Pageable(offset=" + pageable.getOffset() + ", size=" + pageable.getPageSize() + ")"
+                    : "Pageable(unpaged)";
+        }
+        if (argument.getClass().isArray()) {
+            return argument.getClass().getComponentType().getSimpleName()
+                    + "[](length=" + Array.getLength(argument) + ")";
+        }
+        return argument.getClass().getSimpleName();
+    }
+
+    static Integer rows(Method method, Object result) {
+        if (result == null) {
+            return method.getReturnType() == void.class ? null : 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number affected && method.isAnnotationPresent(Modifying.class)) {
+            return affected.intValue();
+        }
+        if (result instanceof Number || result instanceof Boolean || result instanceof Iterable<?>
+                || result instanceof AutoCloseable) {
+            return null;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.addressbook.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * JSON message converter that records how long each response body takes to serialize, as the
+ * {@code addressbook.serialization} timer tagged with the body's type.
+ * <p>
+ * The time includes writing to the response stream, so a slow client shows up here too.
+ */
+public class TimedJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    public static final String METRIC = "addressbook.serialization";
+
+    private final MeterRegistry registry;
+
+    public TimedJsonHttpMessageConverter(ObjectMapper objectMapper, MeterRegistry registry) {
+        super(objectMapper);
+        this.registry = registry;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        Object value = object instanceof MappingJacksonValue container ? container.getValue() : object;
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            sample.stop(Timer.builder(METRIC)
+                    .description("Time to serialize a JSON response body")
+                    .tag("type", value.getClass().getSimpleName())
+                    .register(registry));
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.addressbook.protobuf;
+
+import com.example.addressbook.dto.CursorPage;
+import com.example.addressbook.dto.UserAddressDTO;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Writes {@link UserAddressDTO} and {@link CursorPage} of addresses as Protobuf, following the
+ * {@code Address} and {@code AddressPage} messages in {@code proto/addressbook.proto}.
+ * <p>
+ * The two messages are flat, so they are encoded directly with {@link CodedOutputStream}
+ * rather than through generated classes and a DTO-to-message copy. Message sizes are computed
+ * up front, which also gives every response a {@code Content-Length}. Request bodies stay JSON.
+ */
+public class AddressProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final String PROTOBUF_VALUE = "application/x-protobuf";
+    public static final MediaType PROTOBUF = MediaType.parseMediaType(PROTOBUF_VALUE);
+
+    private static final int PAGE_ITEMS = 1;
+    private static final int PAGE_NEXT_CURSOR = 2;
+
+    public AddressProtobufHttpMessageConverter() {
+        super(PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == UserAddressDTO.class || clazz == CursorPage.class;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    /**
+     * Only pages whose item type is known to be {@link UserAddressDTO} are writable.
+     */
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        if (clazz == UserAddressDTO.class) {
+            return true;
+        }
+        if (clazz == CursorPage.class && type != null) {
+            return ResolvableType.forType(type).as(CursorPage.class).getGeneric(0).resolve() == UserAddressDTO.class;
+        }
+        return false;
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(Object object, MediaType contentType) {
+        return (long) size(object);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        CodedOutputStream output = CodedOutputStream.newInstance(outputMessage.getBody());
+        if (object instanceof UserAddressDTO address) {
+            writeAddress(output, address);
+        } else if (object instanceof CursorPage<?> page) {
+            for (Object item : page.getItems()) {
+                UserAddressDTO address = address(item);
+                output.writeTag(PAGE_ITEMS, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                output.writeUInt32NoTag(addressSize(address));
+                writeAddress(output, address);
+            }
+            if (page.getNextCursor() != null) {
+                output.writeString(PAGE_NEXT_CURSOR, page.getNextCursor());
+            }
+        } else {
+            throw new HttpMessageNotWritableException("Cannot write " + object.getClass().getName() + " as Protobuf");
+        }
+        output.flush();
+    }
+
+    private static int size(Object object) {
+        if (object instanceof CursorPage<?> page) {
+            int size = 0;
+            for (Object item : page.getItems()) {
+                int itemSize = addressSize(address(item));
+                size += CodedOutputStream.computeTagSize(PAGE_ITEMS)
+                        + CodedOutputStream.computeUInt32SizeNoTag(itemSize) + itemSize;
+            }
+            if (page.getNextCursor() != null) {
+                size += CodedOutputStream.computeStringSize(PAGE_NEXT_CURSOR, page.getNextCursor());
+            }
+            return size;
+        }
+        return addressSize(address(object));
+    }
+
+    private static UserAddressDTO address(Object item) {
+        if (item instanceof UserAddressDTO address) {
+            return address;
+        }
+        throw new HttpMessageNotWritableException("Cannot write " + item.getClass().getName() + " as Protobuf");
+    }
+
+    private static int addressSize(UserAddressDTO address) {
+        int size = 0;
+        if (address.getId() != null) {
+            size += CodedOutputStream.computeInt64Size(1, address.getId());
+        }
+        size += stringSize(2, address.getName());
+        size += stringSize(3, address.getPhone());
+        size += stringSize(4, address.getEmail());
+        size += stringSize(5, address.getStreet());
+        size += stringSize(6, address.getCity());
+        size += stringSize(7, address.getState());
+        size += stringSize(8, address.getZipCode());
+        size += stringSize(9, address.getCountry());
+        if (address.getCreatedAt() != null) {
+            size += CodedOutputStream.computeInt64Size(10, toMicros(address.getCreatedAt()));
+        }
+        if (address.getUpdatedAt() != null) {
+            size += CodedOutputStream.computeInt64Size(11, toMicros(address.getUpdatedAt()));
+        }
+        return size;
+    }
+
+    private static void writeAddress(CodedOutputStream output, UserAddressDTO address) throws IOException {
+        if (address.getId() != null) {
+            output.writeInt64(1, address.getId());
+        }
+        writeString(output, 2, address.getName());
+        writeString(output, 3, address.getPhone());
+        writeString(output, 4, address.getEmail());
+        writeString(output, 5, address.getStreet());
+        writeString(output, 6, address.getCity());
+        writeString(output, 7, address.getState());
+        writeString(output, 8, address.getZipCode());
+        writeString(output, 9, address.getCountry());
+        if (address.getCreatedAt() != null) {
+            output.writeInt64(10, toMicros(address.getCreatedAt()));
+        }
+        if (address.getUpdatedAt() != null) {
+            output.writeInt64(11, toMicros(address.getUpdatedAt()));
+        }
+    }
+
+    private static int stringSize(int field, String value) {
+        return value == null ? 0 : CodedOutputStream.computeStringSize(field, value);
+    }
+
+    private static void writeString(CodedOutputStream output, int field, String value) throws IOException {
+        if (value != null) {
+            output.writeString(field, value);
+        }
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+}
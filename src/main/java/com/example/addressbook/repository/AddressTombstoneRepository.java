@@ -0,0 +1,52 @@
+package com.example.addressbook.repository;
+
+import com.example.addressbook.entity.AddressTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for AddressTombstone entity.
+ */
+@Repository
+public interface AddressTombstoneRepository extends JpaRepository<AddressTombstone, Long> {
+
+    /**
+     * Record the deletion of those of the given addresses that still exist, in one statement.
+     * Must run before the addresses are deleted, in the same transaction.
+     *
+     * @return the number of tombstones written
+     */
+    @Modifying
+    @Query("INSERT INTO AddressTombstone (id, deletedAt) " +
+            "SELECT u.id, :deletedAt FROM UserAddress u WHERE u.id IN :ids")
+    int insertForAddresses(@Param("ids") Collection<Long> ids, @Param("deletedAt") LocalDateTime deletedAt);
+
+    /**
+     * Find the page of tombstones written after the given (deletedAt, id) position and no later
+     * than {@code until}, ordered by deletion.
+     */
+    @Query("SELECT t FROM AddressTombstone t " +
+            "WHERE (t.deletedAt > :deletedAt OR (t.deletedAt = :deletedAt AND t.id > :id)) " +
+            "AND t.deletedAt <= :until ORDER BY t.deletedAt, t.id")
+    List<AddressTombstone> findPageByDeletedAtAfter(@Param("deletedAt") LocalDateTime deletedAt,
+                                                    @Param("id") Long id,
+                                                    @Param("until") LocalDateTime until,
+                                                    Pageable pageable);
+
+    /**
+     * Delete the tombstones written before the given time.
+     *
+     * @return the number of tombstones deleted
+     */
+    @Modifying
+    @Query("DELETE FROM AddressTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteByDeletedAtBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,26 @@
+package com.example.addressbook.repository;
+
+import org.springframework.data.jpa.repository.Modifying;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Writes only some columns of one {@code UserAddress}, for JSON Merge Patch.
+ */
+public interface UserAddressPatchRepository {
+
+    /**
+     * Sets the given columns of one address and its {@code updatedAt} in one {@code UPDATE}.
+     * The statement only matches the row if at least one column differs, so a patch that
+     * changes nothing writes nothing. Bypasses entity callbacks, so the caller must publish
+     * change events.
+     *
+     * @param id        the address ID
+     * @param values    string property of {@code UserAddress} to its new value, or null to clear it
+     * @param updatedAt the new last modification time
+     * @return 1 if the address was changed, 0 if it does not exist or already has these values
+     */
+    @Modifying
+    int updateFields(Long id, Map<String, String> values, LocalDateTime updatedAt);
+}
@@ -0,0 +1,48 @@
+package com.example.addressbook.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+
+/**
+ * Builds the {@code UPDATE} of {@link UserAddressPatchRepository}. Columns are listed in name
+ * order, so each set of patched fields maps to one statement string and one cached plan.
+ */
+class UserAddressPatchRepositoryImpl implements UserAddressPatchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int updateFields(Long id, Map<String, String> values, LocalDateTime updatedAt) {
+        if (values.isEmpty()) {
+            return 0;
+        }
+        Map<String, String> sorted = new TreeMap<>(values);
+        StringJoiner assignments = new StringJoiner(", ", "UPDATE UserAddress u SET ", ", u.updatedAt = :updatedAt");
+        StringJoiner changed = new StringJoiner(" OR ", " WHERE u.id = :id AND (", ")");
+        sorted.forEach((name, value) -> {
+            if (value == null) {
+                assignments.add("u." + name + " = NULL");
+                changed.add("u." + name + " IS NOT NULL");
+            } else {
+                assignments.add("u." + name + " = :" + name);
+                changed.add("u." + name + " IS NULL OR u." + name + " <> :" + name);
+            }
+        });
+        Query update = entityManager.createQuery(assignments + changed.toString())
+                .setParameter("id", id)
+                .setParameter("updatedAt", updatedAt);
+        sorted.forEach((name, value) -> {
+            if (value != null) {
+                update.setParameter(name, value);
+            }
+        });
+        return update.executeUpdate();
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.addressbook.repository;
+
+import com.example.addressbook.dto.AddressFields;
+import com.example.addressbook.dto.UserAddressDTO;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Queries selecting only some columns of {@code UserAddress}, for sparse fieldsets.
+ * <p>
+ * Each query is {@code SELECT u.<field>, ... FROM UserAddress u <condition>}, where the
+ * condition is one of the JPQL tails the full-row finders in {@link UserAddressRepository}
+ * are built from, so both variants filter and order identically.
+ */
+public interface UserAddressProjectionRepository {
+
+    /**
+     * Runs a projection query.
+     *
+     * @param fields     the columns to select
+     * @param condition  the JPQL after {@code FROM UserAddress u}
+     * @param parameters values for the named parameters of the condition
+     * @param limit      the maximum number of rows, or 0 for all
+     * @param cacheable  whether to use the {@value UserAddressRepository#QUERY_CACHE_REGION} query cache
+     * @return one DTO per row with only the selected fields set
+     */
+    List<UserAddressDTO> findFields(AddressFields fields, String condition, Map<String, ?> parameters,
+                                    int limit, boolean cacheable);
+
+    /**
+     * Streams a projection query over the whole table, reading rows from the cursor as they are
+     * consumed. Must be called inside a transaction and the stream must be closed by the caller.
+     *
+     * @param fields    the columns to select
+     * @param condition the JPQL after {@code FROM UserAddress u}, without parameters
+     */
+    Stream<UserAddressDTO> streamFields(AddressFields fields, String condition);
+}
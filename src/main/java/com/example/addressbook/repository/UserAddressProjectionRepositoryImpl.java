@@ -0,0 +1,66 @@
+package com.example.addressbook.repository;
+
+import com.example.addressbook.dto.AddressFields;
+import com.example.addressbook.dto.UserAddressDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Builds the projection queries of {@link UserAddressProjectionRepository}. The select list
+ * follows {@link AddressFields#names()} order, so each field set maps to one query string and
+ * one cached query plan.
+ */
+class UserAddressProjectionRepositoryImpl implements UserAddressProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UserAddressDTO> findFields(AddressFields fields, String condition, Map<String, ?> parameters,
+                                           int limit, boolean cacheable) {
+        TypedQuery<Tuple> query = createQuery(fields, condition);
+        parameters.forEach(query::setParameter);
+        if (limit > 0) {
+            query.setMaxResults(limit);
+        }
+        if (cacheable) {
+            query.setHint(HibernateHints.HINT_CACHEABLE, true);
+            query.setHint(HibernateHints.HINT_CACHE_REGION, UserAddressRepository.QUERY_CACHE_REGION);
+        }
+        return query.getResultList().stream()
+                .map(row -> toDTO(fields, row))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<UserAddressDTO> streamFields(AddressFields fields, String condition) {
+        return createQuery(fields, condition)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, Integer.parseInt(UserAddressRepository.STREAM_FETCH_SIZE))
+                .getResultStream()
+                .map(row -> toDTO(fields, row));
+    }
+
+    private TypedQuery<Tuple> createQuery(AddressFields fields, String condition) {
+        String select = fields.names().stream()
+                .map(name -> "u." + name)
+                .collect(Collectors.joining(", ", "SELECT ", " FROM UserAddress u "));
+        return entityManager.createQuery(select + condition, Tuple.class);
+    }
+
+    private static UserAddressDTO toDTO(AddressFields fields, Tuple row) {
+        UserAddressDTO dto = new UserAddressDTO();
+        int column = 0;
+        for (String name : fields.names()) {
+            AddressFields.set(dto, name, row.get(column++));
+        }
+        return dto;
+    }
+}
@@ -1,47 +1,301 @@
 package com.example.addressbook.repository;
 
+import com.example.addressbook.dto.CollectionVersion;
+import com.example.addressbook.dto.UserAddressDTO;
 import com.example.addressbook.entity.UserAddress;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for UserAddress entity.
+ * <p>
+ * The name, city and email finders are query-cached in the {@value #QUERY_CACHE_REGION} region, so
+ * repeated lookups do not reach the database until the table is next written. The paged
+ * finders and their sparse-fieldset variants select projections, so the region holds the
+ * column values themselves and the entity cache is never consulted. Only the full-row
+ * finders, which return entities, cache id lists and read the rows from the entity cache;
+ * that is filled by entity loads and writes, not by the projection reads.
+ * <p>
+ * Case-insensitive lookups compare against the {@code *_lower} shadow columns maintained by
+ * the database, rather than applying {@code UPPER()} to every row; the city and email ones are
+ * indexed.
+ * <p>
+ * Read paths that only serve responses select straight into {@link UserAddressDTO}
+ * through {@link #DTO_SELECT}, so no managed entity or dirty-checking snapshot is created.
+ * Their {@code WHERE}/{@code ORDER BY} tails are shared with the sparse-fieldset queries of
+ * {@link UserAddressProjectionRepository}.
  */
 @Repository
-public interface UserAddressRepository extends JpaRepository<UserAddress, Long> {
+public interface UserAddressRepository extends JpaRepository<UserAddress, Long>, UserAddressProjectionRepository,
+        UserAddressPatchRepository, UserAddressStreamRepository {
 
     /**
-     * Search for addresses by keyword across multiple fields.
-     *
-     * @param keyword the search keyword
-     * @return list of matching addresses
+     * JPQL predicate matching {@code :keyword} as a substring of any searchable field.
      */
-    @Query("SELECT u FROM UserAddress u WHERE " +
+    String KEYWORD_PREDICATE =
             "LOWER(u.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
             "LOWER(u.phone) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
             "LOWER(u.email) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
             "LOWER(u.street) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
             "LOWER(u.city) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
             "LOWER(u.state) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-            "LOWER(u.country) LIKE LOWER(CONCAT('%', :keyword, '%'))")
+            "LOWER(u.country) LIKE LOWER(CONCAT('%', :keyword, '%'))";
+
+    /**
+     * JPQL select list constructing a {@link UserAddressDTO} per row. Arguments follow the
+     * DTO's all-args constructor, i.e. its field declaration order.
+     */
+    String DTO_SELECT = "SELECT new com.example.addressbook.dto.UserAddressDTO(" +
+            "u.id, u.name, u.phone, u.email, u.street, u.city, u.state, u.zipCode, u.country, " +
+            "u.createdAt, u.updatedAt) FROM UserAddress u ";
+
+    /**
+     * Condition selecting one address by {@code :id}.
+     */
+    String BY_ID = "WHERE u.id = :id";
+
+    /**
+     * Condition selecting the addresses in {@code :ids}, ordered by id.
+     */
+    String BY_IDS = "WHERE u.id IN :ids ORDER BY u.id";
+
+    /**
+     * Ordering of the whole table by id.
+     */
+    String ORDER_BY_ID = "ORDER BY u.id";
+
+    /**
+     * Condition selecting the page of addresses with an id above {@code :id}.
+     */
+    String AFTER_ID = "WHERE u.id > :id " + ORDER_BY_ID;
+
+    /**
+     * Ordering of the whole table by last modification.
+     */
+    String ORDER_BY_UPDATED_AT = "ORDER BY u.updatedAt, u.id";
+
+    /**
+     * Condition selecting the page of addresses modified after the {@code (:updatedAt, :id)} position.
+     */
+    String AFTER_UPDATED_AT = "WHERE u.updatedAt > :updatedAt " +
+            "OR (u.updatedAt = :updatedAt AND u.id > :id) " + ORDER_BY_UPDATED_AT;
+
+    /**
+     * Condition selecting the page of addresses modified after the {@code (:updatedAt, :id)} position
+     * and no later than {@code :until}.
+     */
+    String CHANGED_AFTER = "WHERE (u.updatedAt > :updatedAt OR (u.updatedAt = :updatedAt AND u.id > :id)) " +
+            "AND u.updatedAt <= :until " + ORDER_BY_UPDATED_AT;
+
+    /**
+     * Condition selecting the page of {@link #KEYWORD_PREDICATE} matches with an id above {@code :after}.
+     */
+    String KEYWORD_AFTER_ID = "WHERE u.id > :after AND (" + KEYWORD_PREDICATE + ") ORDER BY u.id";
+
+    /**
+     * Condition selecting the addresses whose name contains {@code :name}, in which {@code LIKE}
+     * wildcards must be escaped with {@code :escape}.
+     */
+    String NAME_CONTAINS = "WHERE u.nameLower LIKE LOWER(CONCAT('%', :name, '%')) ESCAPE :escape";
+
+    /**
+     * Condition selecting the page of {@link #NAME_CONTAINS} matches with an id above {@code :id}.
+     */
+    String NAME_AFTER_ID = NAME_CONTAINS + " AND u.id > :id ORDER BY u.id";
+
+    /**
+     * Condition selecting the page of addresses in {@code :city} with an id above {@code :id}.
+     * <p>
+     * Ordering by {@code cityLower} first is a no-op for the result, but it lets H2 read the page
+     * in index order from the {@code (city_lower, id)} index instead of sorting the whole city.
+     */
+    String CITY_AFTER_ID = "WHERE u.cityLower = LOWER(:city) AND u.id > :id ORDER BY u.cityLower, u.id";
+
+    /**
+     * Second-level cache region holding the results of the cacheable finder queries.
+     */
+    String QUERY_CACHE_REGION = "userAddressQueries";
+
+    /**
+     * JDBC fetch size used when streaming the whole table.
+     */
+    String STREAM_FETCH_SIZE = "500";
+
+    /**
+     * Search for addresses by keyword across multiple fields.
+     *
+     * @param keyword the search keyword
+     * @return list of matching addresses
+     */
+    @Query("SELECT u FROM UserAddress u WHERE " + KEYWORD_PREDICATE)
     List<UserAddress> searchByKeyword(@Param("keyword") String keyword);
 
+    /**
+     * Search for addresses by keyword, returning the page of matches with an id above {@code after}.
+     *
+     * @param keyword  the search keyword
+     * @param after    the last id of the previous page, or 0 for the first page
+     * @param pageable the page size; ordering is always by id
+     * @return matching addresses ordered by id
+     */
+    @Query(DTO_SELECT + KEYWORD_AFTER_ID)
+    List<UserAddressDTO> searchByKeywordAfter(@Param("keyword") String keyword,
+                                              @Param("after") Long after,
+                                              Pageable pageable);
+
+    /**
+     * Find the address with the given id.
+     */
+    @Query(DTO_SELECT + BY_ID)
+    Optional<UserAddressDTO> findDTOById(@Param("id") Long id);
+
+    /**
+     * Find the last modification time of one address without loading the row.
+     */
+    @Query("SELECT u.updatedAt FROM UserAddress u WHERE u.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    /**
+     * Find which of the given ids exist.
+     */
+    @Query("SELECT u.id FROM UserAddress u WHERE u.id IN :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find the next page of ids, above {@code after}, of addresses in the given city and/or
+     * country (case-insensitive). A null filter value matches any address.
+     */
+    @Query("SELECT u.id FROM UserAddress u WHERE u.id > :after " +
+            "AND (:city IS NULL OR u.cityLower = LOWER(:city)) " +
+            "AND (:country IS NULL OR LOWER(u.country) = LOWER(:country)) ORDER BY u.id")
+    List<Long> findIdsByLocation(@Param("city") String city,
+                                 @Param("country") String country,
+                                 @Param("after") Long after,
+                                 Pageable pageable);
+
+    /**
+     * Delete the addresses with the given ids in one statement. Bypasses entity callbacks,
+     * so the caller must publish change events.
+     *
+     * @return the number of rows deleted
+     */
+    @Modifying
+    @Query("DELETE FROM UserAddress u WHERE u.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find the current version of the whole collection.
+     */
+    @Query("SELECT new com.example.addressbook.dto.CollectionVersion(COUNT(u), MAX(u.updatedAt)) " +
+            "FROM UserAddress u")
+    CollectionVersion findCollectionVersion();
+
+    /**
+     * Find the addresses with the given ids, ordered by id.
+     */
+    @Query(DTO_SELECT + BY_IDS)
+    List<UserAddressDTO> findByIdInOrderByIdAsc(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find the page of addresses with an id above {@code id}, ordered by id.
+     */
+    @Query(DTO_SELECT + AFTER_ID)
+    List<UserAddressDTO> findByIdGreaterThanOrderByIdAsc(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Find the first page of addresses ordered by last modification.
+     */
+    @Query(DTO_SELECT + ORDER_BY_UPDATED_AT)
+    List<UserAddressDTO> findAllByOrderByUpdatedAtAscIdAsc(Pageable pageable);
+
+    /**
+     * Find the page of addresses modified after the given (updatedAt, id) position.
+     */
+    @Query(DTO_SELECT + AFTER_UPDATED_AT)
+    List<UserAddressDTO> findPageByUpdatedAtAfter(@Param("updatedAt") LocalDateTime updatedAt,
+                                                  @Param("id") Long id,
+                                                  Pageable pageable);
+
+    /**
+     * Find the page of addresses modified after the given (updatedAt, id) position and no later
+     * than {@code until}, ordered by last modification.
+     */
+    @Query(DTO_SELECT + CHANGED_AFTER)
+    List<UserAddressDTO> findPageChangedAfter(@Param("updatedAt") LocalDateTime updatedAt,
+                                              @Param("id") Long id,
+                                              @Param("until") LocalDateTime until,
+                                              Pageable pageable);
+
     /**
      * Find addresses by name containing the given string (case-insensitive).
+     *
+     * @param name   the string to look for, with {@code LIKE} wildcards escaped
+     * @param escape the escape character used in {@code name}
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    @Query("SELECT u FROM UserAddress u " + NAME_CONTAINS)
+    List<UserAddress> findByNameContainingIgnoreCase(@Param("name") String name, @Param("escape") char escape);
+
+    /**
+     * Find the page of addresses by name containing the given string (case-insensitive), ordered by id.
+     *
+     * @param name   the string to look for, with {@code LIKE} wildcards escaped
+     * @param escape the escape character used in {@code name}
      */
-    List<UserAddress> findByNameContainingIgnoreCase(String name);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    @Query(DTO_SELECT + NAME_AFTER_ID)
+    List<UserAddressDTO> findByNameContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(@Param("name") String name,
+                                                                                  @Param("escape") char escape,
+                                                                                  @Param("id") Long id,
+                                                                                  Pageable pageable);
 
     /**
      * Find addresses by city (case-insensitive).
      */
-    List<UserAddress> findByCityIgnoreCase(String city);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    @Query("SELECT u FROM UserAddress u WHERE u.cityLower = LOWER(:city)")
+    List<UserAddress> findByCityIgnoreCase(@Param("city") String city);
+
+    /**
+     * Find the page of addresses by city (case-insensitive), ordered by id.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    @Query(DTO_SELECT + CITY_AFTER_ID)
+    List<UserAddressDTO> findByCityIgnoreCaseAndIdGreaterThanOrderByIdAsc(@Param("city") String city,
+                                                                          @Param("id") Long id,
+                                                                          Pageable pageable);
 
     /**
      * Find addresses by email (case-insensitive).
      */
-    List<UserAddress> findByEmailIgnoreCase(String email);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    @Query("SELECT u FROM UserAddress u WHERE u.emailLower = LOWER(:email)")
+    List<UserAddress> findByEmailIgnoreCase(@Param("email") String email);
 }
@@ -0,0 +1,20 @@
+package com.example.addressbook.repository;
+
+import com.example.addressbook.entity.UserAddress;
+
+import java.util.stream.Stream;
+
+/**
+ * Reads the whole {@code UserAddress} table as a stream, for exports and index rebuilds.
+ */
+public interface UserAddressStreamRepository {
+
+    /**
+     * Stream all addresses ordered by id, reading rows from the cursor as they are consumed.
+     * Must be called inside a transaction and the stream must be closed by the caller.
+     * The rows bypass the entity cache, so a full pass does not evict the hot addresses.
+     *
+     * @return a stream over every address
+     */
+    Stream<UserAddress> streamAll();
+}
@@ -0,0 +1,40 @@
+package com.example.addressbook.repository;
+
+import com.example.addressbook.entity.UserAddress;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.stream.Stream;
+
+/**
+ * Runs the stream of {@link UserAddressStreamRepository} with the session's cache mode set to
+ * {@link CacheMode#IGNORE} until the stream is closed. A cache mode hint on the query would not
+ * do: Hibernate restores the session's mode once the statement has run, before the stream
+ * builds its entities.
+ */
+class UserAddressStreamRepositoryImpl implements UserAddressStreamRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<UserAddress> streamAll() {
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previous = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+        try {
+            return entityManager.createQuery("SELECT u FROM UserAddress u " + UserAddressRepository.ORDER_BY_ID,
+                            UserAddress.class)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, Integer.parseInt(UserAddressRepository.STREAM_FETCH_SIZE))
+                    .setHint(HibernateHints.HINT_READ_ONLY, true)
+                    .getResultStream()
+                    .onClose(() -> session.setCacheMode(previous));
+        } catch (RuntimeException ex) {
+            session.setCacheMode(previous);
+            throw ex;
+        }
+    }
+}
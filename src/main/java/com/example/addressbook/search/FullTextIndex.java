@@ -0,0 +1,327 @@
+package com.example.addressbook.search;
+
+import com.example.addressbook.config.SearchProperties;
+import com.example.addressbook.dto.UserAddressDTO;
+import com.example.addressbook.entity.UserAddress;
+import com.example.addressbook.event.UserAddressChangedEvent;
+import com.example.addressbook.exception.ServiceUnavailableException;
+import com.example.addressbook.mapper.UserAddressMapper;
+import com.example.addressbook.repository.UserAddressRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * On-disk Lucene index for relevance-ranked (BM25) full-text search over address fields.
+ * <p>
+ * Fields are tokenized with the standard analyzer and queried with per-field boosts from
+ * {@code addressbook.search.fulltext.boosts}. Committed {@link UserAddressChangedEvent}s are
+ * applied to the index writer immediately and become searchable within
+ * {@code max-staleness} through a near-real-time reopen thread. The index is committed to
+ * disk periodically and on shutdown.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FullTextIndex {
+
+    static final String ID_FIELD = "id";
+    private static final int BUILD_CLEAR_INTERVAL = 1000;
+
+    private static final Map<String, Function<UserAddressDTO, String>> FIELDS = Map.of(
+            "name", UserAddressDTO::getName,
+            "phone", UserAddressDTO::getPhone,
+            "email", UserAddressDTO::getEmail,
+            "street", UserAddressDTO::getStreet,
+            "city", UserAddressDTO::getCity,
+            "state", UserAddressDTO::getState,
+            "zipCode", UserAddressDTO::getZipCode,
+            "country", UserAddressDTO::getCountry);
+
+    private final UserAddressRepository repository;
+    private final UserAddressMapper mapper;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+    private final SearchProperties properties;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Lock writeLock = new ReentrantLock();
+    private final Set<Long> changedDuringBuild = new HashSet<>();
+    private boolean building;
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+    private volatile boolean ready;
+
+    /**
+     * A matching address id and its score.
+     */
+    public record Hit(long id, float score) {
+    }
+
+    /**
+     * Top hits for a query and the total number of matches.
+     */
+    public record Result(long totalHits, List<Hit> hits) {
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        SearchProperties.Fulltext config = properties.getFulltext();
+        if (!config.isEnabled()) {
+            return;
+        }
+        Path path = Path.of(config.getDirectory());
+        Files.createDirectories(path);
+        directory = FSDirectory.open(path);
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+        reopenThread = new ControlledRealTimeReopenThread<>(writer, searcherManager,
+                config.getMaxStaleness().toMillis() / 1000.0, 0.0);
+        reopenThread.setName("fulltext-index-reopen");
+        reopenThread.setDaemon(true);
+        reopenThread.start();
+        ready = !config.isRebuildOnStartup();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (writer == null) {
+            return;
+        }
+        ready = false;
+        reopenThread.close();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    /**
+     * Whether the index is enabled and can serve searches.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Runs a ranked search over the boosted fields.
+     *
+     * @param text  free text; query syntax characters are treated literally
+     * @param limit the maximum number of hits to return
+     * @return the best hits, highest score first
+     * @throws ServiceUnavailableException if full-text search is disabled or still building
+     */
+    public Result search(String text, int limit) {
+        if (!ready) {
+            throw new ServiceUnavailableException(properties.getFulltext().isEnabled()
+                    ? "Full-text index is being built"
+                    : "Full-text search is disabled");
+        }
+        Query query = parse(text);
+        if (query == null) {
+            return new Result(0, List.of());
+        }
+
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            TopDocs top = searcher.search(query, limit);
+            List<Hit> hits = new ArrayList<>(top.scoreDocs.length);
+            for (ScoreDoc scoreDoc : top.scoreDocs) {
+                String id = searcher.storedFields().document(scoreDoc.doc, Set.of(ID_FIELD)).get(ID_FIELD);
+                hits.add(new Hit(Long.parseLong(id), scoreDoc.score));
+            }
+            return new Result(top.totalHits.value, hits);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            release(searcher);
+        }
+    }
+
+    /**
+     * Re-indexes every address once the application has started, when configured to.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() throws IOException {
+        SearchProperties.Fulltext config = properties.getFulltext();
+        if (!config.isEnabled() || !config.isRebuildOnStartup()) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        writeLock.lock();
+        try {
+            building = true;
+            changedDuringBuild.clear();
+            writer.deleteAll();
+        } finally {
+            writeLock.unlock();
+        }
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        long indexed = Objects.requireNonNullElse(readOnly.execute(status -> {
+            long count = 0;
+            try (Stream<UserAddress> rows = repository.streamAll()) {
+                Iterator<UserAddress> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    indexDuringBuild(mapper.toDTO(iterator.next()));
+                    if (++count % BUILD_CLEAR_INTERVAL == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+            return count;
+        }), 0L);
+
+        writeLock.lock();
+        try {
+            building = false;
+            changedDuringBuild.clear();
+        } finally {
+            writeLock.unlock();
+        }
+        writer.commit();
+        searcherManager.maybeRefreshBlocking();
+        ready = true;
+        log.info("Full-text index built with {} addresses in {} ms", indexed, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Applies a committed change to the index. Failures are logged rather than thrown
+     * because the database transaction has already committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(UserAddressChangedEvent event) {
+        if (writer == null) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            if (building) {
+                changedDuringBuild.add(event.getId());
+            }
+            if (event.getType() == UserAddressChangedEvent.ChangeType.DELETED) {
+                writer.deleteDocuments(idTerm(event.getId()));
+            } else {
+                writer.updateDocument(idTerm(event.getId()), document(event.getAddress()));
+            }
+        } catch (IOException ex) {
+            log.error("Failed to apply {} of address {} to the full-text index", event.getType(), event.getId(), ex);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Makes all changes applied so far visible to searches.
+     */
+    public void refresh() throws IOException {
+        if (searcherManager != null) {
+            searcherManager.maybeRefreshBlocking();
+        }
+    }
+
+    /**
+     * Persists the index so a restart without rebuild sees recent writes.
+     */
+    @Scheduled(fixedDelayString = "${addressbook.search.fulltext.commit-interval:PT1M}")
+    public void commit() throws IOException {
+        if (writer != null && writer.isOpen() && writer.hasUncommittedChanges()) {
+            writer.commit();
+        }
+    }
+
+    private void indexDuringBuild(UserAddressDTO address) {
+        writeLock.lock();
+        try {
+            // A change event already applied a newer version of this row
+            if (!changedDuringBuild.contains(address.getId())) {
+                writer.updateDocument(idTerm(address.getId()), document(address));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Query parse(String text) {
+        Map<String, Float> boosts = properties.getFulltext().getBoosts();
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(
+                boosts.keySet().toArray(String[]::new), analyzer, boosts);
+        try {
+            return parser.parse(QueryParser.escape(text));
+        } catch (ParseException ex) {
+            return null;
+        }
+    }
+
+    private void release(IndexSearcher searcher) {
+        if (searcher == null) {
+            return;
+        }
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static Term idTerm(Long id) {
+        return new Term(ID_FIELD, String.valueOf(id));
+    }
+
+    private static Document document(UserAddressDTO address) {
+        Document doc = new Document();
+        doc.add(new StringField(ID_FIELD, String.valueOf(address.getId()), Field.Store.YES));
+        FIELDS.forEach((field, getter) -> {
+            String value = getter.apply(address);
+            if (value != null) {
+                doc.add(new TextField(field, value, Field.Store.NO));
+            }
+        });
+        return doc;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.addressbook.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted set of address ids backed by a primitive array. Ids are mostly appended in
+ * increasing order because they come from a sequence, which keeps inserts cheap.
+ * Not thread-safe; {@link TrigramIndex} guards access with its lock.
+ */
+final class PostingList {
+
+    private long[] ids = new long[4];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    long get(int index) {
+        return ids[index];
+    }
+
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    void add(long id) {
+        if (size > 0 && ids[size - 1] >= id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                return;
+            }
+            insertAt(-pos - 1, id);
+            return;
+        }
+        insertAt(size, id);
+    }
+
+    void remove(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos < 0) {
+            return;
+        }
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        size--;
+    }
+
+    /**
+     * Returns the position of the first id strictly greater than {@code after}.
+     */
+    int indexAfter(long after) {
+        int pos = Arrays.binarySearch(ids, 0, size, after);
+        return pos >= 0 ? pos + 1 : -pos - 1;
+    }
+
+    private void insertAt(int pos, long id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+        ids[pos] = id;
+        size++;
+    }
+}
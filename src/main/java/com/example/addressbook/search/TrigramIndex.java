@@ -0,0 +1,273 @@
+package com.example.addressbook.search;
+
+import com.example.addressbook.config.SearchProperties;
+import com.example.addressbook.dto.UserAddressDTO;
+import com.example.addressbook.entity.UserAddress;
+import com.example.addressbook.event.UserAddressChangedEvent;
+import com.example.addressbook.repository.UserAddressRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory trigram inverted index over the fields matched by
+ * {@link UserAddressRepository#searchByKeyword(String)}.
+ * <p>
+ * Each address is stored as its lower-cased searchable fields joined by a separator that
+ * cannot occur in a keyword, and every trigram of that text maps to the ids containing it.
+ * A search intersects the posting lists of the keyword's trigrams and then confirms each
+ * candidate with a substring check, so results match the SQL {@code LIKE '%keyword%'}
+ * query exactly. Keywords shorter than three characters, or containing LIKE wildcard or
+ * escape characters, are not served and the caller falls back to SQL.
+ * <p>
+ * The index is built when the application is ready and kept current from committed
+ * {@link UserAddressChangedEvent}s.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TrigramIndex {
+
+    private static final char FIELD_SEPARATOR = '\u0000';
+    private static final int BUILD_CLEAR_INTERVAL = 1000;
+
+    private final UserAddressRepository repository;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+    private final SearchProperties properties;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String> documents = new HashMap<>();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private Set<Long> changedDuringBuild;
+    private volatile boolean ready;
+
+    /**
+     * Whether the index is enabled and fully built.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Finds ids of addresses containing the keyword in any searchable field.
+     *
+     * @param keyword the search keyword
+     * @param afterId only ids greater than this are returned
+     * @param max     the maximum number of ids to return
+     * @return matching ids in ascending order, or empty if the index cannot serve this keyword
+     */
+    public Optional<List<Long>> search(String keyword, long afterId, int max) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        String needle = keyword.toLowerCase(Locale.ROOT);
+        if (needle.length() < 3 || !isPlainKeyword(needle)) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>();
+            for (long trigram : trigrams(needle)) {
+                PostingList list = postings.get(trigram);
+                if (list == null) {
+                    return Optional.of(List.of());
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(PostingList::size));
+
+            PostingList smallest = lists.get(0);
+            List<Long> result = new ArrayList<>(Math.min(max, smallest.size()));
+            for (int i = smallest.indexAfter(afterId); i < smallest.size() && result.size() < max; i++) {
+                long id = smallest.get(i);
+                if (containsAll(lists, id) && documents.get(id).contains(needle)) {
+                    result.add(id);
+                }
+            }
+            return Optional.of(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Loads every address into the index once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!properties.getTrigram().isEnabled()) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            changedDuringBuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        long indexed = Objects.requireNonNullElse(readOnly.execute(status -> {
+            long count = 0;
+            try (Stream<UserAddress> rows = repository.streamAll()) {
+                Iterator<UserAddress> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    UserAddress row = iterator.next();
+                    indexDuringBuild(row.getId(), document(row.getName(), row.getPhone(), row.getEmail(),
+                            row.getStreet(), row.getCity(), row.getState(), row.getCountry()));
+                    if (++count % BUILD_CLEAR_INTERVAL == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+            return count;
+        }), 0L);
+
+        lock.writeLock().lock();
+        try {
+            changedDuringBuild = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Trigram index built with {} addresses in {} ms", indexed, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Applies a committed change to the index.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(UserAddressChangedEvent event) {
+        if (!properties.getTrigram().isEnabled()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (changedDuringBuild != null) {
+                changedDuringBuild.add(event.getId());
+            }
+            if (event.getType() == UserAddressChangedEvent.ChangeType.DELETED) {
+                remove(event.getId());
+            } else {
+                UserAddressDTO a = event.getAddress();
+                put(event.getId(), document(a.getName(), a.getPhone(), a.getEmail(),
+                        a.getStreet(), a.getCity(), a.getState(), a.getCountry()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void indexDuringBuild(long id, String document) {
+        lock.writeLock().lock();
+        try {
+            // A change event already applied a newer version of this row
+            if (!changedDuringBuild.contains(id)) {
+                put(id, document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(long id, String document) {
+        String previous = documents.put(id, document);
+        Set<Long> oldTrigrams = previous == null ? Set.of() : trigrams(previous);
+        Set<Long> newTrigrams = trigrams(document);
+        for (long trigram : oldTrigrams) {
+            if (!newTrigrams.contains(trigram)) {
+                removePosting(trigram, id);
+            }
+        }
+        for (long trigram : newTrigrams) {
+            if (!oldTrigrams.contains(trigram)) {
+                postings.computeIfAbsent(trigram, key -> new PostingList()).add(id);
+            }
+        }
+    }
+
+    private void remove(long id) {
+        String previous = documents.remove(id);
+        if (previous != null) {
+            for (long trigram : trigrams(previous)) {
+                removePosting(trigram, id);
+            }
+        }
+    }
+
+    private void removePosting(long trigram, long id) {
+        PostingList list = postings.get(trigram);
+        if (list != null) {
+            list.remove(id);
+            if (list.size() == 0) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    private static boolean containsAll(List<PostingList> lists, long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Rejects keywords the SQL query would not treat as a literal substring.
+     */
+    private static boolean isPlainKeyword(String needle) {
+        for (int i = 0; i < needle.length(); i++) {
+            char c = needle.charAt(i);
+            if (c == '%' || c == '_' || c == '\\' || c == FIELD_SEPARATOR) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String document(String... fields) {
+        StringBuilder builder = new StringBuilder();
+        for (String field : fields) {
+            if (field != null) {
+                builder.append(field.toLowerCase(Locale.ROOT));
+            }
+            builder.append(FIELD_SEPARATOR);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Returns the trigrams of the text, each packed into a long; trigrams spanning a
+     * field separator are skipped so matches never cross field boundaries.
+     */
+    static Set<Long> trigrams(String text) {
+        Set<Long> result = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            char a = text.charAt(i);
+            char b = text.charAt(i + 1);
+            char c = text.charAt(i + 2);
+            if (a != FIELD_SEPARATOR && b != FIELD_SEPARATOR && c != FIELD_SEPARATOR) {
+                result.add(((long) a << 32) | ((long) b << 16) | c);
+            }
+        }
+        return result;
+    }
+}
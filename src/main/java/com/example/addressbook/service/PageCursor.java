@@ -0,0 +1,127 @@
+package com.example.addressbook.service;
+
+import com.example.addressbook.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque keyset cursors handed out by paginated endpoints.
+ * An id cursor carries the last id seen; an updatedAt cursor carries the last
+ * (updatedAt, id) pair so rows sharing a timestamp are not skipped. A sync token is the
+ * same pair for the last change reported by {@code GET /api/addresses/changes}, plus the time
+ * from which the client needs every delete.
+ */
+final class PageCursor {
+
+    private static final String ID_PREFIX = "i";
+    private static final String UPDATED_AT_PREFIX = "u";
+    private static final String SINCE_PREFIX = "s";
+    private static final String INVALID_CURSOR = "Invalid pagination cursor";
+    private static final String INVALID_TOKEN = "Invalid since token";
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime updatedAt;
+    private final long id;
+    private final LocalDateTime syncedAt;
+
+    private PageCursor(LocalDateTime updatedAt, long id, LocalDateTime syncedAt) {
+        this.updatedAt = updatedAt;
+        this.id = id;
+        this.syncedAt = syncedAt;
+    }
+
+    LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    long getId() {
+        return id;
+    }
+
+    /**
+     * For a sync token, the time from which the client needs every delete; null for other cursors.
+     */
+    LocalDateTime getSyncedAt() {
+        return syncedAt;
+    }
+
+    static String encodeId(long id) {
+        return encode(ID_PREFIX + SEPARATOR + id);
+    }
+
+    static String encodeUpdatedAt(LocalDateTime updatedAt, long id) {
+        return encode(UPDATED_AT_PREFIX + SEPARATOR + updatedAt + SEPARATOR + id);
+    }
+
+    static String encodeSince(LocalDateTime changedAt, long id, LocalDateTime syncedAt) {
+        return encode(SINCE_PREFIX + SEPARATOR + changedAt + SEPARATOR + id + SEPARATOR + syncedAt);
+    }
+
+    /**
+     * Decodes an id cursor; a null or blank cursor starts from the beginning.
+     */
+    static long decodeId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        String[] parts = decode(cursor, INVALID_CURSOR);
+        if (parts.length != 2 || !ID_PREFIX.equals(parts[0])) {
+            throw new BadRequestException(INVALID_CURSOR);
+        }
+        return parseId(parts[1], INVALID_CURSOR);
+    }
+
+    /**
+     * Decodes an updatedAt cursor; returns null for a null or blank cursor.
+     */
+    static PageCursor decodeUpdatedAt(String cursor) {
+        return decodePosition(cursor, UPDATED_AT_PREFIX, 3, INVALID_CURSOR);
+    }
+
+    /**
+     * Decodes a sync token; returns null for a null or blank token.
+     */
+    static PageCursor decodeSince(String token) {
+        return decodePosition(token, SINCE_PREFIX, 4, INVALID_TOKEN);
+    }
+
+    private static PageCursor decodePosition(String cursor, String prefix, int length, String message) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String[] parts = decode(cursor, message);
+        if (parts.length != length || !prefix.equals(parts[0])) {
+            throw new BadRequestException(message);
+        }
+        try {
+            return new PageCursor(LocalDateTime.parse(parts[1]), parseId(parts[2], message),
+                    length > 3 ? LocalDateTime.parse(parts[3]) : null);
+        } catch (DateTimeParseException ex) {
+            throw new BadRequestException(message);
+        }
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decode(String cursor, String message) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return raw.split("\\" + SEPARATOR);
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException(message);
+        }
+    }
+
+    private static long parseId(String value, String message) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            throw new BadRequestException(message);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.addressbook.service;
+
+import com.example.addressbook.config.BulkProperties;
+import com.example.addressbook.config.ChangesProperties;
+import com.example.addressbook.datasource.EachShard;
+import com.example.addressbook.datasource.ShardKey;
+import com.example.addressbook.dto.UserAddressDTO;
+import com.example.addressbook.entity.UserAddress;
+import com.example.addressbook.event.UserAddressChangedEvent;
+import com.example.addressbook.mapper.UserAddressMapper;
+import com.example.addressbook.repository.AddressTombstoneRepository;
+import com.example.addressbook.repository.UserAddressRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service for inserting and deleting large numbers of user addresses.
+ * <p>
+ * Rows are written in chunks of {@code addressbook.bulk.chunk-size}, each chunk in its
+ * own transaction, so Hibernate can group the INSERTs into JDBC batches and a failure
+ * only rolls back the chunk in flight. Chunks committed before a failure are kept.
+ * Deletes run the same way, as one set-based DELETE per chunk, and record a tombstone per
+ * deleted row in the same transaction. With sharding on, the input is split by shard and each
+ * shard's part is chunked on its own.
+ */
+@Service
+@RequiredArgsConstructor
+@Timed("addressbook.service")
+public class UserAddressBulkService {
+
+    private final UserAddressRepository repository;
+    private final AddressTombstoneRepository tombstones;
+    private final UserAddressMapper mapper;
+    private final BulkProperties bulk;
+    private final ChangesProperties changes;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher publisher;
+
+    /**
+     * Creates all given addresses, committing once per chunk.
+     *
+     * @param dtos the addresses to create; any supplied ids are ignored
+     * @return the generated ids, in the same order as the input
+     */
+    public List<Long> createAll(@ShardKey List<UserAddressDTO> dtos) {
+        List<Long> ids = new ArrayList<>(dtos.size());
+        int chunkSize = bulk.getChunkSize();
+        for (int from = 0; from < dtos.size(); from += chunkSize) {
+            List<UserAddressDTO> chunk = dtos.subList(from, Math.min(from + chunkSize, dtos.size()));
+            ids.addAll(createChunk(chunk));
+        }
+        return ids;
+    }
+
+    /**
+     * Creates the given addresses in a single transaction, whatever their number.
+     *
+     * @param dtos the addresses to create; any supplied ids are ignored
+     * @return the generated ids, in the same order as the input
+     */
+    public List<Long> createChunk(@ShardKey List<UserAddressDTO> dtos) {
+        return transactionTemplate.execute(status -> insertChunk(dtos));
+    }
+
+    /**
+     * Deletes the addresses with the given ids, committing once per chunk. Ids that do
+     * not exist are skipped.
+     *
+     * @param ids the ids to delete
+     * @return the number of addresses deleted
+     */
+    public long deleteAllById(@ShardKey List<Long> ids) {
+        long deleted = 0;
+        int chunkSize = bulk.getChunkSize();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            deleted += transactionTemplate.execute(status -> deleteChunk(repository.findIdsByIdIn(chunk)));
+        }
+        return deleted;
+    }
+
+    /**
+     * Deletes every address in the given city and/or country (case-insensitive),
+     * committing once per chunk.
+     *
+     * @param city    the city to match, or null for any
+     * @param country the country to match, or null for any
+     * @return the number of addresses deleted
+     */
+    @EachShard
+    public long deleteAllByLocation(String city, String country) {
+        long deleted = 0;
+        long after = 0;
+        PageRequest page = PageRequest.ofSize(bulk.getChunkSize());
+        while (true) {
+            List<Long> chunk = repository.findIdsByLocation(city, country, after, page);
+            if (chunk.isEmpty()) {
+                return deleted;
+            }
+            deleted += transactionTemplate.execute(status -> deleteChunk(chunk));
+            after = chunk.get(chunk.size() - 1);
+        }
+    }
+
+    /**
+     * Deletes the tombstones older than {@code addressbook.changes.tombstone-retention}.
+     *
+     * @return the number of tombstones deleted
+     */
+    @Scheduled(fixedDelayString = "${addressbook.changes.purge-interval:PT1H}")
+    @EachShard
+    public long purgeTombstones() {
+        LocalDateTime cutoff = UserAddress.now().minus(changes.getTombstoneRetention());
+        return transactionTemplate.execute(status -> (long) tombstones.deleteByDeletedAtBefore(cutoff));
+    }
+
+    /**
+     * Deletes existing rows in one statement, leaving tombstones, and publishes the events
+     * the entity listener would have.
+     */
+    private int deleteChunk(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        tombstones.insertForAddresses(ids, UserAddress.now());
+        int deleted = repository.deleteAllByIdIn(ids);
+        ids.forEach(id -> publisher.publishEvent(UserAddressChangedEvent.deleted(id)));
+        return deleted;
+    }
+
+    private List<Long> insertChunk(List<UserAddressDTO> chunk) {
+        List<UserAddress> entities = new ArrayList<>(chunk.size());
+        for (UserAddressDTO dto : chunk) {
+            UserAddress entity = mapper.toEntity(dto);
+            entity.setId(null);
+            entities.add(entity);
+        }
+        repository.saveAll(entities);
+        entityManager.flush();
+        entityManager.clear();
+        return entities.stream().map(UserAddress::getId).toList();
+    }
+}
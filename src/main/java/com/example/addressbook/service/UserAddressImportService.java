@@ -0,0 +1,270 @@
+package com.example.addressbook.service;
+
+import com.example.addressbook.config.BulkProperties;
+import com.example.addressbook.config.ImportProperties;
+import com.example.addressbook.dto.AddressFields;
+import com.example.addressbook.dto.ImportReport;
+import com.example.addressbook.dto.UserAddressDTO;
+import com.example.addressbook.exception.BadRequestException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Imports addresses from CSV.
+ * <p>
+ * The file is read as a stream, {@code addressbook.bulk.chunk-size} rows at a time. Each chunk
+ * is converted and validated against the {@link UserAddressDTO} constraints on a pool of
+ * {@code addressbook.import.parallelism} threads shared by all imports, while the caller reads
+ * up to {@code read-ahead} chunks further. Chunks are then inserted in file order through
+ * {@link UserAddressBulkService#createChunk}, one transaction each. The committed rows are
+ * therefore always the start of the file: an import that stops early reports how far it got,
+ * and sending the file again with {@code skip} set to that carries on from there.
+ * <p>
+ * The header row names the columns, with the {@link UserAddressDTO} property names in any case
+ * ({@code zip_code} is accepted too). Empty cells are null. Rows failing validation are left
+ * out and reported; the rest of their chunk is imported.
+ */
+@Slf4j
+@Service
+@Timed("addressbook.service")
+public class UserAddressImportService {
+
+    /**
+     * Accepted column names, lower-cased, to the property they set.
+     */
+    private static final Map<String, String> COLUMNS;
+
+    static {
+        Map<String, String> columns = new LinkedHashMap<>();
+        for (String property : List.of("name", "phone", "email", "street", "city", "state", "zipCode", "country")) {
+            columns.put(property.toLowerCase(Locale.ROOT), property);
+        }
+        columns.put("zip_code", "zipCode");
+        COLUMNS = Collections.unmodifiableMap(columns);
+    }
+
+    private static final ObjectReader RECORDS = new CsvMapper()
+            .enable(CsvParser.Feature.WRAP_AS_ARRAY)
+            .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .readerFor(String[].class);
+
+    /**
+     * One chunk, converted and validated.
+     */
+    private record Chunk(long lastRow, List<UserAddressDTO> addresses, List<ImportReport.RowError> errors) {
+    }
+
+    private final UserAddressBulkService bulkService;
+    private final BulkProperties bulk;
+    private final ImportProperties properties;
+    private final Validator validator;
+    private final ExecutorService workers;
+
+    public UserAddressImportService(UserAddressBulkService bulkService, BulkProperties bulk,
+                                    ImportProperties properties, Validator validator) {
+        this.bulkService = bulkService;
+        this.bulk = bulk;
+        this.properties = properties;
+        this.validator = validator;
+        this.workers = Executors.newFixedThreadPool(properties.getParallelism(),
+                Thread.ofPlatform().name("address-import-", 0).daemon(true).factory());
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Imports the addresses in a CSV file.
+     *
+     * @param csv  the file, UTF-8 encoded, starting with a header row; not closed
+     * @param skip number of rows to pass over, e.g. the {@code committedRows} of an earlier attempt
+     * @return what was imported and rejected, and where the import stopped if it did not complete
+     * @throws BadRequestException if {@code skip} is negative or the header is missing or names
+     *                             an unknown or repeated column
+     * @throws IOException         if the file could not be read
+     */
+    public ImportReport importCsv(InputStream csv, long skip) throws IOException {
+        if (skip < 0) {
+            throw new BadRequestException("skip must not be negative");
+        }
+        ImportReport report = ImportReport.builder().outcome(ImportReport.Outcome.COMPLETED).build();
+        Deque<Future<Chunk>> pending = new ArrayDeque<>();
+        try (MappingIterator<String[]> records = RECORDS.readValues(
+                new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            List<String> columns = readHeader(records);
+            List<String[]> rows = new ArrayList<>();
+            try {
+                while (records.hasNextValue()) {
+                    String[] record = records.nextValue();
+                    report.setRows(report.getRows() + 1);
+                    if (report.getRows() <= skip) {
+                        report.setCommittedRows(report.getRows());
+                        continue;
+                    }
+                    rows.add(record);
+                    if (rows.size() == bulk.getChunkSize()) {
+                        pending.add(submit(columns, rows, report.getRows()));
+                        rows = new ArrayList<>();
+                        while (pending.size() > properties.getReadAhead()) {
+                            if (!insert(pending.poll(), report)) {
+                                return report;
+                            }
+                        }
+                    }
+                }
+            } catch (JsonProcessingException ex) {
+                report.setOutcome(ImportReport.Outcome.MALFORMED);
+                report.setMessage("Row " + (report.getRows() + 1) + " is not valid CSV: " + ex.getOriginalMessage());
+            }
+            if (!rows.isEmpty()) {
+                pending.add(submit(columns, rows, report.getRows()));
+            }
+            while (!pending.isEmpty()) {
+                if (!insert(pending.poll(), report)) {
+                    return report;
+                }
+            }
+            return report;
+        } finally {
+            pending.forEach(chunk -> chunk.cancel(true));
+        }
+    }
+
+    /**
+     * Reads the header row and returns the property each column sets.
+     */
+    private static List<String> readHeader(MappingIterator<String[]> records) throws IOException {
+        String[] header;
+        try {
+            if (!records.hasNextValue()) {
+                throw new BadRequestException("CSV is empty; expected a header row");
+            }
+            header = records.nextValue();
+        } catch (JsonProcessingException ex) {
+            throw new BadRequestException("CSV header is not valid CSV: " + ex.getOriginalMessage());
+        }
+        List<String> columns = new ArrayList<>(header.length);
+        Set<String> seen = new HashSet<>();
+        for (String name : header) {
+            String column = name.replace("\uFEFF", "").trim();
+            String property = COLUMNS.get(column.toLowerCase(Locale.ROOT));
+            if (property == null) {
+                throw new BadRequestException("Unknown column: " + column + "; expected any of "
+                        + String.join(",", COLUMNS.keySet()));
+            }
+            if (!seen.add(property)) {
+                throw new BadRequestException("Duplicate column: " + column);
+            }
+            columns.add(property);
+        }
+        if (!seen.contains("name")) {
+            throw new BadRequestException("CSV must have a name column");
+        }
+        return columns;
+    }
+
+    private Future<Chunk> submit(List<String> columns, List<String[]> rows, long lastRow) {
+        return workers.submit(() -> convert(columns, rows, lastRow - rows.size() + 1));
+    }
+
+    /**
+     * Turns rows into addresses, setting aside those with the wrong number of cells or failing validation.
+     */
+    private Chunk convert(List<String> columns, List<String[]> rows, long firstRow) {
+        List<UserAddressDTO> addresses = new ArrayList<>(rows.size());
+        List<ImportReport.RowError> errors = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            String[] cells = rows.get(i);
+            long row = firstRow + i;
+            if (cells.length != columns.size()) {
+                errors.add(new ImportReport.RowError(row, Map.of("columns",
+                        "Expected " + columns.size() + " cells, got " + cells.length)));
+                continue;
+            }
+            UserAddressDTO address = new UserAddressDTO();
+            for (int c = 0; c < cells.length; c++) {
+                AddressFields.set(address, columns.get(c), cells[c].isEmpty() ? null : cells[c]);
+            }
+            Set<ConstraintViolation<UserAddressDTO>> violations = validator.validate(address);
+            if (violations.isEmpty()) {
+                addresses.add(address);
+                continue;
+            }
+            Map<String, String> fieldErrors = new TreeMap<>();
+            for (ConstraintViolation<UserAddressDTO> violation : violations) {
+                fieldErrors.put(violation.getPropertyPath().toString(), violation.getMessage());
+            }
+            errors.add(new ImportReport.RowError(row, fieldErrors));
+        }
+        return new Chunk(firstRow + rows.size() - 1, addresses, errors);
+    }
+
+    /**
+     * Waits for a chunk to be validated and writes it in one transaction.
+     *
+     * @return false if the chunk could not be written, after recording why in the report
+     */
+    private boolean insert(Future<Chunk> future, ImportReport report) {
+        Chunk chunk = await(future);
+        try {
+            if (!chunk.addresses().isEmpty()) {
+                bulkService.createChunk(chunk.addresses());
+            }
+        } catch (RuntimeException ex) {
+            log.warn("CSV import stopped: rows {} to {} could not be written", report.getCommittedRows() + 1,
+                    chunk.lastRow(), ex);
+            report.setOutcome(ImportReport.Outcome.FAILED);
+            report.setMessage("Rows after " + report.getCommittedRows() + " could not be written: " + ex.getMessage());
+            return false;
+        }
+        report.setImported(report.getImported() + chunk.addresses().size());
+        report.setRejected(report.getRejected() + chunk.errors().size());
+        int room = properties.getMaxReportedErrors() - report.getErrors().size();
+        report.getErrors().addAll(chunk.errors().subList(0, Math.min(room, chunk.errors().size())));
+        report.setCommittedRows(chunk.lastRow());
+        return true;
+    }
+
+    private static Chunk await(Future<Chunk> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while validating CSV rows", ex);
+        } catch (ExecutionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(ex.getCause());
+        }
+    }
+}
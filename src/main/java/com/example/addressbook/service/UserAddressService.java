@@ -1,27 +1,110 @@
 package com.example.addressbook.service;
 
+import com.example.addressbook.config.ChangesProperties;
+import com.example.addressbook.config.ExportProperties;
+import com.example.addressbook.config.PaginationProperties;
+import com.example.addressbook.datasource.ShardKey;
+import com.example.addressbook.dto.AddressFields;
+import com.example.addressbook.dto.ChangeSet;
+import com.example.addressbook.dto.CollectionVersion;
+import com.example.addressbook.dto.CursorPage;
+import com.example.addressbook.dto.FullTextSearchResult;
+import com.example.addressbook.dto.ScoredAddressDTO;
 import com.example.addressbook.dto.UserAddressDTO;
+import com.example.addressbook.entity.AddressTombstone;
 import com.example.addressbook.entity.UserAddress;
+import com.example.addressbook.event.UserAddressChangedEvent;
+import com.example.addressbook.exception.BadRequestException;
+import com.example.addressbook.exception.ResourceGoneException;
 import com.example.addressbook.exception.ResourceNotFoundException;
 import com.example.addressbook.mapper.UserAddressMapper;
+import com.example.addressbook.repository.AddressTombstoneRepository;
 import com.example.addressbook.repository.UserAddressRepository;
+import com.example.addressbook.search.FullTextIndex;
+import com.example.addressbook.search.TrigramIndex;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service class for managing user addresses.
+ * <p>
+ * Every public method is timed as {@code addressbook.service}, and the number of rows each
+ * list or search call returns is recorded as {@code addressbook.query.results}.
+ * <p>
+ * Read methods taking {@link AddressFields} select only those columns when given a subset,
+ * plus any the page cursor needs; the extra columns are cleared before the page is returned.
+ * <p>
+ * With sharding on, methods taking one address run on the shard its id or country picks
+ * ({@link ShardKey}); the rest read every shard through the repository.
+ * <p>
+ * Deletes leave an {@link AddressTombstone} behind, so {@link #getChanges} can report them.
  */
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Timed("addressbook.service")
 public class UserAddressService {
 
+    /**
+     * Distribution summary of rows returned per list or search call, tagged by {@code query}.
+     */
+    public static final String RESULTS_METRIC = "addressbook.query.results";
+
+    /**
+     * Fields a merge patch may set; each is a string column of the same name.
+     */
+    private static final Set<String> PATCHABLE_FIELDS = Set.of(
+            "name", "phone", "email", "street", "city", "state", "zipCode", "country");
+
+    /**
+     * Server-managed fields; accepted in a patch so a fetched representation can be sent
+     * back as-is, but never applied.
+     */
+    private static final Set<String> READ_ONLY_FIELDS = Set.of("id", "createdAt", "updatedAt");
+
+    /**
+     * Position before every change, where a sync without a token starts.
+     */
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     private final UserAddressRepository repository;
+    private final AddressTombstoneRepository tombstones;
     private final UserAddressMapper mapper;
+    private final PaginationProperties pagination;
+    private final ExportProperties export;
+    private final ChangesProperties changes;
+    private final EntityManager entityManager;
+    private final TrigramIndex trigramIndex;
+    private final FullTextIndex fullTextIndex;
+    private final Validator validator;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher publisher;
 
     /**
      * Creates a new user address.
@@ -29,7 +112,7 @@ public class UserAddressService {
      * @param dto the address data
      * @return the created address
      */
-    public UserAddressDTO create(UserAddressDTO dto) {
+    public UserAddressDTO create(@ShardKey UserAddressDTO dto) {
         UserAddress entity = mapper.toEntity(dto);
         UserAddress saved = repository.save(entity);
         return mapper.toDTO(saved);
@@ -43,22 +126,242 @@ public class UserAddressService {
      * @throws ResourceNotFoundException if not found
      */
     @Transactional(readOnly = true)
-    public UserAddressDTO getById(Long id) {
-        UserAddress entity = repository.findById(id)
+    public UserAddressDTO getById(@ShardKey Long id) {
+        return repository.findDTOById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("UserAddress", id));
-        return mapper.toDTO(entity);
     }
 
     /**
-     * Gets all user addresses.
+     * Gets the given fields of a user address by ID.
      *
-     * @return list of all addresses
+     * @param id     the address ID
+     * @param fields the fields to load
+     * @return the address with only those fields set
+     * @throws ResourceNotFoundException if not found
      */
     @Transactional(readOnly = true)
-    public List<UserAddressDTO> getAll() {
-        return repository.findAll().stream()
-                .map(mapper::toDTO)
-                .collect(Collectors.toList());
+    public UserAddressDTO getById(@ShardKey Long id, AddressFields fields) {
+        if (fields.isAll()) {
+            return getById(id);
+        }
+        return repository.findFields(fields, UserAddressRepository.BY_ID, Map.of("id", id), 1, false)
+                .stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("UserAddress", id));
+    }
+
+    /**
+     * Gets the last modification time of a user address without loading it.
+     *
+     * @param id the address ID
+     * @return the address's updatedAt
+     * @throws ResourceNotFoundException if not found
+     */
+    @Transactional(readOnly = true)
+    public LocalDateTime getVersion(@ShardKey Long id) {
+        return repository.findUpdatedAtById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("UserAddress", id));
+    }
+
+    /**
+     * Gets the current version of the whole address collection, used to validate
+     * cached list and search responses.
+     *
+     * @return the collection version
+     */
+    @Transactional(readOnly = true)
+    public CollectionVersion getCollectionVersion() {
+        return repository.findCollectionVersion();
+    }
+
+    /**
+     * Gets a page of user addresses ordered by ID.
+     *
+     * @param after the cursor returned by the previous page, or null for the first page
+     * @param limit the maximum number of addresses to return, or null for the default
+     * @return the page of addresses
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<UserAddressDTO> getAll(String after, Integer limit) {
+        return getAll(after, limit, AddressFields.ALL);
+    }
+
+    /**
+     * Gets a page of user addresses ordered by ID, with only the given fields.
+     *
+     * @param after  the cursor returned by the previous page, or null for the first page
+     * @param limit  the maximum number of addresses to return, or null for the default
+     * @param fields the fields to load
+     * @return the page of addresses
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<UserAddressDTO> getAll(String after, Integer limit, AddressFields fields) {
+        int size = resolveLimit(limit);
+        long afterId = PageCursor.decodeId(after);
+        List<UserAddressDTO> rows = fields.isAll()
+                ? repository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.ofSize(size + 1))
+                : repository.findFields(fields.with("id"), UserAddressRepository.AFTER_ID,
+                        Map.of("id", afterId), size + 1, false);
+        return toPage("list", rows, size, fields, last -> PageCursor.encodeId(last.getId()));
+    }
+
+    /**
+     * Gets a page of user addresses ordered by last modification, oldest first.
+     *
+     * @param after the cursor returned by the previous page, or null for the first page
+     * @param limit the maximum number of addresses to return, or null for the default
+     * @return the page of addresses
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<UserAddressDTO> getAllByUpdatedAt(String after, Integer limit) {
+        return getAllByUpdatedAt(after, limit, AddressFields.ALL);
+    }
+
+    /**
+     * Gets a page of user addresses ordered by last modification, oldest first, with only the
+     * given fields.
+     *
+     * @param after  the cursor returned by the previous page, or null for the first page
+     * @param limit  the maximum number of addresses to return, or null for the default
+     * @param fields the fields to load
+     * @return the page of addresses
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<UserAddressDTO> getAllByUpdatedAt(String after, Integer limit, AddressFields fields) {
+        int size = resolveLimit(limit);
+        PageCursor cursor = PageCursor.decodeUpdatedAt(after);
+        List<UserAddressDTO> rows;
+        if (fields.isAll()) {
+            PageRequest page = PageRequest.ofSize(size + 1);
+            rows = cursor == null
+                    ? repository.findAllByOrderByUpdatedAtAscIdAsc(page)
+                    : repository.findPageByUpdatedAtAfter(cursor.getUpdatedAt(), cursor.getId(), page);
+        } else {
+            AddressFields selected = fields.with("id", "updatedAt");
+            rows = cursor == null
+                    ? repository.findFields(selected, UserAddressRepository.ORDER_BY_UPDATED_AT,
+                            Map.of(), size + 1, false)
+                    : repository.findFields(selected, UserAddressRepository.AFTER_UPDATED_AT,
+                            Map.of("updatedAt", cursor.getUpdatedAt(), "id", cursor.getId()), size + 1, false);
+        }
+        return toPage("list", rows, size, fields,
+                last -> PageCursor.encodeUpdatedAt(last.getUpdatedAt(), last.getId()));
+    }
+
+    /**
+     * Gets the addresses created, updated or deleted after a sync token, oldest change first.
+     * <p>
+     * Changes are read from the {@code (updated_at, id)} and {@code (deleted_at, id)} indexes,
+     * up to {@code addressbook.changes.settle-time} ago, and merged into one order. The token
+     * returned is the position of the last change reported or, once every settled change has
+     * been reported, the settle horizon itself.
+     * <p>
+     * The token also carries the time from which the client needs every delete: when its first
+     * sync started, moved up with its position. Deletes before that concern rows the client never
+     * received, so only that time, not the position, has to be within the tombstone retention.
+     * A first sync of rows unchanged for longer than the retention can therefore finish.
+     *
+     * @param since the token returned by the previous call, or null to start from the beginning
+     * @param limit the maximum number of changes to return, or null for the default
+     * @return the changes and the token for the next call
+     * @throws BadRequestException   if the token is malformed
+     * @throws ResourceGoneException if deletes the client needs may already have been purged
+     */
+    @Transactional(readOnly = true)
+    public ChangeSet getChanges(String since, Integer limit) {
+        int size = resolveLimit(limit);
+        PageCursor cursor = PageCursor.decodeSince(since);
+        LocalDateTime now = UserAddress.now();
+        if (cursor != null && cursor.getSyncedAt().isBefore(now.minus(changes.getTombstoneRetention()))) {
+            throw new ResourceGoneException("since token is older than the "
+                    + changes.getTombstoneRetention() + " deletes are kept for; reload every address");
+        }
+        LocalDateTime from = cursor == null ? BEGINNING : cursor.getUpdatedAt();
+        long afterId = cursor == null ? 0L : cursor.getId();
+        LocalDateTime syncedAt = cursor == null ? now : cursor.getSyncedAt();
+        LocalDateTime until = now.minus(changes.getSettleTime());
+        PageRequest page = PageRequest.ofSize(size + 1);
+        List<UserAddressDTO> updatedRows = repository.findPageChangedAfter(from, afterId, until, page);
+        List<AddressTombstone> deletedRows = tombstones.findPageByDeletedAtAfter(from, afterId, until, page);
+
+        List<UserAddressDTO> updated = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        int u = 0;
+        int d = 0;
+        while (u + d < size && (u < updatedRows.size() || d < deletedRows.size())) {
+            UserAddressDTO address = u < updatedRows.size() ? updatedRows.get(u) : null;
+            AddressTombstone tombstone = d < deletedRows.size() ? deletedRows.get(d) : null;
+            if (tombstone == null || (address != null && isBefore(address.getUpdatedAt(), address.getId(),
+                    tombstone.getDeletedAt(), tombstone.getId()))) {
+                updated.add(address);
+                from = address.getUpdatedAt();
+                afterId = address.getId();
+                u++;
+            } else {
+                deleted.add(tombstone.getId());
+                from = tombstone.getDeletedAt();
+                afterId = tombstone.getId();
+                d++;
+            }
+        }
+        boolean hasMore = u < updatedRows.size() || d < deletedRows.size();
+        if (!hasMore && from.isBefore(until)) {
+            from = until;
+            afterId = Long.MAX_VALUE;
+        }
+        recordResults("changes", updated.size() + deleted.size());
+        if (from.isAfter(syncedAt)) {
+            syncedAt = from;
+        }
+        return new ChangeSet(updated, deleted, PageCursor.encodeSince(from, afterId, syncedAt), hasMore);
+    }
+
+    /**
+     * Streams every user address, ordered by ID, to the given consumer as rows are read
+     * from the database. The persistence context is cleared periodically so memory use
+     * does not grow with the table.
+     *
+     * @param sink receives each address in turn
+     * @return the number of addresses exported
+     */
+    @Transactional(readOnly = true)
+    public long exportAll(Consumer<UserAddressDTO> sink) {
+        return exportAll(sink, AddressFields.ALL);
+    }
+
+    /**
+     * Streams the given fields of every user address, ordered by ID, to the given consumer as
+     * rows are read from the database. A subset of fields is read as a projection, without
+     * entities.
+     *
+     * @param sink   receives each address in turn
+     * @param fields the fields to load
+     * @return the number of addresses exported
+     */
+    @Transactional(readOnly = true)
+    public long exportAll(Consumer<UserAddressDTO> sink, AddressFields fields) {
+        long count = 0;
+        if (!fields.isAll()) {
+            try (Stream<UserAddressDTO> rows =
+                         repository.streamFields(fields, UserAddressRepository.ORDER_BY_ID)) {
+                Iterator<UserAddressDTO> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    sink.accept(iterator.next());
+                    count++;
+                }
+            }
+            return count;
+        }
+        try (Stream<UserAddress> rows = repository.streamAll()) {
+            Iterator<UserAddress> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                sink.accept(mapper.toDTO(iterator.next()));
+                if (++count % export.getClearInterval() == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
     }
 
     /**
@@ -69,7 +372,7 @@ public class UserAddressService {
      * @return the updated address
      * @throws ResourceNotFoundException if not found
      */
-    public UserAddressDTO update(Long id, UserAddressDTO dto) {
+    public UserAddressDTO update(@ShardKey Long id, UserAddressDTO dto) {
         UserAddress existing = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("UserAddress", id));
 
@@ -79,58 +382,294 @@ public class UserAddressService {
     }
 
     /**
-     * Deletes a user address.
+     * Applies a JSON Merge Patch (RFC 7396) to a user address. Only the supplied fields
+     * change; a null value clears the field. Every constraint on an address is on a single
+     * field, so validating the supplied values validates the patched address.
+     * <p>
+     * The supplied columns are written by one {@code UPDATE} without reading the row first.
+     * It only matches if a value differs, so a patch that changes nothing writes nothing and
+     * leaves {@code updatedAt} as it was. The address is then read back for the response.
+     *
+     * @param id    the address ID
+     * @param patch the merge patch: field name to new value or null
+     * @return the address after the patch
+     * @throws ResourceNotFoundException    if not found
+     * @throws BadRequestException          if the patch names an unknown field or a non-string value
+     * @throws ConstraintViolationException if a supplied value is invalid
+     */
+    public UserAddressDTO patch(@ShardKey Long id, Map<String, Object> patch) {
+        Map<String, String> values = new HashMap<>();
+        Set<ConstraintViolation<UserAddressDTO>> violations = new HashSet<>();
+        patch.forEach((field, value) -> {
+            if (READ_ONLY_FIELDS.contains(field)) {
+                return;
+            }
+            if (!PATCHABLE_FIELDS.contains(field)) {
+                throw new BadRequestException("Unknown field: " + field);
+            }
+            if (value != null && !(value instanceof String)) {
+                throw new BadRequestException(field + " must be a string or null");
+            }
+            violations.addAll(validator.validateValue(UserAddressDTO.class, field, value));
+            values.put(field, (String) value);
+        });
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+
+        boolean changed = repository.updateFields(id, values, UserAddress.now()) > 0;
+        UserAddressDTO patched = repository.findDTOById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("UserAddress", id));
+        if (changed) {
+            publisher.publishEvent(UserAddressChangedEvent.updated(patched));
+        }
+        return patched;
+    }
+
+    /**
+     * Deletes a user address: its tombstone is written, then the row is removed by one
+     * {@code DELETE} by id, and a missing address is told apart by the affected-row counts.
+     * Neither statement loads the entity, so the change event the entity listener would have
+     * published is published here. When a concurrent delete of the same address has already
+     * written its tombstone, the insert hits the tombstone's key and the address is reported
+     * as not found, as it would be once that delete commits.
      *
      * @param id the address ID
      * @throws ResourceNotFoundException if not found
      */
-    public void delete(Long id) {
-        if (!repository.existsById(id)) {
+    public void delete(@ShardKey Long id) {
+        List<Long> ids = List.of(id);
+        int tombstoned;
+        try {
+            tombstoned = tombstones.insertForAddresses(ids, UserAddress.now());
+        } catch (DataIntegrityViolationException ex) {
             throw new ResourceNotFoundException("UserAddress", id);
         }
-        repository.deleteById(id);
+        if (tombstoned == 0 || repository.deleteAllByIdIn(ids) == 0) {
+            throw new ResourceNotFoundException("UserAddress", id);
+        }
+        publisher.publishEvent(UserAddressChangedEvent.deleted(id));
+    }
+
+    /**
+     * Searches for user addresses by keyword. Served from the trigram index when it is
+     * enabled and can answer the keyword, otherwise from the SQL LIKE query.
+     *
+     * @param keyword the search keyword
+     * @param after   the cursor returned by the previous page, or null for the first page
+     * @param limit   the maximum number of addresses to return, or null for the default
+     * @return the page of matching addresses
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<UserAddressDTO> search(String keyword, String after, Integer limit) {
+        return search(keyword, after, limit, AddressFields.ALL);
     }
 
     /**
-     * Searches for user addresses by keyword.
+     * Searches for user addresses by keyword, returning only the given fields.
      *
      * @param keyword the search keyword
-     * @return list of matching addresses
+     * @param after   the cursor returned by the previous page, or null for the first page
+     * @param limit   the maximum number of addresses to return, or null for the default
+     * @param fields  the fields to load
+     * @return the page of matching addresses
      */
     @Transactional(readOnly = true)
-    public List<UserAddressDTO> search(String keyword) {
+    public CursorPage<UserAddressDTO> search(String keyword, String after, Integer limit, AddressFields fields) {
         if (keyword == null || keyword.trim().isEmpty()) {
-            return getAll();
+            return getAll(after, limit, fields);
+        }
+
+        int size = resolveLimit(limit);
+        String trimmed = keyword.trim();
+        long afterId = PageCursor.decodeId(after);
+        Optional<List<Long>> indexed = trigramIndex.search(trimmed, afterId, size + 1);
+        if (indexed.isPresent()) {
+            return indexedPage(indexed.get(), size, fields);
+        }
+        List<UserAddressDTO> rows;
+        if (fields.isAll()) {
+            rows = repository.searchByKeywordAfter(trimmed, afterId, PageRequest.ofSize(size + 1));
+        } else {
+            rows = repository.findFields(fields.with("id"), UserAddressRepository.KEYWORD_AFTER_ID,
+                    Map.of("keyword", trimmed, "after", afterId), size + 1, false);
         }
+        return toPage("search", rows, size, fields, last -> PageCursor.encodeId(last.getId()));
+    }
 
-        return repository.searchByKeyword(keyword.trim()).stream()
-                .map(mapper::toDTO)
+    /**
+     * Runs a relevance-ranked full-text search.
+     *
+     * @param query the free-text query
+     * @param limit the maximum number of hits to return, or null for the default
+     * @return the best matching addresses with their scores, best first
+     */
+    @Transactional(readOnly = true)
+    public FullTextSearchResult fullTextSearch(String query, Integer limit) {
+        return fullTextSearch(query, limit, AddressFields.ALL);
+    }
+
+    /**
+     * Runs a relevance-ranked full-text search, returning only the given address fields.
+     *
+     * @param query  the free-text query
+     * @param limit  the maximum number of hits to return, or null for the default
+     * @param fields the address fields to load
+     * @return the best matching addresses with their scores, best first
+     */
+    @Transactional(readOnly = true)
+    public FullTextSearchResult fullTextSearch(String query, Integer limit, AddressFields fields) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("q is required for full-text search");
+        }
+
+        FullTextIndex.Result result = fullTextIndex.search(query.trim(), resolveLimit(limit));
+        List<Long> ids = result.hits().stream().map(FullTextIndex.Hit::id).toList();
+        Map<Long, UserAddressDTO> rows = ids.isEmpty() ? Map.of()
+                : findByIds(ids, fields).stream()
+                        .collect(Collectors.toMap(UserAddressDTO::getId, Function.identity()));
+        List<ScoredAddressDTO> hits = result.hits().stream()
+                .filter(hit -> rows.containsKey(hit.id()))
+                .map(hit -> new ScoredAddressDTO(hit.score(), fields.retain(rows.get(hit.id()))))
                 .collect(Collectors.toList());
+        recordResults("fulltext", hits.size());
+        return new FullTextSearchResult(result.totalHits(), hits);
     }
 
     /**
      * Finds addresses by name.
      *
-     * @param name the name to search for
-     * @return list of matching addresses
+     * @param name  the name to search for
+     * @param after the cursor returned by the previous page, or null for the first page
+     * @param limit the maximum number of addresses to return, or null for the default
+     * @return the page of matching addresses
      */
     @Transactional(readOnly = true)
-    public List<UserAddressDTO> findByName(String name) {
-        return repository.findByNameContainingIgnoreCase(name).stream()
-                .map(mapper::toDTO)
-                .collect(Collectors.toList());
+    public CursorPage<UserAddressDTO> findByName(String name, String after, Integer limit) {
+        return findByName(name, after, limit, AddressFields.ALL);
+    }
+
+    /**
+     * Finds addresses by name, returning only the given fields.
+     *
+     * @param name   the name to search for
+     * @param after  the cursor returned by the previous page, or null for the first page
+     * @param limit  the maximum number of addresses to return, or null for the default
+     * @param fields the fields to load
+     * @return the page of matching addresses
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<UserAddressDTO> findByName(String name, String after, Integer limit, AddressFields fields) {
+        int size = resolveLimit(limit);
+        long afterId = PageCursor.decodeId(after);
+        String escaped = EscapeCharacter.DEFAULT.escape(name);
+        char escape = EscapeCharacter.DEFAULT.getEscapeCharacter();
+        List<UserAddressDTO> rows = fields.isAll()
+                ? repository.findByNameContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(
+                        escaped, escape, afterId, PageRequest.ofSize(size + 1))
+                : repository.findFields(fields.with("id"), UserAddressRepository.NAME_AFTER_ID,
+                        Map.of("name", escaped, "escape", escape, "id", afterId),
+                        size + 1, true);
+        return toPage("name", rows, size, fields, last -> PageCursor.encodeId(last.getId()));
     }
 
     /**
      * Finds addresses by city.
      *
-     * @param city the city to search for
-     * @return list of matching addresses
+     * @param city  the city to search for
+     * @param after the cursor returned by the previous page, or null for the first page
+     * @param limit the maximum number of addresses to return, or null for the default
+     * @return the page of matching addresses
      */
     @Transactional(readOnly = true)
-    public List<UserAddressDTO> findByCity(String city) {
-        return repository.findByCityIgnoreCase(city).stream()
-                .map(mapper::toDTO)
-                .collect(Collectors.toList());
+    public CursorPage<UserAddressDTO> findByCity(String city, String after, Integer limit) {
+        return findByCity(city, after, limit, AddressFields.ALL);
+    }
+
+    /**
+     * Finds addresses by city, returning only the given fields.
+     *
+     * @param city   the city to search for
+     * @param after  the cursor returned by the previous page, or null for the first page
+     * @param limit  the maximum number of addresses to return, or null for the default
+     * @param fields the fields to load
+     * @return the page of matching addresses
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<UserAddressDTO> findByCity(String city, String after, Integer limit, AddressFields fields) {
+        int size = resolveLimit(limit);
+        long afterId = PageCursor.decodeId(after);
+        List<UserAddressDTO> rows = fields.isAll()
+                ? repository.findByCityIgnoreCaseAndIdGreaterThanOrderByIdAsc(
+                        city, afterId, PageRequest.ofSize(size + 1))
+                : repository.findFields(fields.with("id"), UserAddressRepository.CITY_AFTER_ID,
+                        Map.of("city", city, "id", afterId), size + 1, true);
+        return toPage("city", rows, size, fields, last -> PageCursor.encodeId(last.getId()));
+    }
+
+    /**
+     * Applies the configured default and upper bound to a client-supplied page size.
+     */
+    private int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return pagination.getDefaultLimit();
+        }
+        if (limit < 1) {
+            throw new BadRequestException("limit must be at least 1");
+        }
+        return Math.min(limit, pagination.getMaxLimit());
+    }
+
+    /**
+     * Loads the given fields of the addresses with the given ids, ordered by id.
+     */
+    private List<UserAddressDTO> findByIds(List<Long> ids, AddressFields fields) {
+        return fields.isAll()
+                ? repository.findByIdInOrderByIdAsc(ids)
+                : repository.findFields(fields.with("id"), UserAddressRepository.BY_IDS,
+                        Map.of("ids", ids), 0, false);
+    }
+
+    /**
+     * Builds a search page from the ids the trigram index matched, fetched with one extra id.
+     * Whether another page exists, and where it starts, are taken from the index rather than
+     * from the rows read back: an id the database no longer has, or a replica does not have
+     * yet, makes this page short instead of ending the search early.
+     */
+    private CursorPage<UserAddressDTO> indexedPage(List<Long> ids, int limit, AddressFields fields) {
+        boolean hasMore = ids.size() > limit;
+        List<Long> pageIds = hasMore ? ids.subList(0, limit) : ids;
+        List<UserAddressDTO> items = pageIds.isEmpty() ? List.of() : findByIds(pageIds, fields);
+        items.forEach(fields::retain);
+        recordResults("search", items.size());
+        return new CursorPage<>(items, hasMore ? PageCursor.encodeId(pageIds.get(limit - 1)) : null);
+    }
+
+    /**
+     * Builds a page from rows fetched with one extra element; the extra row only
+     * signals that another page exists and is not returned. Fields loaded only for the
+     * cursor are cleared afterwards.
+     */
+    private CursorPage<UserAddressDTO> toPage(String query, List<UserAddressDTO> rows, int limit,
+                                              AddressFields fields, Function<UserAddressDTO, String> cursorOf) {
+        boolean hasMore = rows.size() > limit;
+        List<UserAddressDTO> items = hasMore ? new ArrayList<>(rows.subList(0, limit)) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(items.get(limit - 1)) : null;
+        items.forEach(fields::retain);
+        recordResults(query, items.size());
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    private static boolean isBefore(LocalDateTime time, long id, LocalDateTime otherTime, long otherId) {
+        int order = time.compareTo(otherTime);
+        return order < 0 || (order == 0 && id < otherId);
+    }
+
+    private void recordResults(String query, int count) {
+        DistributionSummary.builder(RESULTS_METRIC)
+                .description("Rows returned per list or search call")
+                .tag("query", query)
+                .register(meterRegistry)
+                .record(count);
     }
 }
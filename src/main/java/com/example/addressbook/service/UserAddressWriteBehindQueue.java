@@ -0,0 +1,237 @@
+package com.example.addressbook.service;
+
+import com.example.addressbook.config.WriteBehindProperties;
+import com.example.addressbook.dto.CreateTicket;
+import com.example.addressbook.dto.UserAddressDTO;
+import com.example.addressbook.exception.ServiceUnavailableException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind queue for asynchronous creates.
+ * <p>
+ * Requests only enqueue the address and get a ticket back. A single writer thread takes
+ * whatever has queued up, up to {@code addressbook.write-behind.max-batch-size}, and inserts
+ * it through {@link UserAddressBulkService#createChunk} in one transaction, so a burst of
+ * creates pays for one commit per group rather than one per address. If a group fails, its
+ * addresses are retried one by one so only the offending ones are marked failed.
+ * <p>
+ * The queue is bounded: when it is full a request waits up to {@code offer-timeout} for
+ * space and is then rejected with 503. Queued addresses are written before shutdown
+ * completes. The queue length is published as {@code addressbook.create.queue} and the
+ * group sizes as {@code addressbook.create.batch}.
+ */
+@Slf4j
+@Service
+public class UserAddressWriteBehindQueue {
+
+    public static final String QUEUE_METRIC = "addressbook.create.queue";
+    public static final String BATCH_METRIC = "addressbook.create.batch";
+
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private record Pending(String ticket, UserAddressDTO address) {
+    }
+
+    private final UserAddressBulkService bulkService;
+    private final WriteBehindProperties properties;
+    private final BlockingQueue<Pending> queue;
+    private final Cache<String, CreateTicket> tickets;
+    private final DistributionSummary batchSizes;
+
+    /**
+     * Held for reading while a request checks {@link #running} and enqueues, and for writing
+     * while {@link #stop()} clears it, so nothing is queued after the writer has found the
+     * queue empty and exited.
+     */
+    private final ReadWriteLock submitLock = new ReentrantReadWriteLock();
+    private Thread writer;
+    private volatile boolean running;
+
+    public UserAddressWriteBehindQueue(UserAddressBulkService bulkService, WriteBehindProperties properties,
+                                       MeterRegistry registry) {
+        this.bulkService = bulkService;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.tickets = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxTickets())
+                .weigher(UserAddressWriteBehindQueue::weigh)
+                .expireAfterWrite(properties.getTicketTtl())
+                .build();
+        Gauge.builder(QUEUE_METRIC, queue, Collection::size)
+                .description("Addresses waiting to be written by the write-behind queue")
+                .register(registry);
+        this.batchSizes = DistributionSummary.builder(BATCH_METRIC)
+                .description("Addresses inserted per write-behind transaction")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform()
+                .name("address-write-behind")
+                .daemon(true)
+                .start(this::drain);
+    }
+
+    /**
+     * Stops accepting addresses and waits until every queued one has been written, including
+     * those of requests that were already enqueueing.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        submitLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            submitLock.writeLock().unlock();
+        }
+        if (writer != null) {
+            writer.join();
+        }
+    }
+
+    /**
+     * Queues an address for creation.
+     *
+     * @param address the address to create; any supplied id is ignored
+     * @return the pending ticket to look the outcome up with
+     * @throws ServiceUnavailableException if asynchronous creates are disabled or the queue
+     *                                     stayed full for the offer timeout
+     */
+    public CreateTicket submit(UserAddressDTO address) {
+        Lock lock = submitLock.readLock();
+        lock.lock();
+        try {
+            return enqueue(address);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private CreateTicket enqueue(UserAddressDTO address) {
+        if (!running) {
+            throw new ServiceUnavailableException(properties.isEnabled()
+                    ? "Create queue is shutting down"
+                    : "Asynchronous create is disabled");
+        }
+        CreateTicket ticket = CreateTicket.pending(UUID.randomUUID().toString());
+        tickets.put(ticket.getTicket(), ticket);
+        boolean queued;
+        try {
+            queued = queue.offer(new Pending(ticket.getTicket(), address),
+                    properties.getOfferTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            tickets.invalidate(ticket.getTicket());
+            throw new ServiceUnavailableException("Create queue is full, please retry");
+        }
+        return ticket;
+    }
+
+    /**
+     * Looks up a ticket, or empty if it is unknown or has expired.
+     */
+    public Optional<CreateTicket> getTicket(String ticket) {
+        return Optional.ofNullable(tickets.getIfPresent(ticket));
+    }
+
+    /**
+     * Number of addresses waiting to be written.
+     */
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * Writer loop: waits for the first address, takes whatever else has queued up behind it
+     * and writes the group. Runs until stopped and the queue is empty.
+     */
+    private void drain() {
+        int maxBatchSize = properties.getMaxBatchSize();
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            Pending first;
+            try {
+                first = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                // Only stop() ends the loop, after the queue has been emptied
+                continue;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, maxBatchSize - 1);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        batchSizes.record(batch.size());
+        try {
+            List<Long> ids = bulkService.createChunk(batch.stream().map(Pending::address).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                complete(CreateTicket.created(batch.get(i).ticket(), ids.get(i)));
+            }
+        } catch (RuntimeException ex) {
+            if (batch.size() == 1) {
+                fail(batch.get(0), ex);
+                return;
+            }
+            log.warn("Write-behind group of {} addresses failed, retrying one by one", batch.size(), ex);
+            for (Pending pending : batch) {
+                try {
+                    Long id = bulkService.createChunk(List.of(pending.address())).get(0);
+                    complete(CreateTicket.created(pending.ticket(), id));
+                } catch (RuntimeException single) {
+                    fail(pending, single);
+                }
+            }
+        }
+    }
+
+    private void fail(Pending pending, RuntimeException ex) {
+        log.warn("Queued address {} could not be created", pending.ticket(), ex);
+        complete(CreateTicket.failed(pending.ticket(), ex.getMessage()));
+    }
+
+    /**
+     * Pending tickets weigh nothing, so they are never evicted to make room; there are at most
+     * {@code queueCapacity} of them plus one batch, and finishing one re-weighs it.
+     */
+    private static int weigh(String ticket, CreateTicket state) {
+        return state.getStatus() == CreateTicket.Status.PENDING ? 0 : 1;
+    }
+
+    private void complete(CreateTicket ticket) {
+        tickets.put(ticket.getTicket(), ticket);
+    }
+}
@@ -0,0 +1,29 @@
+-- Pooled id generator: one call reserves 50 ids (matches allocationSize on the entity)
+CREATE SEQUENCE user_addresses_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE user_addresses (
+    id          BIGINT       NOT NULL,
+    name        VARCHAR(100) NOT NULL,
+    phone       VARCHAR(20),
+    email       VARCHAR(100),
+    street      VARCHAR(255),
+    city        VARCHAR(100),
+    state       VARCHAR(100),
+    zip_code    VARCHAR(20),
+    country     VARCHAR(100),
+    -- H2 has no expression indexes, so index generated lower-case shadow columns instead
+    name_lower  VARCHAR(100) GENERATED ALWAYS AS (LOWER(name)),
+    city_lower  VARCHAR(100) GENERATED ALWAYS AS (LOWER(city)),
+    email_lower VARCHAR(100) GENERATED ALWAYS AS (LOWER(email)),
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6),
+    CONSTRAINT pk_user_addresses PRIMARY KEY (id)
+);
+
+-- Equality lookups by city and email; name prefix lookups (name_lower LIKE 'abc%')
+CREATE INDEX idx_user_addresses_name_lower ON user_addresses (name_lower);
+CREATE INDEX idx_user_addresses_city_lower ON user_addresses (city_lower);
+CREATE INDEX idx_user_addresses_email_lower ON user_addresses (email_lower);
+
+-- Keyset pagination by last modification
+CREATE INDEX idx_user_addresses_updated_at ON user_addresses (updated_at, id);
@@ -0,0 +1,5 @@
+-- City pages are keyset-paginated by id within one city. With (city_lower, id) the page is a
+-- range scan that stops after LIMIT rows, instead of reading every address in the city and
+-- sorting; the composite index still serves plain city lookups.
+DROP INDEX idx_user_addresses_city_lower;
+CREATE INDEX idx_user_addresses_city_lower_id ON user_addresses (city_lower, id);
@@ -0,0 +1,11 @@
+-- One row per deleted address, so GET /api/addresses/changes can report deletes. Ids are never
+-- reused, so the id alone identifies the address. Rows older than
+-- addressbook.changes.tombstone-retention are purged.
+CREATE TABLE user_address_tombstones (
+    id         BIGINT       NOT NULL,
+    deleted_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_user_address_tombstones PRIMARY KEY (id)
+);
+
+-- Keyset reads of deletes since a (deleted_at, id) position, and purging by age
+CREATE INDEX idx_user_address_tombstones_deleted_at ON user_address_tombstones (deleted_at, id);
@@ -0,0 +1,4 @@
+-- Name search is a substring match (name_lower LIKE '%abc%'), which cannot seek a B-tree index,
+-- so idx_user_addresses_name_lower was maintained on every write and never read. name_lower
+-- itself stays: matching against it avoids lower-casing every name at query time.
+DROP INDEX idx_user_addresses_name_lower;
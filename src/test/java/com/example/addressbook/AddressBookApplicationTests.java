@@ -3,7 +3,7 @@ package com.example.addressbook;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "addressbook.search.fulltext.directory=target/fulltext-index-application")
 class AddressBookApplicationTests {
 
     @Test
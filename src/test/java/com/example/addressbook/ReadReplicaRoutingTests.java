@@ -0,0 +1,156 @@
+package com.example.addressbook;
+
+import com.example.addressbook.datasource.ReadYourWritesFilter;
+import com.example.addressbook.dto.UserAddressDTO;
+import com.example.addressbook.service.UserAddressService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks read-only transactions are spread over read replicas, with two extra in-memory H2
+ * databases standing in for them. Each replica holds one row the primary does not, which
+ * shows where a read was served from.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "addressbook.search.fulltext.directory=target/fulltext-index-read-replicas",
+        "addressbook.read-replicas.enabled=true",
+        "addressbook.read-replicas.replicas[0].url=" + ReadReplicaRoutingTests.REPLICA_1,
+        "addressbook.read-replicas.replicas[1].url=" + ReadReplicaRoutingTests.REPLICA_2
+})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTests {
+
+    static final String REPLICA_1 = "jdbc:h2:mem:routing-replica-1;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_2 = "jdbc:h2:mem:routing-replica-2;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private UserAddressService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    static void createReplicas() {
+        createReplica(REPLICA_1, 1_000_001L, "Replica One");
+        createReplica(REPLICA_2, 1_000_002L, "Replica Two");
+    }
+
+    @Test
+    void spreadsReadOnlyTransactionsOverReplicas() {
+        Set<String> first = names(service.getAll(null, 1000).getItems());
+        Set<String> second = names(service.getAll(null, 1000).getItems());
+
+        assertThat(List.of(first, second)).containsExactlyInAnyOrder(Set.of("Replica One"), Set.of("Replica Two"));
+    }
+
+    @Test
+    void writesToThePrimary() {
+        UserAddressDTO created = service.create(UserAddressDTO.builder().name("Primary Only").build());
+
+        assertThat(jdbcTemplate.queryForObject("SELECT name FROM user_addresses WHERE id = ?",
+                String.class, created.getId())).isEqualTo("Primary Only");
+        assertThat(names(service.getAll(null, 1000).getItems())).doesNotContain("Primary Only");
+    }
+
+    @Test
+    void pinsClientsThatWroteToThePrimary() throws Exception {
+        Cookie pin = mockMvc.perform(post("/api/addresses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(UserAddressDTO.builder().name("Own Write").build())))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(ReadYourWritesFilter.COOKIE))
+                .andReturn().getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+
+        mockMvc.perform(get("/api/addresses").param("limit", "1000").cookie(pin))
+                .andExpect(jsonPath("$.items[*].name", hasItem("Own Write")));
+        mockMvc.perform(get("/api/addresses").param("limit", "1000"))
+                .andExpect(jsonPath("$.items[*].name", not(hasItem("Own Write"))));
+    }
+
+    @Test
+    void keepsLaggingReplicasOutOfTheSharedCaches() throws Exception {
+        long id = 2_000_001L;
+        List<JdbcTemplate> databases = List.of(jdbcTemplate, replica(REPLICA_1), replica(REPLICA_2));
+        databases.forEach(database -> insert(database, id, "Before", "Lagville"));
+        try {
+            readAfterLaggingWrite(id);
+        } finally {
+            databases.forEach(database -> database.update("DELETE FROM user_addresses WHERE id = ?", id));
+        }
+    }
+
+    /**
+     * Renames the address as one client, reads it as another while the replicas still have the old
+     * name, then reads it again as the writer.
+     */
+    private void readAfterLaggingWrite(long id) throws Exception {
+        Cookie pin = mockMvc.perform(patch("/api/addresses/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"After\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+
+        // Another client, while the replicas have not caught up with the write
+        mockMvc.perform(get("/api/addresses/search/city").param("city", "Lagville"))
+                .andExpect(jsonPath("$.items[*].name", contains("Before")));
+        mockMvc.perform(get("/api/addresses/{id}", id))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/addresses/search/city").param("city", "Lagville").cookie(pin))
+                .andExpect(jsonPath("$.items[*].name", contains("After")));
+        mockMvc.perform(get("/api/addresses/{id}", id).cookie(pin))
+                .andExpect(jsonPath("$.name").value("After"));
+        mockMvc.perform(get("/api/addresses/{id}", id))
+                .andExpect(jsonPath("$.name").value("After"));
+    }
+
+    private static void createReplica(String url, long id, String name) {
+        Flyway.configure().dataSource(url, "sa", "").load().migrate();
+        insert(replica(url), id, name, null);
+    }
+
+    private static JdbcTemplate replica(String url) {
+        return new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+    }
+
+    private static void insert(JdbcTemplate database, long id, String name, String city) {
+        database.update("INSERT INTO user_addresses (id, name, city, created_at) VALUES (?, ?, ?, CURRENT_TIMESTAMP)",
+                id, name, city);
+    }
+
+    private static Set<String> names(List<UserAddressDTO> addresses) {
+        return addresses.stream().map(UserAddressDTO::getName).collect(Collectors.toSet());
+    }
+}
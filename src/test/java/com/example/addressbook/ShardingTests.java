@@ -0,0 +1,173 @@
+package com.example.addressbook;
+
+import com.example.addressbook.datasource.Shards;
+import com.example.addressbook.dto.ChangeSet;
+import com.example.addressbook.dto.CursorPage;
+import com.example.addressbook.dto.UserAddressDTO;
+import com.example.addressbook.service.UserAddressBulkService;
+import com.example.addressbook.service.UserAddressService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks addresses are spread over three in-memory H2 databases and read back as one table.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sharding-0;DB_CLOSE_DELAY=-1",
+        "addressbook.search.fulltext.directory=target/fulltext-index-sharding",
+        "addressbook.changes.settle-time=0s",
+        "addressbook.sharding.enabled=true",
+        "addressbook.sharding.shards[0].url=jdbc:h2:mem:sharding-1;DB_CLOSE_DELAY=-1",
+        "addressbook.sharding.shards[1].url=jdbc:h2:mem:sharding-2;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+class ShardingTests {
+
+    private static final List<String> COUNTRIES = List.of("USA", "Germany", "France", "Japan", "Brazil", "India");
+
+    @Autowired
+    private UserAddressService service;
+
+    @Autowired
+    private UserAddressBulkService bulkService;
+
+    @Autowired
+    private Shards shards;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void writesEachAddressToTheShardOfItsCountry() {
+        assertThat(COUNTRIES.stream().map(shards::shardOf).distinct()).hasSize(3);
+
+        for (String country : COUNTRIES) {
+            UserAddressDTO created = service.create(address("Placed", "Placeville", country));
+
+            int shard = shards.shardOf(country);
+            assertThat(shards.shardOf(created.getId())).isEqualTo(shard);
+            for (int other = 0; other < shards.count(); other++) {
+                assertThat(rowsWithId(other, created.getId())).isEqualTo(other == shard ? 1 : 0);
+            }
+            assertThat(service.getById(created.getId()).getCountry()).isEqualTo(country);
+        }
+    }
+
+    @Test
+    void pagesThroughEveryShardInIdOrder() {
+        List<Long> created = bulkService.createAll(COUNTRIES.stream()
+                .map(country -> address("Paged", "Pageton", country))
+                .toList());
+
+        List<Long> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<UserAddressDTO> page = service.findByCity("pageton", cursor, 2);
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(2);
+            page.getItems().forEach(address -> paged.add(address.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(paged).isSorted().containsExactlyInAnyOrderElementsOf(created);
+        assertThat(service.search("Pageton", null, 100).getItems()).hasSize(COUNTRIES.size());
+        List<Long> exported = new ArrayList<>();
+        service.exportAll(address -> exported.add(address.getId()));
+        assertThat(exported).isSorted().containsAll(created);
+        assertThat(service.getCollectionVersion().getCount()).isEqualTo(exported.size());
+    }
+
+    @Test
+    void keepsBulkIdsInInputOrderAndDeletesOnEveryShard() {
+        List<UserAddressDTO> addresses = IntStream.range(0, 12)
+                .mapToObj(i -> address("Bulk " + i, "Bulkburg", COUNTRIES.get(i % COUNTRIES.size())))
+                .toList();
+
+        List<Long> ids = bulkService.createAll(addresses);
+
+        for (int i = 0; i < ids.size(); i++) {
+            assertThat(service.getById(ids.get(i)).getName()).isEqualTo("Bulk " + i);
+        }
+        assertThat(bulkService.deleteAllById(ids.subList(0, 6))).isEqualTo(6);
+        assertThat(bulkService.deleteAllByLocation("Bulkburg", null)).isEqualTo(6);
+        assertThat(service.findByCity("Bulkburg", null, 100).getItems()).isEmpty();
+    }
+
+    @Test
+    void updatesInPlaceWhenTheCountryChanges() {
+        UserAddressDTO created = service.create(address("Mover", "Moveton", "USA"));
+        int shard = shards.shardOf(created.getId());
+        String elsewhere = COUNTRIES.stream().filter(country -> shards.shardOf(country) != shard).findFirst()
+                .orElseThrow();
+
+        service.update(created.getId(), address("Mover", "Moveton", elsewhere));
+
+        assertThat(rowsWithId(shard, created.getId())).isEqualTo(1);
+        assertThat(service.getById(created.getId()).getCountry()).isEqualTo(elsewhere);
+        service.delete(created.getId());
+        assertThat(rowsWithId(shard, created.getId())).isZero();
+    }
+
+    @Test
+    void servesRequestsFromTheShardOfTheirAddress() throws Exception {
+        String body = mockMvc.perform(post("/api/addresses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(address("Requested", "Requestville", "USA"))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readValue(body, UserAddressDTO.class).getId();
+
+        assertThat(rowsWithId(shards.shardOf("USA"), id)).isEqualTo(1);
+        mockMvc.perform(get("/api/addresses/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Requested"));
+    }
+
+    @Test
+    void mergesChangesAndTombstonesFromEveryShard() {
+        ChangeSet changes = service.getChanges(null, 1000);
+        while (changes.isHasMore()) {
+            changes = service.getChanges(changes.getNextToken(), 1000);
+        }
+        List<Long> ids = COUNTRIES.stream().map(country -> service.create(address("Synced", "Synctown", country)))
+                .map(UserAddressDTO::getId)
+                .toList();
+        service.delete(ids.get(1));
+
+        ChangeSet since = service.getChanges(changes.getNextToken(), 1000);
+
+        List<Long> updated = new ArrayList<>(ids);
+        updated.remove(1);
+        assertThat(since.getUpdated()).extracting(UserAddressDTO::getId).containsExactlyElementsOf(updated);
+        assertThat(since.getDeleted()).containsExactly(ids.get(1));
+        assertThat(new JdbcTemplate(shards.get(shards.shardOf(ids.get(1)))).queryForObject(
+                "SELECT COUNT(*) FROM user_address_tombstones WHERE id = ?", Integer.class, ids.get(1))).isOne();
+    }
+
+    private int rowsWithId(int shard, Long id) {
+        return new JdbcTemplate(shards.get(shard)).queryForObject(
+                "SELECT COUNT(*) FROM user_addresses WHERE id = ?", Integer.class, id);
+    }
+
+    private static UserAddressDTO address(String name, String city, String country) {
+        return UserAddressDTO.builder().name(name).city(city).country(country).build();
+    }
+}
@@ -1,18 +1,38 @@
 package com.example.addressbook;
 
+import com.example.addressbook.dto.BulkCreateRequest;
 import com.example.addressbook.dto.UserAddressDTO;
 import com.example.addressbook.entity.UserAddress;
+import com.example.addressbook.metrics.HibernateStatisticsJmxExtension;
 import com.example.addressbook.repository.UserAddressRepository;
+import com.example.addressbook.search.FullTextIndex;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.HttpRequestMethodNotSupportedException;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -21,8 +41,13 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Integration tests for the User Address API.
  * Tests the entire flow from controller to database.
  */
-@SpringBootTest
+@SpringBootTest(properties = {
+        "addressbook.changes.settle-time=0s",
+        "addressbook.search.fulltext.directory=target/fulltext-index-integration",
+        "spring.jmx.enabled=true"
+})
 @AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class UserAddressIntegrationIT {
 
@@ -35,6 +60,15 @@ class UserAddressIntegrationIT {
     @Autowired
     private UserAddressRepository repository;
 
+    @Autowired
+    private FullTextIndex fullTextIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private HibernateStatisticsJmxExtension hibernateStatisticsReset;
+
     private static Long createdAddressId;
 
     @BeforeEach
@@ -92,7 +126,27 @@ class UserAddressIntegrationIT {
 
         mockMvc.perform(get("/api/addresses"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(2)));
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+
+        // Walk the same rows one page at a time
+        MvcResult first = mockMvc.perform(get("/api/addresses")
+                .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].name", is("User 1")))
+                .andExpect(jsonPath("$.nextCursor", notNullValue()))
+                .andReturn();
+        String cursor = objectMapper.readTree(first.getResponse().getContentAsString())
+                .get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/addresses")
+                .param("limit", "1")
+                .param("after", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].name", is("User 2")))
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
     }
 
     @Test
@@ -137,6 +191,19 @@ class UserAddressIntegrationIT {
         // Verify in database
         UserAddress updated = repository.findById(saved.getId()).orElseThrow();
         assertThat(updated.getName()).isEqualTo("Updated Name");
+
+        // A cached read must not outlive the update
+        mockMvc.perform(get("/api/addresses/" + saved.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Updated Name")));
+        updateDTO.setName("Updated Again");
+        mockMvc.perform(put("/api/addresses/" + saved.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updateDTO)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/addresses/" + saved.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Updated Again")));
     }
 
     @Test
@@ -148,11 +215,23 @@ class UserAddressIntegrationIT {
                 .email("delete@test.com")
                 .build());
 
+        mockMvc.perform(get("/api/addresses/" + saved.getId()))
+                .andExpect(status().isOk());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
         mockMvc.perform(delete("/api/addresses/" + saved.getId()))
                 .andExpect(status().isNoContent());
 
-        // Verify deleted from database
+        // The tombstone INSERT ... SELECT and the DELETE, without loading the row
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        // Verify deleted from database, and no longer served from the JSON cache
         assertThat(repository.findById(saved.getId())).isEmpty();
+        mockMvc.perform(get("/api/addresses/" + saved.getId()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/addresses/" + saved.getId()))
+                .andExpect(status().isNotFound());
     }
 
     @Test
@@ -174,14 +253,14 @@ class UserAddressIntegrationIT {
         mockMvc.perform(get("/api/addresses/search")
                 .param("q", "John"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].name", is("John Smith")));
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].name", is("John Smith")));
 
         // Search by city
         mockMvc.perform(get("/api/addresses/search")
                 .param("q", "Chicago"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)));
+                .andExpect(jsonPath("$.items", hasSize(1)));
     }
 
     @Test
@@ -196,8 +275,8 @@ class UserAddressIntegrationIT {
         mockMvc.perform(get("/api/addresses/search/name")
                 .param("name", "Alice"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].name", containsString("Alice")));
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].name", containsString("Alice")));
     }
 
     @Test
@@ -212,7 +291,7 @@ class UserAddressIntegrationIT {
         mockMvc.perform(get("/api/addresses/search/city")
                 .param("city", "Seattle"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(1)));
+                .andExpect(jsonPath("$.items", hasSize(1)));
     }
 
     @Test
@@ -239,4 +318,419 @@ class UserAddressIntegrationIT {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.errors", notNullValue()));
     }
+
+    @Test
+    @Order(11)
+    @DisplayName("Integration: Stream all addresses as NDJSON")
+    void shouldStreamAllAddresses() throws Exception {
+        repository.save(UserAddress.builder()
+                .name("Stream User 1")
+                .build());
+        repository.save(UserAddress.builder()
+                .name("Stream User 2")
+                .build());
+
+        MvcResult result = mockMvc.perform(get("/api/addresses/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body.lines()).hasSize(2);
+        assertThat(body).contains("Stream User 1", "Stream User 2");
+    }
+
+    @Test
+    @Order(12)
+    @DisplayName("Integration: Create addresses in bulk")
+    void shouldCreateAddressesInBulk() throws Exception {
+        List<UserAddressDTO> addresses = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            addresses.add(UserAddressDTO.builder()
+                    .name("Bulk User " + i)
+                    .email("bulk" + i + "@test.com")
+                    .city("Portland")
+                    .build());
+        }
+
+        mockMvc.perform(post("/api/addresses/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BulkCreateRequest(addresses))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created", is(1200)))
+                .andExpect(jsonPath("$.ids", hasSize(1200)));
+
+        assertThat(repository.count()).isEqualTo(1200);
+    }
+
+    @Test
+    @Order(13)
+    @DisplayName("Integration: Full-text search ranks name matches first")
+    void shouldRankFullTextResults() throws Exception {
+        repository.save(UserAddress.builder()
+                .name("Alice Brown")
+                .street("12 Parker Street")
+                .build());
+        repository.save(UserAddress.builder()
+                .name("Peter Parker")
+                .street("1 Main Street")
+                .build());
+        fullTextIndex.refresh();
+
+        mockMvc.perform(get("/api/addresses/search")
+                .param("q", "parker")
+                .param("mode", "fulltext"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalHits", is(2)))
+                .andExpect(jsonPath("$.hits", hasSize(2)))
+                .andExpect(jsonPath("$.hits[0].address.name", is("Peter Parker")))
+                .andExpect(jsonPath("$.hits[1].address.name", is("Alice Brown")));
+    }
+
+    @Test
+    @Order(14)
+    @DisplayName("Integration: Repeated city lookups are served from the query and entity caches")
+    void shouldServeRepeatedCityLookupsFromCache() throws Exception {
+        UserAddress saved = repository.save(UserAddress.builder()
+                .name("Cache User")
+                .city("Lisbon")
+                .build());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/addresses/search/city")
+                    .param("city", "Lisbon"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items", hasSize(1)));
+        }
+
+        CacheRegionStatistics queries =
+                statistics.getQueryRegionStatistics(UserAddressRepository.QUERY_CACHE_REGION);
+        assertThat(queries.getMissCount()).isEqualTo(1);
+        assertThat(queries.getHitCount()).isEqualTo(2);
+
+        assertThat(repository.findById(saved.getId())).isPresent();
+        assertThat(statistics.getDomainDataRegionStatistics(UserAddress.CACHE_REGION).getHitCount())
+                .isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    @Order(15)
+    @DisplayName("Integration: Conditional GET returns 304 until the address changes")
+    void shouldRevalidateWithETag() throws Exception {
+        UserAddress saved = repository.save(UserAddress.builder()
+                .name("Polled User")
+                .city("Oslo")
+                .build());
+        String url = "/api/addresses/" + saved.getId();
+
+        String etag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String listEtag = mockMvc.perform(get("/api/addresses"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/addresses").header(HttpHeaders.IF_NONE_MATCH, listEtag))
+                .andExpect(status().isNotModified());
+
+        UserAddressDTO update = UserAddressDTO.builder()
+                .name("Polled User")
+                .city("Bergen")
+                .build();
+        mockMvc.perform(put(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$.city", is("Bergen")));
+        mockMvc.perform(get("/api/addresses").header(HttpHeaders.IF_NONE_MATCH, listEtag))
+                .andExpect(status().isOk());
+
+        String checkedAt = mockMvc.perform(get(url))
+                .andReturn().getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+        mockMvc.perform(delete(url)).andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/addresses").param("limit", "1000")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, checkedAt))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andExpect(jsonPath("$.items[*].id", not(hasItem(saved.getId().intValue()))));
+    }
+
+    @Test
+    @Order(16)
+    @DisplayName("Integration: PATCH changes only supplied fields and skips no-op updates")
+    void shouldPatchOnlyChangedFields() throws Exception {
+        UserAddress saved = repository.save(UserAddress.builder()
+                .name("Patch User")
+                .email("patch@example.com")
+                .city("Madrid")
+                .build());
+        String url = "/api/addresses/" + saved.getId();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(patch(url)
+                .contentType("application/merge-patch+json")
+                .content("{\"city\": \"Madrid\", \"name\": \"Patch User\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updatedAt", is(objectMapper.convertValue(
+                        saved.getUpdatedAt(), String.class))));
+        // One UPDATE matching no row and the read-back, without loading the entity
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        statistics.clear();
+
+        mockMvc.perform(patch(url)
+                .contentType("application/merge-patch+json")
+                .content("{\"city\": \"Valencia\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.city", is("Valencia")))
+                .andExpect(jsonPath("$.email", is("patch@example.com")))
+                .andExpect(jsonPath("$.updatedAt", not(objectMapper.convertValue(
+                        saved.getUpdatedAt(), String.class))));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(repository.findById(saved.getId()).orElseThrow().getCity()).isEqualTo("Valencia");
+        mockMvc.perform(get("/api/addresses/search").param("q", "valencia"))
+                .andExpect(jsonPath("$.items[*].id", hasItem(saved.getId().intValue())));
+
+        mockMvc.perform(patch(url)
+                .contentType("application/merge-patch+json")
+                .content("{\"email\": \"not-an-email\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.email").exists());
+    }
+
+    @Test
+    @Order(17)
+    @DisplayName("Integration: Bulk delete by location and by id")
+    void shouldBulkDelete() throws Exception {
+        List<UserAddressDTO> addresses = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            addresses.add(UserAddressDTO.builder().name("Cleanup " + i).city("Atlantis").country("Nowhere").build());
+        }
+        MvcResult created = mockMvc.perform(post("/api/addresses/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BulkCreateRequest(addresses))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        List<Long> ids = new ArrayList<>();
+        objectMapper.readTree(created.getResponse().getContentAsString()).get("ids")
+                .forEach(id -> ids.add(id.asLong()));
+
+        mockMvc.perform(post("/api/addresses/bulk/delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": [" + ids.get(0) + ", " + ids.get(1) + ", 999999]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted", is(2)));
+
+        mockMvc.perform(post("/api/addresses/bulk/delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"city\": \"atlantis\", \"country\": \"NOWHERE\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted", is(3)));
+
+        for (Long id : ids) {
+            assertThat(repository.existsById(id)).isFalse();
+            mockMvc.perform(get("/api/addresses/" + id))
+                    .andExpect(status().isNotFound());
+        }
+        mockMvc.perform(get("/api/addresses/search").param("q", "Atlantis"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(0)));
+    }
+
+    @Test
+    @Order(18)
+    @DisplayName("Integration: Per-layer metrics are exposed for Prometheus")
+    void shouldExposePerLayerMetrics() throws Exception {
+        UserAddressDTO dto = UserAddressDTO.builder().name("Metrics Test").city("Oslo").build();
+        mockMvc.perform(post("/api/addresses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/addresses/search/city").param("city", "Oslo"))
+                .andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("addressbook_service_seconds_bucket{class=\"com.example.addressbook.service.UserAddressService\"")
+                .doesNotContain("addressbook_mapper_seconds")
+                .contains("spring_data_repository_invocations_seconds_bucket")
+                .contains("addressbook_serialization_seconds_bucket")
+                .contains("addressbook_query_results_bucket")
+                .contains("http_server_response_size_bytes_bucket")
+                .containsPattern("http_server_response_size_bytes_count\\{.*uri=\"/api/addresses/search/city\".*}");
+    }
+
+    @Test
+    @Order(19)
+    @DisplayName("Integration: Hibernate statistics endpoint reports per-query stats and resets over JMX only")
+    void shouldExposeHibernateStatistics() throws Exception {
+        hibernateStatisticsReset.reset();
+        UserAddress saved = repository.save(UserAddress.builder().name("Stats User").city("Lisbon").build());
+        mockMvc.perform(get("/api/addresses/search/city").param("city", "Lisbon"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/addresses/" + saved.getId()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/hibernate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entities.inserts", is(1)))
+                .andExpect(jsonPath("$.queries.executions", greaterThanOrEqualTo(1)))
+                .andExpect(jsonPath("$.queryStatistics[*].query", hasItem(containsString("u.cityLower"))))
+                .andExpect(jsonPath("$.queryStatistics[0].executions", greaterThanOrEqualTo(1)))
+                .andExpect(jsonPath("$.secondLevelCache.regions").isArray())
+                .andExpect(jsonPath("$.slowQueries").isArray());
+
+        mockMvc.perform(delete("/actuator/hibernate"))
+                .andExpect(result -> assertThat(result.getResolvedException())
+                        .isInstanceOf(HttpRequestMethodNotSupportedException.class));
+        mockMvc.perform(get("/actuator/hibernate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entities.inserts", is(1)));
+
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName endpoint : mBeanServer.queryNames(
+                new ObjectName("org.springframework.boot:type=Endpoint,name=Hibernate,*"), null)) {
+            mBeanServer.invoke(endpoint, "reset", new Object[0], new String[0]);
+        }
+        mockMvc.perform(get("/actuator/hibernate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entities.inserts", is(0)))
+                .andExpect(jsonPath("$.queryStatistics", hasSize(0)));
+    }
+
+    @Test
+    @Order(20)
+    @DisplayName("Integration: fields parameter selects and returns only the named columns")
+    void shouldReturnSparseFieldsets() throws Exception {
+        repository.save(UserAddress.builder().name("Sparse User").email("sparse@example.com").city("Porto").build());
+        hibernateStatisticsReset.reset();
+
+        mockMvc.perform(get("/api/addresses/search/city")
+                .param("city", "Porto")
+                .param("fields", "name,email"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name", is("Sparse User")))
+                .andExpect(jsonPath("$.items[0].email", is("sparse@example.com")))
+                .andExpect(jsonPath("$.items[0].id").doesNotExist())
+                .andExpect(jsonPath("$.items[0].city").doesNotExist());
+
+        mockMvc.perform(get("/actuator/hibernate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.queryStatistics[*].query",
+                        hasItem(startsWith("SELECT u.id, u.name, u.email FROM UserAddress u WHERE"))));
+    }
+
+    @Test
+    @Order(21)
+    @DisplayName("Integration: asynchronous create resolves its ticket to the new address")
+    void shouldCreateAsynchronously() throws Exception {
+        UserAddressDTO dto = UserAddressDTO.builder().name("Queued User").city("Oslo").build();
+        String ticket = objectMapper.readTree(mockMvc.perform(post("/api/addresses")
+                .param("async", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists(HttpHeaders.LOCATION))
+                .andReturn().getResponse().getContentAsString()).get("ticket").asText();
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                mockMvc.perform(get("/api/addresses/tickets/" + ticket))
+                        .andExpect(jsonPath("$.status", is("CREATED"))));
+        long id = objectMapper.readTree(mockMvc.perform(get("/api/addresses/tickets/" + ticket))
+                .andReturn().getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(get("/api/addresses/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Queued User")));
+    }
+
+    @Test
+    @Order(22)
+    @DisplayName("Integration: changes since a token report updates and deletes once")
+    void shouldSyncChangesSinceToken() throws Exception {
+        String token = null;
+        boolean hasMore = true;
+        while (hasMore) {
+            MvcResult page = mockMvc.perform(get("/api/addresses/changes")
+                    .param("limit", "1000")
+                    .param("since", token == null ? "" : token))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            token = objectMapper.readTree(page.getResponse().getContentAsString()).get("nextToken").asText();
+            hasMore = objectMapper.readTree(page.getResponse().getContentAsString()).get("hasMore").asBoolean();
+        }
+
+        UserAddress kept = repository.save(UserAddress.builder().name("Synced User").city("Bergen").build());
+        long removed = objectMapper.readTree(mockMvc.perform(post("/api/addresses")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(UserAddressDTO.builder().name("Gone User").build())))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString()).get("id").asLong();
+        mockMvc.perform(patch("/api/addresses/" + kept.getId())
+                .contentType("application/merge-patch+json")
+                .content("{\"city\": \"Tromso\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/addresses/" + removed))
+                .andExpect(status().isNoContent());
+
+        String next = objectMapper.readTree(mockMvc.perform(get("/api/addresses/changes").param("since", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated[*].id", contains(kept.getId().intValue())))
+                .andExpect(jsonPath("$.updated[0].city", is("Tromso")))
+                .andExpect(jsonPath("$.deleted", contains((int) removed)))
+                .andExpect(jsonPath("$.hasMore", is(false)))
+                .andReturn().getResponse().getContentAsString()).get("nextToken").asText();
+
+        mockMvc.perform(get("/api/addresses/changes").param("since", next))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated", hasSize(0)))
+                .andExpect(jsonPath("$.deleted", hasSize(0)));
+        mockMvc.perform(get("/api/addresses/changes").param("since", "not-a-token"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Order(23)
+    @DisplayName("Integration: CSV import stores valid rows and resumes after committed ones")
+    void shouldImportCsv() throws Exception {
+        String csv = "Name,City,zip_code,Email\n"
+                + "Imported One,\"Oslo, Norway\",0150,\n"
+                + "Imported Two,Bergen,5003,not-an-email\n"
+                + "Imported Three,Tromso,9008,three@example.com\n";
+        long before = repository.count();
+
+        mockMvc.perform(multipart("/api/addresses/import")
+                .file(new MockMultipartFile("file", "addresses.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.outcome", is("COMPLETED")))
+                .andExpect(jsonPath("$.imported", is(2)))
+                .andExpect(jsonPath("$.committedRows", is(3)))
+                .andExpect(jsonPath("$.errors[0].row", is(2)))
+                .andExpect(jsonPath("$.errors[0].errors.email").exists());
+        assertThat(repository.count()).isEqualTo(before + 2);
+
+        mockMvc.perform(post("/api/addresses/import")
+                .param("skip", "2")
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)));
+        assertThat(repository.count()).isEqualTo(before + 3);
+    }
 }
@@ -0,0 +1,360 @@
+package com.example.addressbook;
+
+import com.example.addressbook.dto.UserAddressDTO;
+import com.example.addressbook.load.SyntheticAddressGenerator;
+import com.example.addressbook.service.UserAddressBulkService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load test: seeds the database with synthetic addresses, drives the REST API over
+ * HTTP with a mixed read/search/write workload and fails if a latency budget is exceeded.
+ * <p>
+ * Runs only under the {@code load-test} profile ({@code mvn -Pload-test verify}). Sizes and
+ * budgets are system properties, e.g. {@code -Dloadtest.rows=200000 -Dloadtest.budget.search.p99=300}.
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "addressbook.search.fulltext.directory=target/fulltext-index-load-test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UserAddressLoadIT {
+
+    /**
+     * Budget categories, with default p99 / p999 budgets in milliseconds. Override with
+     * {@code loadtest.budget.<category>.p99} and {@code .p999}.
+     * <p>
+     * The defaults are loose enough to pass on a single-core CI runner at the default 20,000 rows
+     * and 4 clients, where closed-loop clients measure queueing rather than service time; they
+     * exist to catch scaling cliffs (a query that starts scanning the table), not to track small
+     * regressions. Raise them along with {@code loadtest.concurrency}.
+     */
+    enum Category {
+        READ(250, 1000),
+        SEARCH(500, 2000),
+        WRITE(500, 2000);
+
+        final long p99Millis;
+        final long p999Millis;
+
+        Category(long p99Millis, long p999Millis) {
+            this.p99Millis = p99Millis;
+            this.p999Millis = p999Millis;
+        }
+
+        String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Operations in the workload, with their share of requests (summing to 100).
+     */
+    enum Operation {
+        GET_BY_ID(35, Category.READ),
+        LIST(10, Category.READ),
+        SEARCH_CITY(15, Category.SEARCH),
+        SEARCH_KEYWORD(10, Category.SEARCH),
+        SEARCH_FULLTEXT(5, Category.SEARCH),
+        CREATE(12, Category.WRITE),
+        UPDATE(5, Category.WRITE),
+        PATCH(5, Category.WRITE),
+        DELETE(3, Category.WRITE);
+
+        final int weight;
+        final Category category;
+
+        Operation(int weight, Category category) {
+            this.weight = weight;
+            this.category = category;
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserAddressBulkService bulkService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Environment env;
+
+    @Value("${loadtest.rows:20000}")
+    private int rows;
+
+    @Value("${loadtest.concurrency:4}")
+    private int concurrency;
+
+    @Value("${loadtest.warmup:10s}")
+    private Duration warmup;
+
+    @Value("${loadtest.duration:30s}")
+    private Duration duration;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private long[] seededIds;
+
+    /**
+     * Addresses created during the run; deletes take from here so reads of seeded ids never 404.
+     */
+    private final Queue<Long> createdIds = new ConcurrentLinkedQueue<>();
+
+    @BeforeAll
+    void seed() {
+        long start = System.nanoTime();
+        List<Long> ids = bulkService.createAll(new SyntheticAddressGenerator(42).generate(rows));
+        seededIds = ids.stream().mapToLong(Long::longValue).toArray();
+        log.info("Seeded {} addresses in {} ms", rows, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @Test
+    void mixedWorkloadStaysWithinLatencyBudgets() throws Exception {
+        long warmupEnd = System.nanoTime() + warmup.toNanos();
+        long end = warmupEnd + duration.toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<Worker>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            Worker worker = new Worker(i, warmupEnd, end);
+            futures.add(workers.submit(worker, worker));
+        }
+        Map<Operation, List<long[]>> samples = new EnumMap<>(Operation.class);
+        long errors = 0;
+        for (Future<Worker> future : futures) {
+            Worker worker = future.get();
+            worker.latencies.forEach((op, values) ->
+                    samples.computeIfAbsent(op, k -> new ArrayList<>()).add(values.toArray()));
+            errors += worker.errors;
+        }
+        workers.shutdown();
+
+        double seconds = duration.toNanos() / 1e9;
+        Map<Category, long[]> byCategory = new EnumMap<>(Category.class);
+        StringBuilder report = new StringBuilder(String.format(
+                "%nLoad test: %d rows, %d workers, %.0fs measured%n%-16s %9s %9s %9s %9s %9s%n",
+                rows, concurrency, seconds, "operation", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms"));
+        long total = 0;
+        for (Operation op : Operation.values()) {
+            long[] latencies = merge(samples.getOrDefault(op, List.of()));
+            byCategory.merge(op.category, latencies, UserAddressLoadIT::concat);
+            total += latencies.length;
+            report.append(row(op.name(), latencies, seconds));
+        }
+        for (Category category : Category.values()) {
+            report.append(row(category.key(), byCategory.getOrDefault(category, new long[0]), seconds));
+        }
+        report.append(String.format("%-16s %9d %9.0f%n", "total", total, total / seconds));
+        log.info(report.toString());
+
+        assertThat(errors).as("failed requests").isZero();
+        List<String> exceeded = new ArrayList<>();
+        for (Category category : Category.values()) {
+            long[] latencies = byCategory.getOrDefault(category, new long[0]);
+            checkBudget(exceeded, category, "p99", category.p99Millis, percentile(latencies, 0.99));
+            checkBudget(exceeded, category, "p999", category.p999Millis, percentile(latencies, 0.999));
+        }
+        assertThat(exceeded).as("latency budgets exceeded").isEmpty();
+    }
+
+    private void checkBudget(List<String> exceeded, Category category, String quantile, long defaultMillis,
+                             long actualNanos) {
+        long budgetMillis = env.getProperty("loadtest.budget." + category.key() + "." + quantile, Long.class,
+                defaultMillis);
+        if (actualNanos > TimeUnit.MILLISECONDS.toNanos(budgetMillis)) {
+            exceeded.add(String.format("%s %s %.1f ms > %d ms", category.key(), quantile, actualNanos / 1e6,
+                    budgetMillis));
+        }
+    }
+
+    /**
+     * One client thread issuing requests back to back. Latencies are only kept after the warmup.
+     */
+    private class Worker implements Runnable {
+
+        private final Random random;
+        private final SyntheticAddressGenerator generator;
+        private final long warmupEnd;
+        private final long end;
+        private final Map<Operation, LongList> latencies = new EnumMap<>(Operation.class);
+        private long errors;
+
+        Worker(int index, long warmupEnd, long end) {
+            this.random = new Random(index);
+            this.generator = new SyntheticAddressGenerator(1000L + index);
+            this.warmupEnd = warmupEnd;
+            this.end = end;
+        }
+
+        @Override
+        public void run() {
+            long now;
+            while ((now = System.nanoTime()) < end) {
+                Operation op = nextOperation();
+                boolean ok;
+                try {
+                    ok = execute(op);
+                } catch (Exception e) {
+                    ok = false;
+                }
+                long finished = System.nanoTime();
+                if (now >= warmupEnd) {
+                    latencies.computeIfAbsent(op, k -> new LongList()).add(finished - now);
+                    if (!ok) {
+                        errors++;
+                    }
+                }
+            }
+        }
+
+        private Operation nextOperation() {
+            int r = random.nextInt(100);
+            for (Operation op : Operation.values()) {
+                r -= op.weight;
+                if (r < 0) {
+                    return op;
+                }
+            }
+            return Operation.GET_BY_ID;
+        }
+
+        private boolean execute(Operation op) throws Exception {
+            return switch (op) {
+                case GET_BY_ID -> send(get("/api/addresses/" + hotId())) == 200;
+                case LIST -> send(get("/api/addresses?limit=50")) == 200;
+                case SEARCH_CITY -> send(get("/api/addresses/search/city?city=" + encode(generator.city()))) == 200;
+                case SEARCH_KEYWORD -> send(get("/api/addresses/search?q=" + encode(generator.lastName()))) == 200;
+                case SEARCH_FULLTEXT -> send(get("/api/addresses/search?mode=fulltext&q="
+                        + encode(generator.lastName() + " " + generator.city()))) == 200;
+                case CREATE -> create();
+                case UPDATE -> send(json("PUT", "/api/addresses/" + hotId(), generator.next(),
+                        "application/json")) == 200;
+                case PATCH -> send(json("PATCH", "/api/addresses/" + hotId(), Map.of("phone", "555-0100"),
+                        "application/merge-patch+json")) == 200;
+                case DELETE -> {
+                    Long id = createdIds.poll();
+                    yield id == null ? create() : send(request("/api/addresses/" + id).DELETE().build()) == 204;
+                }
+            };
+        }
+
+        private boolean create() throws Exception {
+            HttpResponse<byte[]> response = client.send(json("POST", "/api/addresses", generator.next(),
+                    "application/json"), HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 201) {
+                return false;
+            }
+            createdIds.add(objectMapper.readValue(response.body(), UserAddressDTO.class).getId());
+            return true;
+        }
+
+        /**
+         * A seeded id, skewed so that 80% of requests go to 20% of the addresses.
+         */
+        private long hotId() {
+            int hot = Math.max(1, seededIds.length / 5);
+            return random.nextInt(10) < 8
+                    ? seededIds[random.nextInt(hot)]
+                    : seededIds[random.nextInt(seededIds.length)];
+        }
+
+        private int send(HttpRequest request) throws Exception {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+
+        private HttpRequest get(String path) {
+            return request(path).GET().build();
+        }
+
+        private HttpRequest json(String method, String path, Object body, String contentType) throws Exception {
+            return request(path)
+                    .header("Content-Type", contentType)
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        }
+
+        private HttpRequest.Builder request(String path) {
+            return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                    .timeout(Duration.ofSeconds(30));
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String row(String name, long[] latencies, double seconds) {
+        return String.format("%-16s %9d %9.1f %9.2f %9.2f %9.2f%n", name, latencies.length, latencies.length / seconds,
+                percentile(latencies, 0.50) / 1e6, percentile(latencies, 0.99) / 1e6,
+                percentile(latencies, 0.999) / 1e6);
+    }
+
+    /**
+     * Nearest-rank percentile of sorted latencies; 0 if there are none.
+     */
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static long[] merge(List<long[]> parts) {
+        long[] merged = parts.stream().flatMapToLong(Arrays::stream).toArray();
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    private static long[] concat(long[] a, long[] b) {
+        long[] merged = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, merged, a.length, b.length);
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    /**
+     * Growable array of primitive longs, so recording a sample does not box.
+     */
+    private static class LongList {
+
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.addressbook;
+
+import org.apache.catalina.connector.Connector;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the virtual-threads profile moves request handling and async work off platform threads.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "addressbook.search.fulltext.directory=target/fulltext-index-virtual-threads")
+@ActiveProfiles("virtual-threads")
+class VirtualThreadsProfileTests {
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    @Autowired
+    private TaskExecutor applicationTaskExecutor;
+
+    @Test
+    void handlesRequestsOnVirtualThreads() {
+        Connector connector = ((TomcatWebServer) context.getWebServer()).getTomcat().getConnector();
+
+        assertThat(connector.getProtocolHandler().getExecutor()).isInstanceOf(VirtualThreadExecutor.class);
+    }
+
+    @Test
+    void runsAsyncWorkOnVirtualThreads() throws Exception {
+        assertThat(applicationTaskExecutor).isInstanceOf(SimpleAsyncTaskExecutor.class);
+
+        Thread worker = ((SimpleAsyncTaskExecutor) applicationTaskExecutor).submit(Thread::currentThread).get();
+
+        assertThat(worker.isVirtual()).isTrue();
+    }
+}
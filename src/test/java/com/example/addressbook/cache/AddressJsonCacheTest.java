@@ -0,0 +1,122 @@
+package com.example.addressbook.cache;
+
+import com.example.addressbook.config.JsonCacheProperties;
+import com.example.addressbook.datasource.PrimaryPin;
+import com.example.addressbook.dto.UserAddressDTO;
+import com.example.addressbook.event.UserAddressChangedEvent;
+import com.example.addressbook.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for AddressJsonCache.
+ */
+class AddressJsonCacheTest {
+
+    private AddressJsonCache cache;
+    private SimpleMeterRegistry registry;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new AddressJsonCache(new ObjectMapper().registerModule(new JavaTimeModule()),
+                new JsonCacheProperties());
+        registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+    }
+
+    private UserAddressDTO load(Long id) {
+        loads.incrementAndGet();
+        return UserAddressDTO.builder()
+                .id(id)
+                .name("Cached " + id)
+                .updatedAt(LocalDateTime.of(2024, 1, 1, 12, 0))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should encode once and serve the same bytes until invalidated by a change event")
+    void shouldCacheUntilChanged() {
+        AddressJsonCache.Entry first = cache.get(1L, this::load);
+        AddressJsonCache.Entry second = cache.get(1L, this::load);
+
+        assertThat(second).isSameAs(first);
+        assertThat(new String(first.json(), StandardCharsets.UTF_8)).contains("\"name\":\"Cached 1\"");
+        assertThat(first.updatedAt()).isEqualTo(LocalDateTime.of(2024, 1, 1, 12, 0));
+        assertThat(loads).hasValue(1);
+
+        cache.onChange(UserAddressChangedEvent.deleted(1L));
+
+        assertThat(cache.getIfPresent(1L)).isNull();
+        cache.get(1L, this::load);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should load misses pinned to the primary")
+    void shouldLoadFromPrimary() {
+        AtomicBoolean pinned = new AtomicBoolean();
+
+        cache.get(1L, id -> {
+            pinned.set(PrimaryPin.isPinned());
+            return load(id);
+        });
+
+        assertThat(pinned).isTrue();
+        assertThat(PrimaryPin.isPinned()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should bypass the cache on a pinned thread")
+    void shouldBypassWhenPinned() {
+        AddressJsonCache.Entry cached = cache.get(1L, this::load);
+
+        PrimaryPin.pin();
+        try {
+            assertThat(cache.getIfPresent(1L)).isNull();
+            AddressJsonCache.Entry fresh = cache.get(1L, this::load);
+            assertThat(fresh).isNotSameAs(cached);
+            cache.get(2L, this::load);
+        } finally {
+            PrimaryPin.clear();
+        }
+
+        assertThat(loads).hasValue(3);
+        assertThat(cache.getIfPresent(1L)).isSameAs(cached);
+        assertThat(cache.getIfPresent(2L)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should not cache failed loads")
+    void shouldNotCacheFailures() {
+        assertThatThrownBy(() -> cache.get(9L, id -> {
+            throw new ResourceNotFoundException("UserAddress", id);
+        })).isInstanceOf(ResourceNotFoundException.class);
+
+        assertThat(cache.getIfPresent(9L)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should publish hit and miss metrics")
+    void shouldPublishHitAndMissMetrics() {
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+
+        assertThat(registry.get("cache.gets").tag("cache", "addressJson").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(registry.get("cache.gets").tag("cache", "addressJson").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+}
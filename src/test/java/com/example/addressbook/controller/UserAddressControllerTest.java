@@ -1,10 +1,36 @@
 package com.example.addressbook.controller;
 
+import com.example.addressbook.cache.AddressJsonCache;
+import com.example.addressbook.config.ContentNegotiationConfig;
+import com.example.addressbook.config.JsonCacheProperties;
+import com.example.addressbook.dto.AddressFields;
+import com.example.addressbook.dto.ChangeSet;
+import com.example.addressbook.dto.BulkCreateRequest;
+import com.example.addressbook.dto.BulkDeleteRequest;
+import com.example.addressbook.dto.CollectionVersion;
+import com.example.addressbook.dto.CreateTicket;
+import com.example.addressbook.dto.CursorPage;
+import com.example.addressbook.dto.FullTextSearchResult;
+import com.example.addressbook.dto.ImportReport;
+import com.example.addressbook.dto.ScoredAddressDTO;
 import com.example.addressbook.dto.UserAddressDTO;
+import com.example.addressbook.event.AddressChangeFeed;
 import com.example.addressbook.exception.GlobalExceptionHandler;
+import com.example.addressbook.exception.ResourceGoneException;
 import com.example.addressbook.exception.ResourceNotFoundException;
+import com.example.addressbook.exception.ServiceUnavailableException;
+import com.example.addressbook.protobuf.AddressProtobufHttpMessageConverter;
+import com.example.addressbook.service.UserAddressBulkService;
+import com.example.addressbook.service.UserAddressImportService;
 import com.example.addressbook.service.UserAddressService;
+import com.example.addressbook.service.UserAddressWriteBehindQueue;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.google.protobuf.UnknownFieldSet;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -13,13 +39,25 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -31,7 +69,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Unit tests for UserAddressController.
  */
 @WebMvcTest(UserAddressController.class)
-@Import(GlobalExceptionHandler.class)
+@Import({GlobalExceptionHandler.class, AddressJsonCache.class, JsonCacheProperties.class,
+        ContentNegotiationConfig.class})
 class UserAddressControllerTest {
 
     @Autowired
@@ -43,10 +82,26 @@ class UserAddressControllerTest {
     @MockBean
     private UserAddressService service;
 
+    @MockBean
+    private UserAddressBulkService bulkService;
+
+    @MockBean
+    private UserAddressWriteBehindQueue writeBehindQueue;
+
+    @MockBean
+    private AddressChangeFeed changeFeed;
+
+    @MockBean
+    private UserAddressImportService importService;
+
+    @Autowired
+    private AddressJsonCache jsonCache;
+
     private UserAddressDTO testDTO;
 
     @BeforeEach
     void setUp() {
+        jsonCache.invalidateAll();
         testDTO = UserAddressDTO.builder()
                 .id(1L)
                 .name("John Doe")
@@ -60,6 +115,7 @@ class UserAddressControllerTest {
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
+        when(service.getCollectionVersion()).thenReturn(new CollectionVersion(1, testDTO.getUpdatedAt()));
     }
 
     @Nested
@@ -97,6 +153,178 @@ class UserAddressControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("POST /api/addresses/bulk")
+    class BulkCreateEndpointTests {
+
+        @Test
+        @DisplayName("Should create addresses in bulk and return 201 with ids")
+        void shouldCreateInBulk() throws Exception {
+            when(bulkService.createAll(any())).thenReturn(List.of(10L, 11L));
+
+            BulkCreateRequest request = new BulkCreateRequest(List.of(testDTO,
+                    UserAddressDTO.builder().name("Jane Doe").build()));
+
+            mockMvc.perform(post("/api/addresses/bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.created", is(2)))
+                    .andExpect(jsonPath("$.ids", contains(10, 11)));
+        }
+
+        @Test
+        @DisplayName("Should return 400 when any address is invalid")
+        void shouldReturn400WhenAnyAddressInvalid() throws Exception {
+            BulkCreateRequest request = new BulkCreateRequest(List.of(testDTO,
+                    UserAddressDTO.builder().name("").email("invalid-email").build()));
+
+            mockMvc.perform(post("/api/addresses/bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.errors['addresses[1].name']", notNullValue()));
+
+            verifyNoInteractions(bulkService);
+        }
+
+        @Test
+        @DisplayName("Should return 400 for empty request")
+        void shouldReturn400ForEmptyRequest() throws Exception {
+            mockMvc.perform(post("/api/addresses/bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"addresses\": []}"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /api/addresses?async=true")
+    class AsyncCreateEndpointTests {
+
+        @Test
+        @DisplayName("Should queue the address and return 202 with a ticket")
+        void shouldQueueAddress() throws Exception {
+            when(writeBehindQueue.submit(any(UserAddressDTO.class))).thenReturn(CreateTicket.pending("t-1"));
+
+            mockMvc.perform(post("/api/addresses")
+                    .param("async", "true")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(testDTO)))
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().string(HttpHeaders.LOCATION,
+                            org.hamcrest.Matchers.endsWith("/api/addresses/tickets/t-1")))
+                    .andExpect(jsonPath("$.ticket", is("t-1")))
+                    .andExpect(jsonPath("$.status", is("PENDING")));
+
+            verify(service, never()).create(any());
+        }
+
+        @Test
+        @DisplayName("Should return 503 when the queue is full")
+        void shouldReturn503WhenQueueFull() throws Exception {
+            when(writeBehindQueue.submit(any(UserAddressDTO.class)))
+                    .thenThrow(new ServiceUnavailableException("Create queue is full, please retry"));
+
+            mockMvc.perform(post("/api/addresses")
+                    .param("async", "true")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(testDTO)))
+                    .andExpect(status().isServiceUnavailable());
+        }
+
+        @Test
+        @DisplayName("Should validate before queueing")
+        void shouldValidateBeforeQueueing() throws Exception {
+            mockMvc.perform(post("/api/addresses")
+                    .param("async", "true")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"name\": \"\"}"))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(writeBehindQueue);
+        }
+
+        @Test
+        @DisplayName("Should resolve a ticket to the created id, or 404 when unknown")
+        void shouldResolveTicket() throws Exception {
+            when(writeBehindQueue.getTicket("t-1")).thenReturn(Optional.of(CreateTicket.created("t-1", 42L)));
+            when(writeBehindQueue.getTicket("t-2")).thenReturn(Optional.empty());
+
+            mockMvc.perform(get("/api/addresses/tickets/t-1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status", is("CREATED")))
+                    .andExpect(jsonPath("$.id", is(42)));
+            mockMvc.perform(get("/api/addresses/tickets/t-2"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /api/addresses/import")
+    class ImportEndpointTests {
+
+        private static final String CSV = "name,city\nJohn Doe,New York\n,Boston\n";
+
+        @Test
+        @DisplayName("Should import an uploaded file and return the report")
+        void shouldImportMultipartFile() throws Exception {
+            ImportReport report = ImportReport.builder()
+                    .outcome(ImportReport.Outcome.COMPLETED).rows(2).imported(1).rejected(1).committedRows(2)
+                    .errors(List.of(new ImportReport.RowError(2, Map.of("name", "Name is required"))))
+                    .build();
+            when(importService.importCsv(any(InputStream.class), eq(0L))).thenReturn(report);
+
+            mockMvc.perform(multipart("/api/addresses/import")
+                    .file(new MockMultipartFile("file", "addresses.csv", "text/csv",
+                            CSV.getBytes(StandardCharsets.UTF_8))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.outcome").value("COMPLETED"))
+                    .andExpect(jsonPath("$.imported").value(1))
+                    .andExpect(jsonPath("$.committedRows").value(2))
+                    .andExpect(jsonPath("$.errors[0].row").value(2))
+                    .andExpect(jsonPath("$.errors[0].errors.name").value("Name is required"));
+        }
+
+        @Test
+        @DisplayName("Should stream a text/csv body and resume after the skipped rows")
+        void shouldImportCsvBody() throws Exception {
+            when(importService.importCsv(any(InputStream.class), eq(1L))).thenReturn(ImportReport.builder()
+                    .outcome(ImportReport.Outcome.COMPLETED).rows(2).imported(1).committedRows(2).build());
+
+            mockMvc.perform(post("/api/addresses/import")
+                    .param("skip", "1")
+                    .contentType("text/csv")
+                    .content(CSV))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.committedRows").value(2));
+        }
+
+        @Test
+        @DisplayName("Should return 400 with the report when the CSV is malformed")
+        void shouldReturn400WhenMalformed() throws Exception {
+            when(importService.importCsv(any(InputStream.class), eq(0L))).thenReturn(ImportReport.builder()
+                    .outcome(ImportReport.Outcome.MALFORMED).rows(1).imported(1).committedRows(1)
+                    .message("Row 2 is not valid CSV").build());
+
+            mockMvc.perform(post("/api/addresses/import").contentType("text/csv").content(CSV))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Row 2 is not valid CSV"))
+                    .andExpect(jsonPath("$.committedRows").value(1));
+        }
+
+        @Test
+        @DisplayName("Should return 503 with the committed rows when a chunk could not be written")
+        void shouldReturn503WhenFailed() throws Exception {
+            when(importService.importCsv(any(InputStream.class), eq(0L))).thenReturn(ImportReport.builder()
+                    .outcome(ImportReport.Outcome.FAILED).rows(4).imported(2).committedRows(2).build());
+
+            mockMvc.perform(post("/api/addresses/import").contentType("text/csv").content(CSV))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(jsonPath("$.committedRows").value(2));
+        }
+    }
+
     @Nested
     @DisplayName("GET /api/addresses/{id}")
     class GetByIdEndpointTests {
@@ -112,6 +340,76 @@ class UserAddressControllerTest {
                     .andExpect(jsonPath("$.name", is("John Doe")));
         }
 
+        @Test
+        @DisplayName("Should return 503 when no database connection is free")
+        void shouldReturn503WhenPoolExhausted() throws Exception {
+            when(service.getById(1L)).thenThrow(new CannotCreateTransactionException("Connection is not available"));
+
+            mockMvc.perform(get("/api/addresses/1"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(jsonPath("$.message", is("Database is busy, please retry")));
+        }
+
+        @Test
+        @DisplayName("Should serve repeated reads from the JSON cache until invalidated")
+        void shouldServeRepeatedReadsFromCache() throws Exception {
+            when(service.getById(1L)).thenReturn(testDTO);
+
+            mockMvc.perform(get("/api/addresses/1"))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get("/api/addresses/1"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.name", is("John Doe")));
+
+            verify(service, times(1)).getById(1L);
+
+            jsonCache.invalidate(1L);
+            mockMvc.perform(get("/api/addresses/1"))
+                    .andExpect(status().isOk());
+
+            verify(service, times(2)).getById(1L);
+        }
+
+        @Test
+        @DisplayName("Should return ETag and Last-Modified with the address")
+        void shouldReturnValidators() throws Exception {
+            when(service.getById(1L)).thenReturn(testDTO);
+
+            mockMvc.perform(get("/api/addresses/1"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, org.hamcrest.Matchers.startsWith("W/\"1-")))
+                    .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+        }
+
+        @Test
+        @DisplayName("Should answer a matching If-None-Match with 304 from the version lookup alone")
+        void shouldReturn304WithoutLoadingRow() throws Exception {
+            when(service.getById(1L)).thenReturn(testDTO);
+            when(service.getVersion(1L)).thenReturn(testDTO.getUpdatedAt());
+            String etag = mockMvc.perform(get("/api/addresses/1"))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            jsonCache.invalidateAll();
+
+            mockMvc.perform(get("/api/addresses/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+
+            verify(service, times(1)).getById(1L);
+            verify(service, times(1)).getVersion(1L);
+        }
+
+        @Test
+        @DisplayName("Should return the full body when the client's ETag is stale")
+        void shouldReturn200ForStaleETag() throws Exception {
+            when(service.getById(1L)).thenReturn(testDTO);
+            when(service.getVersion(1L)).thenReturn(testDTO.getUpdatedAt());
+
+            mockMvc.perform(get("/api/addresses/1").header(HttpHeaders.IF_NONE_MATCH, "\"1-0\""))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.name", is("John Doe")));
+        }
+
         @Test
         @DisplayName("Should return 404 when not found")
         void shouldReturn404WhenNotFound() throws Exception {
@@ -128,30 +426,197 @@ class UserAddressControllerTest {
     class GetAllEndpointTests {
 
         @Test
-        @DisplayName("Should return all addresses")
+        @DisplayName("Should return first page of addresses")
         void shouldReturnAllAddresses() throws Exception {
             UserAddressDTO anotherDTO = UserAddressDTO.builder()
                     .id(2L)
                     .name("Jane Doe")
                     .build();
 
-            when(service.getAll()).thenReturn(Arrays.asList(testDTO, anotherDTO));
+            when(service.getAll(null, null, AddressFields.ALL))
+                    .thenReturn(new CursorPage<>(Arrays.asList(testDTO, anotherDTO), "next"));
 
             mockMvc.perform(get("/api/addresses"))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$", hasSize(2)))
-                    .andExpect(jsonPath("$[0].name", is("John Doe")))
-                    .andExpect(jsonPath("$[1].name", is("Jane Doe")));
+                    .andExpect(jsonPath("$.items", hasSize(2)))
+                    .andExpect(jsonPath("$.items[0].name", is("John Doe")))
+                    .andExpect(jsonPath("$.items[1].name", is("Jane Doe")))
+                    .andExpect(jsonPath("$.nextCursor", is("next")));
         }
 
         @Test
         @DisplayName("Should return empty list when no addresses")
         void shouldReturnEmptyList() throws Exception {
-            when(service.getAll()).thenReturn(Collections.emptyList());
+            when(service.getAll(null, null, AddressFields.ALL))
+                    .thenReturn(new CursorPage<>(Collections.emptyList(), null));
 
             mockMvc.perform(get("/api/addresses"))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$", hasSize(0)));
+                    .andExpect(jsonPath("$.items", hasSize(0)))
+                    .andExpect(jsonPath("$.nextCursor", nullValue()));
+        }
+
+        @Test
+        @DisplayName("Should pass cursor and limit through")
+        void shouldPassCursorAndLimit() throws Exception {
+            when(service.getAll("abc", 10, AddressFields.ALL))
+                    .thenReturn(new CursorPage<>(Collections.emptyList(), null));
+
+            mockMvc.perform(get("/api/addresses")
+                    .param("after", "abc")
+                    .param("limit", "10"))
+                    .andExpect(status().isOk());
+
+            verify(service, times(1)).getAll("abc", 10, AddressFields.ALL);
+        }
+
+        @Test
+        @DisplayName("Should page by updatedAt when requested")
+        void shouldPageByUpdatedAt() throws Exception {
+            when(service.getAllByUpdatedAt(null, null, AddressFields.ALL))
+                    .thenReturn(new CursorPage<>(Collections.singletonList(testDTO), null));
+
+            mockMvc.perform(get("/api/addresses")
+                    .param("sort", "updatedAt"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items", hasSize(1)));
+        }
+
+        @Test
+        @DisplayName("Should return 304 for an unchanged collection without building the page")
+        void shouldReturn304ForUnchangedCollection() throws Exception {
+            when(service.getAll(null, null, AddressFields.ALL)).thenReturn(new CursorPage<>(List.of(testDTO), null));
+            String etag = mockMvc.perform(get("/api/addresses"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            mockMvc.perform(get("/api/addresses").header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified());
+
+            verify(service, times(1)).getAll(null, null, AddressFields.ALL);
+
+            when(service.getCollectionVersion()).thenReturn(new CollectionVersion(0, null));
+            mockMvc.perform(get("/api/addresses").header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isOk());
+        }
+
+        @Test
+        @DisplayName("Should not answer If-Modified-Since on a collection with 304")
+        void shouldIgnoreIfModifiedSinceForCollection() throws Exception {
+            when(service.getAll(null, null, AddressFields.ALL)).thenReturn(new CursorPage<>(List.of(testDTO), null));
+
+            mockMvc.perform(get("/api/addresses")
+                            .header(HttpHeaders.IF_MODIFIED_SINCE, "Fri, 01 Jan 2100 00:00:00 GMT"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items", hasSize(1)));
+        }
+
+        @Test
+        @DisplayName("Should return 400 for unknown sort")
+        void shouldReturn400ForUnknownSort() throws Exception {
+            mockMvc.perform(get("/api/addresses")
+                    .param("sort", "name"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message", containsString("sort")));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/addresses/stream")
+    class StreamEndpointTests {
+
+        @Test
+        @DisplayName("Should stream addresses as newline-delimited JSON")
+        @SuppressWarnings("unchecked")
+        void shouldStreamAddressesAsNdjson() throws Exception {
+            UserAddressDTO anotherDTO = UserAddressDTO.builder()
+                    .id(2L)
+                    .name("Jane Doe")
+                    .build();
+            when(service.exportAll(any(), any())).thenAnswer(invocation -> {
+                Consumer<UserAddressDTO> sink = invocation.getArgument(0);
+                sink.accept(testDTO);
+                sink.accept(anotherDTO);
+                return 2L;
+            });
+
+            MvcResult result = mockMvc.perform(get("/api/addresses/stream"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            String body = mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andReturn().getResponse().getContentAsString();
+
+            String[] lines = body.split("\n");
+            assertThat(lines).hasSize(2);
+            assertThat(objectMapper.readValue(lines[0], UserAddressDTO.class).getName()).isEqualTo("John Doe");
+            assertThat(objectMapper.readValue(lines[1], UserAddressDTO.class).getName()).isEqualTo("Jane Doe");
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/addresses/changes")
+    class ChangesEndpointTests {
+
+        @Test
+        @DisplayName("Should return updates, deletes and the next token")
+        void shouldReturnChanges() throws Exception {
+            when(service.getChanges("token-1", 10))
+                    .thenReturn(new ChangeSet(List.of(testDTO), List.of(7L), "token-2", false));
+
+            mockMvc.perform(get("/api/addresses/changes").param("since", "token-1").param("limit", "10"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.updated[0].id").value(1))
+                    .andExpect(jsonPath("$.deleted[0]").value(7))
+                    .andExpect(jsonPath("$.nextToken").value("token-2"))
+                    .andExpect(jsonPath("$.hasMore").value(false));
+        }
+
+        @Test
+        @DisplayName("Should return 410 when the token has expired")
+        void shouldReturn410WhenTokenExpired() throws Exception {
+            when(service.getChanges("old", null)).thenThrow(new ResourceGoneException("since token is too old"));
+
+            mockMvc.perform(get("/api/addresses/changes").param("since", "old"))
+                    .andExpect(status().isGone())
+                    .andExpect(jsonPath("$.message").value("since token is too old"));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/addresses/events")
+    class EventsEndpointTests {
+
+        @Test
+        @DisplayName("Should stream change events after the Last-Event-ID")
+        void shouldStreamChangeEvents() throws Exception {
+            SseEmitter emitter = new SseEmitter();
+            when(changeFeed.subscribe("feed-4")).thenReturn(emitter);
+
+            MvcResult result = mockMvc.perform(get("/api/addresses/events").header("Last-Event-ID", "feed-4"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            emitter.send(SseEmitter.event().id("feed-5").name("deleted").data("{\"id\":1}"));
+            emitter.complete();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(content().string(containsString("id:feed-5\nevent:deleted\ndata:{\"id\":1}\n\n")));
+        }
+
+        @Test
+        @DisplayName("Should return 503 when there are too many open streams")
+        void shouldReturn503WhenFull() throws Exception {
+            when(changeFeed.subscribe(null))
+                    .thenThrow(new ServiceUnavailableException("Too many change stream subscribers, please retry"));
+
+            mockMvc.perform(get("/api/addresses/events"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(jsonPath("$.message").value("Too many change stream subscribers, please retry"));
         }
     }
 
@@ -190,6 +655,41 @@ class UserAddressControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("PATCH /api/addresses/{id}")
+    class PatchEndpointTests {
+
+        @Test
+        @DisplayName("Should apply a merge patch and return the address")
+        void shouldPatchAddress() throws Exception {
+            when(service.patch(eq(1L), any())).thenReturn(testDTO);
+
+            mockMvc.perform(patch("/api/addresses/1")
+                    .contentType(UserAddressController.MERGE_PATCH_JSON_VALUE)
+                    .content("{\"city\": \"New York\", \"phone\": null}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.city", is("New York")));
+
+            verify(service).patch(eq(1L), argThat(patch -> patch.size() == 2
+                    && "New York".equals(patch.get("city"))
+                    && patch.containsKey("phone") && patch.get("phone") == null));
+        }
+
+        @Test
+        @DisplayName("Should return 400 with field errors when the patched address is invalid")
+        void shouldReturn400ForInvalidPatch() throws Exception {
+            UserAddressDTO invalid = UserAddressDTO.builder().name("").build();
+            when(service.patch(eq(1L), any())).thenThrow(new ConstraintViolationException(
+                    Validation.buildDefaultValidatorFactory().getValidator().validate(invalid)));
+
+            mockMvc.perform(patch("/api/addresses/1")
+                    .contentType(UserAddressController.MERGE_PATCH_JSON_VALUE)
+                    .content("{\"name\": \"\"}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.errors.name", is("Name is required")));
+        }
+    }
+
     @Nested
     @DisplayName("DELETE /api/addresses/{id}")
     class DeleteEndpointTests {
@@ -215,6 +715,53 @@ class UserAddressControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("POST /api/addresses/bulk/delete")
+    class BulkDeleteEndpointTests {
+
+        @Test
+        @DisplayName("Should delete by id list")
+        void shouldDeleteById() throws Exception {
+            when(bulkService.deleteAllById(List.of(1L, 2L))).thenReturn(2L);
+
+            mockMvc.perform(post("/api/addresses/bulk/delete")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(
+                            BulkDeleteRequest.builder().ids(List.of(1L, 2L)).build())))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.deleted", is(2)));
+        }
+
+        @Test
+        @DisplayName("Should delete by location filter")
+        void shouldDeleteByLocation() throws Exception {
+            when(bulkService.deleteAllByLocation(null, "USA")).thenReturn(7L);
+
+            mockMvc.perform(post("/api/addresses/bulk/delete")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(
+                            BulkDeleteRequest.builder().city(" ").country(" USA").build())))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.deleted", is(7)));
+        }
+
+        @Test
+        @DisplayName("Should return 400 unless exactly one of ids or filter is given")
+        void shouldRequireExactlyOneSelector() throws Exception {
+            mockMvc.perform(post("/api/addresses/bulk/delete")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{}"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(post("/api/addresses/bulk/delete")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(
+                            BulkDeleteRequest.builder().ids(List.of(1L)).city("Boston").build())))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(bulkService);
+        }
+    }
+
     @Nested
     @DisplayName("GET /api/addresses/search")
     class SearchEndpointTests {
@@ -222,35 +769,242 @@ class UserAddressControllerTest {
         @Test
         @DisplayName("Should search addresses by keyword")
         void shouldSearchByKeyword() throws Exception {
-            when(service.search("John")).thenReturn(Arrays.asList(testDTO));
+            when(service.search("John", null, null, AddressFields.ALL))
+                    .thenReturn(new CursorPage<>(Arrays.asList(testDTO), null));
 
             mockMvc.perform(get("/api/addresses/search")
                     .param("q", "John"))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$", hasSize(1)))
-                    .andExpect(jsonPath("$[0].name", is("John Doe")));
+                    .andExpect(jsonPath("$.items", hasSize(1)))
+                    .andExpect(jsonPath("$.items[0].name", is("John Doe")));
+        }
+
+        @Test
+        @DisplayName("Should route mode=fulltext to ranked search")
+        void shouldRouteFullTextMode() throws Exception {
+            when(service.fullTextSearch("John", 5, AddressFields.ALL)).thenReturn(
+                    new FullTextSearchResult(1, List.of(new ScoredAddressDTO(2.5f, testDTO))));
+
+            mockMvc.perform(get("/api/addresses/search")
+                    .param("q", "John")
+                    .param("mode", "fulltext")
+                    .param("limit", "5"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalHits", is(1)))
+                    .andExpect(jsonPath("$.hits[0].score", is(2.5)))
+                    .andExpect(jsonPath("$.hits[0].address.name", is("John Doe")));
+
+            verify(service, never()).search(any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should return 400 for unknown search mode")
+        void shouldReturn400ForUnknownMode() throws Exception {
+            mockMvc.perform(get("/api/addresses/search")
+                    .param("q", "John")
+                    .param("mode", "fuzzy"))
+                    .andExpect(status().isBadRequest());
         }
 
         @Test
         @DisplayName("Should search addresses by name")
         void shouldSearchByName() throws Exception {
-            when(service.findByName("John")).thenReturn(Arrays.asList(testDTO));
+            when(service.findByName("John", null, 5, AddressFields.ALL))
+                    .thenReturn(new CursorPage<>(Arrays.asList(testDTO), null));
 
             mockMvc.perform(get("/api/addresses/search/name")
-                    .param("name", "John"))
+                    .param("name", "John")
+                    .param("limit", "5"))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$", hasSize(1)));
+                    .andExpect(jsonPath("$.items", hasSize(1)));
         }
 
         @Test
         @DisplayName("Should search addresses by city")
         void shouldSearchByCity() throws Exception {
-            when(service.findByCity("New York")).thenReturn(Arrays.asList(testDTO));
+            when(service.findByCity("New York", "abc", null, AddressFields.ALL))
+                    .thenReturn(new CursorPage<>(Arrays.asList(testDTO), null));
 
             mockMvc.perform(get("/api/addresses/search/city")
-                    .param("city", "New York"))
+                    .param("city", "New York")
+                    .param("after", "abc"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items", hasSize(1)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Binary encodings")
+    class BinaryEncodingTests {
+
+        @Test
+        @DisplayName("Should return a single address as CBOR with its own ETag")
+        void shouldReturnCbor() throws Exception {
+            when(service.getById(1L)).thenReturn(testDTO);
+
+            MvcResult result = mockMvc.perform(get("/api/addresses/1").accept(MediaType.APPLICATION_CBOR))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                    .andExpect(header().string(HttpHeaders.ETAG, org.hamcrest.Matchers.endsWith("-cbor\"")))
+                    .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+                    .andReturn();
+
+            JsonNode address = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+            assertThat(address.get("name").asText()).isEqualTo("John Doe");
+            assertThat(address.get("createdAt").asText())
+                    .isEqualTo(objectMapper.convertValue(testDTO.getCreatedAt(), String.class));
+        }
+
+        @Test
+        @DisplayName("Should answer a CBOR revalidation with 304 without loading the row")
+        void shouldRevalidateCbor() throws Exception {
+            when(service.getById(1L)).thenReturn(testDTO);
+            when(service.getVersion(1L)).thenReturn(testDTO.getUpdatedAt());
+            String etag = mockMvc.perform(get("/api/addresses/1").accept(MediaType.APPLICATION_CBOR))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            mockMvc.perform(get("/api/addresses/1").accept(MediaType.APPLICATION_CBOR)
+                    .header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified());
+            mockMvc.perform(get("/api/addresses/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+
+            verify(service, times(2)).getById(1L);
+        }
+
+        @Test
+        @DisplayName("Should return a page as Smile")
+        void shouldReturnSmilePage() throws Exception {
+            when(service.getAll(null, null, AddressFields.ALL))
+                    .thenReturn(new CursorPage<>(List.of(testDTO), "next"));
+
+            MvcResult result = mockMvc.perform(get("/api/addresses")
+                    .accept(UserAddressController.SMILE_VALUE))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$", hasSize(1)));
+                    .andExpect(content().contentType(UserAddressController.SMILE_VALUE))
+                    .andReturn();
+
+            JsonNode page = new SmileMapper().readTree(result.getResponse().getContentAsByteArray());
+            assertThat(page.get("items").get(0).get("city").asText()).isEqualTo("New York");
+            assertThat(page.get("nextCursor").asText()).isEqualTo("next");
+        }
+
+        @Test
+        @DisplayName("Should return a page as Protobuf")
+        void shouldReturnProtobufPage() throws Exception {
+            UserAddressDTO sparse = UserAddressDTO.builder().id(2L).name("Jane Doe").build();
+            when(service.findByCity("New York", null, null, AddressFields.ALL))
+                    .thenReturn(new CursorPage<>(List.of(testDTO, sparse), null));
+
+            MvcResult result = mockMvc.perform(get("/api/addresses/search/city")
+                    .param("city", "New York")
+                    .accept(AddressProtobufHttpMessageConverter.PROTOBUF))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(AddressProtobufHttpMessageConverter.PROTOBUF))
+                    .andReturn();
+
+            UnknownFieldSet page = UnknownFieldSet.parseFrom(result.getResponse().getContentAsByteArray());
+            assertThat(page.getField(1).getLengthDelimitedList()).hasSize(2);
+            assertThat(page.hasField(2)).isFalse();
+            UnknownFieldSet second = UnknownFieldSet.parseFrom(page.getField(1).getLengthDelimitedList().get(1));
+            assertThat(second.getField(1).getVarintList()).containsExactly(2L);
+            assertThat(second.getField(2).getLengthDelimitedList().get(0).toStringUtf8()).isEqualTo("Jane Doe");
+            assertThat(second.hasField(3)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should prefer JSON when the client ranks it above a binary encoding")
+        void shouldPreferJsonByQuality() throws Exception {
+            when(service.getById(1L)).thenReturn(testDTO);
+
+            mockMvc.perform(get("/api/addresses/1")
+                    .header(HttpHeaders.ACCEPT, "application/cbor;q=0.5, application/json"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.name", is("John Doe")));
+        }
+
+        @Test
+        @DisplayName("Should return 406 for Protobuf full-text results")
+        void shouldRejectProtobufForFullText() throws Exception {
+            when(service.fullTextSearch("John", null, AddressFields.ALL))
+                    .thenReturn(new FullTextSearchResult(0, List.of()));
+
+            mockMvc.perform(get("/api/addresses/search")
+                    .param("q", "John")
+                    .param("mode", "fulltext")
+                    .accept(AddressProtobufHttpMessageConverter.PROTOBUF))
+                    .andExpect(status().isNotAcceptable());
+        }
+    }
+    @Nested
+    @DisplayName("Sparse fieldsets")
+    class SparseFieldsTests {
+
+        @Test
+        @DisplayName("Should load and write only the requested fields of an address")
+        void shouldReturnRequestedFields() throws Exception {
+            UserAddressDTO selected = UserAddressDTO.builder()
+                    .name("John Doe")
+                    .city("New York")
+                    .updatedAt(testDTO.getUpdatedAt())
+                    .build();
+            when(service.getById(1L, AddressFields.parse("name,city,email,updatedAt"))).thenReturn(selected);
+
+            mockMvc.perform(get("/api/addresses/1").param("fields", "name,city,email"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG,
+                            org.hamcrest.Matchers.endsWith("-name.email.city\"")))
+                    .andExpect(jsonPath("$.name", is("John Doe")))
+                    .andExpect(jsonPath("$.city", is("New York")))
+                    .andExpect(jsonPath("$.email").value(nullValue()))
+                    .andExpect(jsonPath("$.id").doesNotExist())
+                    .andExpect(jsonPath("$.updatedAt").doesNotExist());
+
+            verify(service, never()).getById(1L);
+            assertThat(jsonCache.getIfPresent(1L)).isNull();
+        }
+
+        @Test
+        @DisplayName("Should write only the requested fields of each page item")
+        void shouldReturnRequestedFieldsInPage() throws Exception {
+            AddressFields fields = AddressFields.parse("city");
+            UserAddressDTO selected = UserAddressDTO.builder().city("New York").build();
+            when(service.findByName("John", null, null, fields))
+                    .thenReturn(new CursorPage<>(List.of(selected), "next"));
+
+            mockMvc.perform(get("/api/addresses/search/name")
+                    .param("name", "John")
+                    .param("fields", "city"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[0].city", is("New York")))
+                    .andExpect(jsonPath("$.items[0].name").doesNotExist())
+                    .andExpect(jsonPath("$.nextCursor", is("next")));
+        }
+
+        @Test
+        @DisplayName("Should apply the field selection to CBOR")
+        void shouldFilterCbor() throws Exception {
+            when(service.getAll(null, null, AddressFields.parse("name")))
+                    .thenReturn(new CursorPage<>(List.of(UserAddressDTO.builder().name("John Doe").build()), null));
+
+            MvcResult result = mockMvc.perform(get("/api/addresses")
+                    .param("fields", "name")
+                    .accept(MediaType.APPLICATION_CBOR))
+                    .andExpect(status().isOk())
+                    .andReturn();
+
+            JsonNode page = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+            assertThat(page.get("items").get(0).fieldNames()).toIterable().containsExactly("name");
+        }
+
+        @Test
+        @DisplayName("Should return 400 for an unknown field")
+        void shouldRejectUnknownField() throws Exception {
+            mockMvc.perform(get("/api/addresses").param("fields", "name,password"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message", containsString("password")));
         }
     }
 }
@@ -0,0 +1,98 @@
+package com.example.addressbook.datasource;
+
+import com.example.addressbook.config.ReadReplicaProperties.Selection;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReadReplicas and ReplicaRoutingDataSource.
+ */
+class ReadReplicasTest {
+
+    @Test
+    @DisplayName("Should take replicas in turn")
+    void shouldRoundRobin() {
+        HikariDataSource first = replica(0);
+        HikariDataSource second = replica(0);
+        ReadReplicas replicas = new ReadReplicas(List.of(first, second), Selection.ROUND_ROBIN);
+
+        assertThat(IntStream.range(0, 4).mapToObj(i -> replicas.select()))
+                .containsExactly(first, second, first, second);
+    }
+
+    @Test
+    @DisplayName("Should pick the replica with the fewest active connections")
+    void shouldPickLeastBusy() {
+        HikariDataSource busy = replica(5);
+        HikariDataSource idle = replica(1);
+        ReadReplicas replicas = new ReadReplicas(List.of(busy, idle, replica(3)), Selection.LEAST_BUSY);
+
+        assertThat(IntStream.range(0, 3).mapToObj(i -> replicas.select())).containsOnly(idle);
+    }
+
+    @Test
+    @DisplayName("Should read from the primary when pinned or when the replica is down")
+    void shouldFallBackToPrimary() throws SQLException {
+        HikariDataSource primary = mock(HikariDataSource.class);
+        Connection primaryConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        HikariDataSource down = replica(0);
+        when(down.getConnection()).thenThrow(new SQLException("Connection refused"));
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary,
+                new ReadReplicas(List.of(down), Selection.ROUND_ROBIN));
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+
+        PrimaryPin.pin();
+        try {
+            assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        } finally {
+            PrimaryPin.clear();
+        }
+        verify(down, times(1)).getConnection();
+    }
+
+    @Test
+    @DisplayName("Should route connections for explicit credentials the same way")
+    void shouldRouteExplicitCredentials() throws SQLException {
+        HikariDataSource primary = mock(HikariDataSource.class);
+        Connection primaryConnection = mock(Connection.class);
+        when(primary.getConnection("reader", "secret")).thenReturn(primaryConnection);
+        HikariDataSource up = replica(0);
+        Connection replicaConnection = mock(Connection.class);
+        when(up.getConnection("reader", "secret")).thenReturn(replicaConnection);
+        HikariDataSource down = replica(0);
+        when(down.getConnection("reader", "secret")).thenThrow(new SQLException("Connection refused"));
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary,
+                new ReadReplicas(List.of(up, down), Selection.ROUND_ROBIN));
+
+        assertThat(routing.getConnection("reader", "secret")).isSameAs(replicaConnection);
+        assertThat(routing.getConnection("reader", "secret")).isSameAs(primaryConnection);
+
+        PrimaryPin.pin();
+        try {
+            assertThat(routing.getConnection("reader", "secret")).isSameAs(primaryConnection);
+        } finally {
+            PrimaryPin.clear();
+        }
+        verify(up, times(1)).getConnection("reader", "secret");
+    }
+
+    private static HikariDataSource replica(int activeConnections) {
+        HikariDataSource pool = mock(HikariDataSource.class);
+        HikariPoolMXBean bean = mock(HikariPoolMXBean.class);
+        lenient().when(bean.getActiveConnections()).thenReturn(activeConnections);
+        lenient().when(pool.getHikariPoolMXBean()).thenReturn(bean);
+        return pool;
+    }
+}
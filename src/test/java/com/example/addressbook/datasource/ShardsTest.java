@@ -0,0 +1,55 @@
+package com.example.addressbook.datasource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for Shards.
+ */
+class ShardsTest {
+
+    private final Shards shards = new Shards(
+            List.of(mock(DataSource.class), mock(DataSource.class), mock(DataSource.class)));
+
+    @Test
+    @DisplayName("Should find the shard of an id in its top bits")
+    void shouldRouteIds() {
+        assertThat(shards.shardOf(1L)).isZero();
+        assertThat(shards.shardOf(Shards.firstId(1) + 1)).isEqualTo(1);
+        assertThat(shards.shardOf(Shards.firstId(2) + 12345)).isEqualTo(2);
+        assertThat(shards.shardOf((Long) null)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should send ids of unknown shards to shard 0")
+    void shouldRouteUnknownIdsToFirstShard() {
+        assertThat(shards.shardOf(Shards.firstId(3) + 1)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should place a country on the same shard whatever its case and spacing")
+    void shouldRouteCountries() {
+        int shard = shards.shardOf("Germany");
+
+        assertThat(shard).isBetween(0, 2);
+        assertThat(shards.shardOf(" GERMANY ")).isEqualTo(shard);
+        assertThat(shards.shardOf((String) null)).isZero();
+        assertThat(shards.shardOf(" ")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject no shards or more than the id can name")
+    void shouldRejectShardCounts() {
+        assertThatThrownBy(() -> new Shards(List.of())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new Shards(Collections.nCopies((1 << 15) + 1, mock(DataSource.class))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
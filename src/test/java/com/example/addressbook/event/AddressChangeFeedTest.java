@@ -0,0 +1,106 @@
+package com.example.addressbook.event;
+
+import com.example.addressbook.config.ChangeFeedProperties;
+import com.example.addressbook.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Unit tests for AddressChangeFeed.
+ */
+class AddressChangeFeedTest {
+
+    private final ChangeFeedProperties properties = new ChangeFeedProperties();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private AddressChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        properties.setBufferSize(4);
+        properties.setHeartbeat(Duration.ofMillis(50));
+        properties.setMaxSubscribers(1);
+        feed = new AddressChangeFeed(properties, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.stop();
+    }
+
+    @Test
+    @DisplayName("Should return buffered changes after a position in order")
+    void shouldReadChangesInOrder() throws Exception {
+        for (long id = 1; id <= 3; id++) {
+            feed.onChange(UserAddressChangedEvent.deleted(id));
+        }
+
+        List<AddressChangeFeed.Change> changes = feed.read(1, 0);
+
+        assertThat(changes).extracting(AddressChangeFeed.Change::sequence).containsExactly(2L, 3L);
+        assertThat(changes).extracting(change -> change.event().getId()).containsExactly(2L, 3L);
+    }
+
+    @Test
+    @DisplayName("Should return nothing when no change arrives in time")
+    void shouldReturnEmptyWhenIdle() throws Exception {
+        assertThat(feed.read(0, TimeUnit.MILLISECONDS.toNanos(10))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should report a reader whose next change was overwritten")
+    void shouldDetectLappedReader() throws Exception {
+        for (long id = 1; id <= 6; id++) {
+            feed.onChange(UserAddressChangedEvent.deleted(id));
+        }
+
+        assertThat(feed.read(1, 0)).isNull();
+        assertThat(feed.read(2, 0)).extracting(AddressChangeFeed.Change::sequence).containsExactly(3L, 4L, 5L, 6L);
+    }
+
+    @Test
+    @DisplayName("Should resume after a buffered event id and reject unknown or expired ones")
+    void shouldResolveLastEventId() {
+        for (long id = 1; id <= 6; id++) {
+            feed.onChange(UserAddressChangedEvent.deleted(id));
+        }
+
+        assertThat(feed.positionOf(null)).isEqualTo(6);
+        assertThat(feed.positionOf(feed.eventId(4))).isEqualTo(4);
+        assertThat(feed.positionOf(feed.eventId(1))).isEqualTo(-1);
+        assertThat(feed.positionOf(feed.eventId(7))).isEqualTo(-1);
+        assertThat(feed.positionOf("older-4")).isEqualTo(-1);
+        assertThat(feed.positionOf(feed.eventId(0) + "x")).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("Should refuse subscribers beyond the limit until one leaves")
+    void shouldLimitSubscribers() {
+        feed.subscribe(null).complete();
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> registry.get(AddressChangeFeed.SUBSCRIBERS_METRIC).gauge().value() == 0);
+
+        feed.subscribe(null);
+
+        assertThat(registry.get(AddressChangeFeed.SUBSCRIBERS_METRIC).gauge().value()).isEqualTo(1);
+        assertThatThrownBy(() -> feed.subscribe(null)).isInstanceOf(ServiceUnavailableException.class);
+    }
+
+    @Test
+    @DisplayName("Should refuse subscribers once stopped")
+    void shouldRefuseSubscribersWhenStopped() {
+        feed.stop();
+
+        assertThatThrownBy(() -> feed.subscribe(null)).isInstanceOf(ServiceUnavailableException.class);
+    }
+}
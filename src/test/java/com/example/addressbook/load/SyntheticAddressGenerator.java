@@ -0,0 +1,159 @@
+package com.example.addressbook.load;
+
+import com.example.addressbook.dto.UserAddressDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates realistic-looking addresses with a skewed geography: a few countries hold most
+ * addresses, and within a country the largest cities dominate (Zipf-distributed), so city
+ * lookups see both huge and tiny result sets as they do in production.
+ * <p>
+ * Output is deterministic for a given seed.
+ */
+public class SyntheticAddressGenerator {
+
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David",
+            "Elizabeth", "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah",
+            "Priya", "Arjun", "Anika", "Rahul", "Sophie", "Oliver", "Amelia", "Harry", "Lukas", "Emma",
+            "Leon", "Mia", "Liam", "Olivia", "Noah", "Ava", "Wei", "Mei", "Hiroshi", "Yuki", "Carlos", "Lucia"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez",
+            "Martinez", "Hernandez", "Lopez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson",
+            "Martin", "Lee", "Thompson", "White", "Harris", "Clark", "Lewis", "Walker", "Hall", "Young",
+            "Patel", "Sharma", "Singh", "Kumar", "Gupta", "Evans", "Roberts", "Wright", "Muller", "Schmidt",
+            "Schneider", "Fischer", "Weber", "Wagner", "Tremblay", "Roy", "Gagnon", "Nguyen", "Chen", "Wang"
+    };
+
+    private static final String[] STREETS = {
+            "Main St", "Oak Ave", "Maple Dr", "Cedar Ln", "Elm St", "Park Rd", "High St", "Station Rd",
+            "Church St", "Mill Ln", "King St", "Queen St", "Lake View", "Hill Rd", "River Rd", "Bahnhofstrasse"
+    };
+
+    private static final String[] DOMAINS = {"example.com", "mail.test", "inbox.test", "corp.test"};
+
+    /**
+     * Countries with their share of addresses and their cities, largest first.
+     */
+    private static final Country[] COUNTRIES = {
+            new Country("USA", 0.50, new City[]{
+                    new City("New York", "NY"), new City("Los Angeles", "CA"), new City("Chicago", "IL"),
+                    new City("Houston", "TX"), new City("Phoenix", "AZ"), new City("Philadelphia", "PA"),
+                    new City("San Antonio", "TX"), new City("San Diego", "CA"), new City("Dallas", "TX"),
+                    new City("Austin", "TX"), new City("Boston", "MA"), new City("Seattle", "WA"),
+                    new City("Denver", "CO"), new City("Portland", "OR"), new City("Burlington", "VT")}),
+            new Country("UK", 0.15, new City[]{
+                    new City("London", "England"), new City("Birmingham", "England"),
+                    new City("Manchester", "England"), new City("Glasgow", "Scotland"),
+                    new City("Leeds", "England"), new City("Cardiff", "Wales"), new City("York", "England")}),
+            new Country("Germany", 0.10, new City[]{
+                    new City("Berlin", "Berlin"), new City("Hamburg", "Hamburg"), new City("Munich", "Bavaria"),
+                    new City("Cologne", "NRW"), new City("Frankfurt", "Hesse"), new City("Freiburg", "BW")}),
+            new Country("India", 0.10, new City[]{
+                    new City("Mumbai", "MH"), new City("Delhi", "DL"), new City("Bengaluru", "KA"),
+                    new City("Hyderabad", "TG"), new City("Chennai", "TN"), new City("Pune", "MH")}),
+            new Country("Canada", 0.08, new City[]{
+                    new City("Toronto", "ON"), new City("Montreal", "QC"), new City("Vancouver", "BC"),
+                    new City("Calgary", "AB"), new City("Halifax", "NS")}),
+            new Country("Australia", 0.07, new City[]{
+                    new City("Sydney", "NSW"), new City("Melbourne", "VIC"), new City("Brisbane", "QLD"),
+                    new City("Perth", "WA"), new City("Hobart", "TAS")})
+    };
+
+    private final Random random;
+
+    public SyntheticAddressGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Generates {@code count} new addresses (without ids).
+     */
+    public List<UserAddressDTO> generate(int count) {
+        List<UserAddressDTO> addresses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            addresses.add(next());
+        }
+        return addresses;
+    }
+
+    /**
+     * Generates one new address (without an id).
+     */
+    public UserAddressDTO next() {
+        Country country = country();
+        City city = country.cities[zipf(country.cities.length)];
+        String first = pick(FIRST_NAMES);
+        String last = pick(LAST_NAMES);
+        return UserAddressDTO.builder()
+                .name(first + " " + last)
+                .phone(String.format("+1-%03d-%03d-%04d", 200 + random.nextInt(800), random.nextInt(1000),
+                        random.nextInt(10000)))
+                .email((first + "." + last).toLowerCase() + random.nextInt(100_000) + "@" + pick(DOMAINS))
+                .street((1 + random.nextInt(9999)) + " " + pick(STREETS))
+                .city(city.name)
+                .state(city.state)
+                .zipCode(String.format("%05d", random.nextInt(100_000)))
+                .country(country.name)
+                .build();
+    }
+
+    /**
+     * A city drawn from the same skewed distribution as the generated addresses.
+     */
+    public String city() {
+        Country country = country();
+        return country.cities[zipf(country.cities.length)].name;
+    }
+
+    /**
+     * A last name, usable as a search keyword that matches many addresses.
+     */
+    public String lastName() {
+        return pick(LAST_NAMES);
+    }
+
+    private Country country() {
+        double r = random.nextDouble();
+        for (Country country : COUNTRIES) {
+            r -= country.share;
+            if (r < 0) {
+                return country;
+            }
+        }
+        return COUNTRIES[0];
+    }
+
+    /**
+     * Index in {@code [0, n)} with probability proportional to {@code 1 / (rank + 1)}.
+     */
+    private int zipf(int n) {
+        double harmonic = 0;
+        for (int k = 1; k <= n; k++) {
+            harmonic += 1.0 / k;
+        }
+        double r = random.nextDouble() * harmonic;
+        for (int k = 1; k <= n; k++) {
+            r -= 1.0 / k;
+            if (r < 0) {
+                return k - 1;
+            }
+        }
+        return n - 1;
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private record City(String name, String state) {
+    }
+
+    private record Country(String name, double share, City[] cities) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.addressbook.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ResponseSizeFilter.
+ */
+class ResponseSizeFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private ResponseSizeFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        filter = new ResponseSizeFilter(registry);
+        request = new MockHttpServletRequest("GET", "/api/addresses/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/addresses/{id}");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    @DisplayName("Should record bytes written through the output stream, tagged by uri template")
+    void shouldRecordOutputStreamBytes() throws Exception {
+        FilterChain chain = (req, res) -> res.getOutputStream().write(new byte[123]);
+
+        filter.doFilter(request, response, chain);
+
+        DistributionSummary size = registry.get(ResponseSizeFilter.METRIC)
+                .tags("method", "GET", "uri", "/api/addresses/{id}", "status", "200").summary();
+        assertThat(size.count()).isEqualTo(1);
+        assertThat(size.totalAmount()).isEqualTo(123);
+        assertThat(response.getContentAsByteArray()).hasSize(123);
+    }
+
+    @Test
+    @DisplayName("Should record encoded bytes written through the writer")
+    void shouldRecordWriterBytes() throws Exception {
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        FilterChain chain = (req, res) -> res.getWriter().write("café");
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(registry.get(ResponseSizeFilter.METRIC).summary().totalAmount()).isEqualTo(5);
+        assertThat(response.getContentAsString()).isEqualTo("café");
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.addressbook.metrics;
+
+import com.example.addressbook.repository.UserAddressRepository;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for SlowQueryLog.
+ */
+class SlowQueryLogTest {
+
+    @Test
+    @DisplayName("Should record the JPQL, parameter shapes and row count of a slow call")
+    void shouldRecordSlowCall() throws Throwable {
+        SlowQueryLog log = new SlowQueryLog(Duration.ZERO, 10);
+        Method method = UserAddressRepository.class.getMethod(
+                "findByCityIgnoreCaseAndIdGreaterThanOrderByIdAsc", String.class, Long.class, Pageable.class);
+        MethodInvocation invocation = invocation(method,
+                new Object[]{"Springfield", 0L, PageRequest.ofSize(51)}, List.of("a", "b", "c"));
+
+        log.interceptor(UserAddressRepository.class).invoke(invocation);
+
+        assertThat(log.recent()).singleElement().satisfies(slow -> {
+            assertThat(slow.method())
+                    .isEqualTo("UserAddressRepository.findByCityIgnoreCaseAndIdGreaterThanOrderByIdAsc");
+            assertThat(slow.query()).contains("u.cityLower = LOWER(:city)");
+            assertThat(slow.parameters())
+                    .containsExactly("String(length=11)", "Long", "Pageable(offset=0, size=51)");
+            assertThat(slow.rows()).isEqualTo(3);
+            assertThat(slow.failed()).isFalse();
+        });
+    }
+
+    @Test
+    @DisplayName("Should skip calls under the threshold")
+    void shouldSkipFastCalls() throws Throwable {
+        SlowQueryLog log = new SlowQueryLog(Duration.ofHours(1), 10);
+        Method method = UserAddressRepository.class.getMethod("findDTOById", Long.class);
+
+        Object result = log.interceptor(UserAddressRepository.class)
+                .invoke(invocation(method, new Object[]{1L}, Optional.empty()));
+
+        assertThat(result).isEqualTo(Optional.empty());
+        assertThat(log.recent()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep only the most recent slow calls, including failed ones")
+    void shouldKeepBoundedHistory() throws Throwable {
+        SlowQueryLog log = new SlowQueryLog(Duration.ZERO, 2);
+        MethodInterceptor interceptor = log.interceptor(UserAddressRepository.class);
+        Method delete = UserAddressRepository.class.getMethod("deleteAllByIdIn", Collection.class);
+        Method find = UserAddressRepository.class.getMethod("findDTOById", Long.class);
+
+        interceptor.invoke(invocation(find, new Object[]{1L}, Optional.empty()));
+        interceptor.invoke(invocation(delete, new Object[]{List.of(1L, 2L)}, 2));
+        MethodInvocation failing = mock(MethodInvocation.class);
+        when(failing.getMethod()).thenReturn(find);
+        when(failing.getArguments()).thenReturn(new Object[]{null});
+        when(failing.proceed()).thenThrow(new IllegalStateException("boom"));
+        assertThatThrownBy(() -> interceptor.invoke(failing)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(log.recent()).hasSize(2);
+        assertThat(log.recent().get(0).failed()).isTrue();
+        assertThat(log.recent().get(0).parameters()).containsExactly("null");
+        assertThat(log.recent().get(1).parameters()).containsExactly("Collection(size=2)");
+        assertThat(log.recent().get(1).rows()).isEqualTo(2);
+
+        log.clear();
+        assertThat(log.recent()).isEmpty();
+    }
+
+    private static MethodInvocation invocation(Method method, Object[] arguments, Object result) throws Throwable {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(method);
+        when(invocation.getArguments()).thenReturn(arguments);
+        when(invocation.proceed()).thenReturn(result);
+        return invocation;
+    }
+}
@@ -1,13 +1,26 @@
 package com.example.addressbook.repository;
 
+import com.example.addressbook.dto.AddressFields;
+import com.example.addressbook.dto.UserAddressDTO;
+import com.example.addressbook.entity.AddressTombstone;
 import com.example.addressbook.entity.UserAddress;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
+import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -20,9 +33,22 @@ class UserAddressRepositoryTest {
     @Autowired
     private UserAddressRepository repository;
 
+    @Autowired
+    private AddressTombstoneRepository tombstones;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
     @BeforeEach
     void setUp() {
         repository.deleteAll();
+        tombstones.deleteAll();
     }
 
     @Test
@@ -72,7 +98,7 @@ class UserAddressRepositoryTest {
                 .name("Bob Williams")
                 .build());
 
-        List<UserAddress> results = repository.findByNameContainingIgnoreCase("alice");
+        List<UserAddress> results = repository.findByNameContainingIgnoreCase("alice", '\\');
         assertThat(results).hasSize(1);
         assertThat(results.get(0).getName()).isEqualTo("Alice Johnson");
     }
@@ -105,6 +131,49 @@ class UserAddressRepositoryTest {
         assertThat(results).hasSize(1);
     }
 
+    @Test
+    @DisplayName("Should not treat LIKE wildcards in a name as patterns")
+    void shouldEscapeWildcardsInNameSearch() {
+        repository.save(UserAddress.builder().name("100% Real").build());
+        repository.save(UserAddress.builder().name("1000 Fake").build());
+
+        List<UserAddress> results = repository.findByNameContainingIgnoreCase(
+                EscapeCharacter.DEFAULT.escape("100%"), EscapeCharacter.DEFAULT.getEscapeCharacter());
+        assertThat(results).extracting(UserAddress::getName).containsExactly("100% Real");
+    }
+
+    @Test
+    @DisplayName("Should look up city and email through the lower-case indexes")
+    void shouldUseLowerCaseIndexes() {
+        String cityPlan = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT id FROM user_addresses WHERE city_lower = LOWER('Seattle')", String.class);
+        String emailPlan = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT id FROM user_addresses WHERE email_lower = LOWER('a@b.com')", String.class);
+
+        assertThat(cityPlan).containsIgnoringCase("idx_user_addresses_city_lower");
+        assertThat(emailPlan).containsIgnoringCase("idx_user_addresses_email_lower");
+    }
+
+    @Test
+    @DisplayName("Should not keep an index for substring-only name search")
+    void shouldNotIndexNameLower() {
+        Integer nameIndexes = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEX_COLUMNS "
+                        + "WHERE TABLE_NAME = 'USER_ADDRESSES' AND COLUMN_NAME = 'NAME_LOWER'", Integer.class);
+
+        assertThat(nameIndexes).isZero();
+    }
+
+    @Test
+    @DisplayName("Should read a city page in index order without sorting the whole city")
+    void shouldReadCityPageInIndexOrder() {
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT id FROM user_addresses WHERE city_lower = LOWER('Seattle') AND id > 0 "
+                        + "ORDER BY city_lower, id FETCH FIRST 50 ROWS ONLY", String.class);
+
+        assertThat(plan).containsIgnoringCase("idx_user_addresses_city_lower_id").contains("index sorted");
+    }
+
     @Test
     @DisplayName("Should handle timestamps on persist")
     void shouldHandleTimestamps() {
@@ -117,4 +186,167 @@ class UserAddressRepositoryTest {
         assertThat(saved.getCreatedAt()).isNotNull();
         assertThat(saved.getUpdatedAt()).isNotNull();
     }
+
+    @Test
+    @DisplayName("Should page by id after cursor")
+    void shouldPageByIdAfterCursor() {
+        UserAddress first = repository.save(UserAddress.builder().name("Page One").city("Denver").build());
+        UserAddress second = repository.save(UserAddress.builder().name("Page Two").city("Denver").build());
+        repository.save(UserAddress.builder().name("Page Three").city("Austin").build());
+
+        List<UserAddressDTO> page = repository.findByIdGreaterThanOrderByIdAsc(first.getId(), PageRequest.ofSize(1));
+        assertThat(page).extracting(UserAddressDTO::getId).containsExactly(second.getId());
+
+        page = repository.findByCityIgnoreCaseAndIdGreaterThanOrderByIdAsc("denver", 0L, PageRequest.ofSize(10));
+        assertThat(page).hasSize(2);
+
+        page = repository.findByNameContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(
+                "page", '\\', second.getId(), PageRequest.ofSize(10));
+        assertThat(page).extracting(UserAddressDTO::getName).containsExactly("Page Three");
+
+        page = repository.searchByKeywordAfter("denver", first.getId(), PageRequest.ofSize(10));
+        assertThat(page).extracting(UserAddressDTO::getId).containsExactly(second.getId());
+    }
+
+    @Test
+    @DisplayName("Should page by updatedAt then id")
+    void shouldPageByUpdatedAtThenId() {
+        UserAddress first = repository.save(UserAddress.builder().name("Older").build());
+        UserAddress second = repository.save(UserAddress.builder().name("Newer").build());
+
+        List<UserAddressDTO> page = repository.findAllByOrderByUpdatedAtAscIdAsc(PageRequest.ofSize(1));
+        assertThat(page).extracting(UserAddressDTO::getId).containsExactly(first.getId());
+
+        page = repository.findPageByUpdatedAtAfter(first.getUpdatedAt(), first.getId(), PageRequest.ofSize(10));
+        assertThat(page).extracting(UserAddressDTO::getId).containsExactly(second.getId());
+    }
+
+    @Test
+    @DisplayName("Should page changes after a position up to a horizon")
+    void shouldPageChangesUpToHorizon() {
+        UserAddress first = repository.save(UserAddress.builder().name("Older").build());
+        UserAddress second = repository.save(UserAddress.builder().name("Newer").build());
+        LocalDateTime beginning = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+        List<UserAddressDTO> page = repository.findPageChangedAfter(beginning, 0L, second.getUpdatedAt(),
+                PageRequest.ofSize(10));
+        assertThat(page).extracting(UserAddressDTO::getId).containsExactly(first.getId(), second.getId());
+
+        page = repository.findPageChangedAfter(first.getUpdatedAt(), first.getId(), first.getUpdatedAt(),
+                PageRequest.ofSize(10));
+        assertThat(page).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should write tombstones for existing addresses only and page and purge them by deletion time")
+    void shouldRecordTombstones() {
+        UserAddress first = repository.save(UserAddress.builder().name("Deleted First").build());
+        UserAddress second = repository.save(UserAddress.builder().name("Deleted Second").build());
+        LocalDateTime deletedAt = UserAddress.now();
+
+        int written = tombstones.insertForAddresses(List.of(second.getId(), first.getId(), 0L), deletedAt);
+
+        assertThat(written).isEqualTo(2);
+        List<AddressTombstone> page = tombstones.findPageByDeletedAtAfter(deletedAt, first.getId(), deletedAt,
+                PageRequest.ofSize(10));
+        assertThat(page).extracting(AddressTombstone::getId).containsExactly(second.getId());
+        assertThat(page.get(0).getDeletedAt()).isEqualTo(deletedAt);
+        assertThat(tombstones.deleteByDeletedAtBefore(deletedAt)).isZero();
+        assertThat(tombstones.deleteByDeletedAtBefore(deletedAt.plusNanos(1000))).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should project a single address straight into a DTO")
+    void shouldFindDTOById() {
+        UserAddress saved = repository.save(UserAddress.builder()
+                .name("Projected User")
+                .email("projected@test.com")
+                .zipCode("02101")
+                .build());
+
+        UserAddressDTO dto = repository.findDTOById(saved.getId()).orElseThrow();
+
+        assertThat(dto.getId()).isEqualTo(saved.getId());
+        assertThat(dto.getName()).isEqualTo("Projected User");
+        assertThat(dto.getEmail()).isEqualTo("projected@test.com");
+        assertThat(dto.getZipCode()).isEqualTo("02101");
+        assertThat(dto.getCreatedAt()).isEqualTo(saved.getCreatedAt());
+        assertThat(repository.findDTOById(saved.getId() + 1000)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should stream all addresses in id order")
+    void shouldStreamAllInIdOrder() {
+        UserAddress first = repository.save(UserAddress.builder().name("Stream One").build());
+        UserAddress second = repository.save(UserAddress.builder().name("Stream Two").build());
+
+        try (Stream<UserAddress> rows = repository.streamAll()) {
+            assertThat(rows.map(UserAddress::getId)).containsExactly(first.getId(), second.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Should stream addresses without storing them in the second-level cache")
+    void shouldStreamPastSecondLevelCache() {
+        jdbcTemplate.update("INSERT INTO user_addresses (id, name, created_at) VALUES (?, ?, CURRENT_TIMESTAMP)",
+                900_001L, "Streamed Past Cache");
+        Cache cache = entityManagerFactory.getCache();
+        cache.evictAll();
+
+        try (Stream<UserAddress> rows = repository.streamAll()) {
+            assertThat(rows.map(UserAddress::getId)).contains(900_001L);
+        }
+
+        assertThat(cache.contains(UserAddress.class, 900_001L)).isFalse();
+        testEntityManager.clear();
+        repository.findById(900_001L);
+        assertThat(cache.contains(UserAddress.class, 900_001L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should select only the requested columns")
+    void shouldFindRequestedFields() {
+        UserAddress first = repository.save(UserAddress.builder()
+                .name("50% Sparse").email("sparse@test.com").city("Denver").build());
+        repository.save(UserAddress.builder().name("500 Sparse").city("Denver").build());
+        AddressFields fields = AddressFields.parse("id,city");
+
+        List<UserAddressDTO> page = repository.findFields(fields, UserAddressRepository.NAME_AFTER_ID,
+                Map.of("name", "50\\%", "escape", '\\', "id", 0L), 10, true);
+
+        assertThat(page).hasSize(1);
+        assertThat(page.get(0).getId()).isEqualTo(first.getId());
+        assertThat(page.get(0).getCity()).isEqualTo("Denver");
+        assertThat(page.get(0).getName()).isNull();
+        assertThat(page.get(0).getEmail()).isNull();
+
+        try (Stream<UserAddressDTO> rows = repository.streamFields(AddressFields.parse("name"),
+                UserAddressRepository.ORDER_BY_ID)) {
+            assertThat(rows.map(UserAddressDTO::getName)).containsExactly("50% Sparse", "500 Sparse");
+        }
+    }
+
+    @Test
+    @DisplayName("Should update only the given columns, and nothing when no value differs")
+    void shouldUpdateOnlyGivenFields() {
+        UserAddress saved = repository.save(UserAddress.builder()
+                .name("Patch Target").phone("555").city("Denver").build());
+        LocalDateTime patchedAt = saved.getUpdatedAt().plusSeconds(1);
+        Map<String, String> values = new HashMap<>();
+        values.put("city", "Boulder");
+        values.put("phone", null);
+
+        assertThat(repository.updateFields(saved.getId(), values, patchedAt)).isEqualTo(1);
+
+        UserAddressDTO patched = repository.findDTOById(saved.getId()).orElseThrow();
+        assertThat(patched.getCity()).isEqualTo("Boulder");
+        assertThat(patched.getPhone()).isNull();
+        assertThat(patched.getName()).isEqualTo("Patch Target");
+        assertThat(patched.getUpdatedAt()).isEqualTo(patchedAt);
+        assertThat(repository.findByCityIgnoreCase("BOULDER")).hasSize(1);
+
+        assertThat(repository.updateFields(saved.getId(), values, patchedAt.plusSeconds(1))).isZero();
+        assertThat(repository.findDTOById(saved.getId()).orElseThrow().getUpdatedAt()).isEqualTo(patchedAt);
+        assertThat(repository.updateFields(saved.getId() + 1000, Map.of("city", "Aspen"), patchedAt)).isZero();
+    }
 }
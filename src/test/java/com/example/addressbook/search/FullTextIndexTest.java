@@ -0,0 +1,122 @@
+package com.example.addressbook.search;
+
+import com.example.addressbook.config.SearchProperties;
+import com.example.addressbook.dto.UserAddressDTO;
+import com.example.addressbook.entity.UserAddress;
+import com.example.addressbook.event.UserAddressChangedEvent;
+import com.example.addressbook.exception.ServiceUnavailableException;
+import com.example.addressbook.mapper.UserAddressMapper;
+import com.example.addressbook.repository.UserAddressRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for FullTextIndex against a temporary on-disk index.
+ */
+@ExtendWith(MockitoExtension.class)
+class FullTextIndexTest {
+
+    @Mock
+    private UserAddressRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @TempDir
+    Path indexDir;
+
+    private SearchProperties properties;
+    private FullTextIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties = new SearchProperties();
+        properties.getFulltext().setDirectory(indexDir.toString());
+        index = new FullTextIndex(repository, new UserAddressMapper(), transactionManager, entityManager, properties);
+        index.open();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        index.close();
+    }
+
+    private void buildWith(UserAddress... rows) throws Exception {
+        when(repository.streamAll()).thenReturn(Stream.of(rows));
+        index.build();
+    }
+
+    @Test
+    @DisplayName("Should reject searches until the startup rebuild has run")
+    void shouldRejectSearchesBeforeBuild() {
+        assertThat(index.isReady()).isFalse();
+        assertThatThrownBy(() -> index.search("john", 10))
+                .isInstanceOf(ServiceUnavailableException.class);
+    }
+
+    @Test
+    @DisplayName("Should rank name matches above street matches")
+    void shouldRankNameMatchesFirst() throws Exception {
+        buildWith(
+                UserAddress.builder().id(1L).name("Alice Brown").street("12 Parker Street").build(),
+                UserAddress.builder().id(2L).name("Peter Parker").street("1 Main Street").build(),
+                UserAddress.builder().id(3L).name("Carol White").city("Boston").build());
+
+        FullTextIndex.Result result = index.search("parker", 10);
+
+        assertThat(result.totalHits()).isEqualTo(2);
+        assertThat(result.hits()).extracting(FullTextIndex.Hit::id).containsExactly(2L, 1L);
+        assertThat(result.hits().get(0).score()).isGreaterThan(result.hits().get(1).score());
+    }
+
+    @Test
+    @DisplayName("Should tokenize and treat query syntax literally")
+    void shouldTreatQuerySyntaxLiterally() throws Exception {
+        buildWith(UserAddress.builder().id(1L).name("Jane Doe").email("jane.doe@example.com").build());
+
+        assertThat(index.search("DOE", 10).hits()).extracting(FullTextIndex.Hit::id).containsExactly(1L);
+        assertThat(index.search("jane AND (", 10).hits()).extracting(FullTextIndex.Hit::id).containsExactly(1L);
+        assertThat(index.search("!!!", 10).hits()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should apply change events after refresh")
+    void shouldApplyChangeEvents() throws Exception {
+        buildWith();
+
+        index.onChange(UserAddressChangedEvent.created(
+                UserAddressDTO.builder().id(5L).name("Zed Alpha").city("Denver").build()));
+        index.refresh();
+        assertThat(index.search("denver", 10).hits()).extracting(FullTextIndex.Hit::id).containsExactly(5L);
+
+        index.onChange(UserAddressChangedEvent.updated(
+                UserAddressDTO.builder().id(5L).name("Zed Alpha").city("Austin").build()));
+        index.refresh();
+        assertThat(index.search("denver", 10).hits()).isEmpty();
+        assertThat(index.search("austin", 10).totalHits()).isEqualTo(1);
+
+        index.onChange(UserAddressChangedEvent.deleted(5L));
+        index.refresh();
+        assertThat(index.search("zed", 10).hits()).isEmpty();
+
+        index.commit();
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.addressbook.search;
+
+import com.example.addressbook.config.SearchProperties;
+import com.example.addressbook.dto.UserAddressDTO;
+import com.example.addressbook.entity.UserAddress;
+import com.example.addressbook.event.UserAddressChangedEvent;
+import com.example.addressbook.repository.UserAddressRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for TrigramIndex.
+ */
+@ExtendWith(MockitoExtension.class)
+class TrigramIndexTest {
+
+    @Mock
+    private UserAddressRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private SearchProperties properties;
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SearchProperties();
+        index = new TrigramIndex(repository, transactionManager, entityManager, properties);
+    }
+
+    private void buildWith(UserAddress... rows) {
+        when(repository.streamAll()).thenReturn(Stream.of(rows));
+        index.build();
+    }
+
+    @Test
+    @DisplayName("Should not serve searches before it is built")
+    void shouldNotServeBeforeBuild() {
+        assertThat(index.isReady()).isFalse();
+        assertThat(index.search("john", 0, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should find substrings case-insensitively in any field")
+    void shouldFindSubstringsInAnyField() {
+        buildWith(
+                UserAddress.builder().id(1L).name("John Smith").city("Chicago").build(),
+                UserAddress.builder().id(2L).name("Jane Doe").email("jane@test.com").city("New York").build(),
+                UserAddress.builder().id(3L).name("Bob").street("12 Johnson Ave").build());
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.search("JOHN", 0, 10)).contains(List.of(1L, 3L));
+        assertThat(index.search("york", 0, 10)).contains(List.of(2L));
+        assertThat(index.search("@test.c", 0, 10)).contains(List.of(2L));
+        assertThat(index.search("zzz", 0, 10)).contains(List.of());
+    }
+
+    @Test
+    @DisplayName("Should not match across field boundaries or on trigram overlap alone")
+    void shouldVerifyCandidates() {
+        buildWith(
+                UserAddress.builder().id(1L).name("abc").city("def").build(),
+                UserAddress.builder().id(2L).name("abcxbcd").build());
+
+        // "cde" would only appear if fields were concatenated
+        assertThat(index.search("cde", 0, 10)).contains(List.of());
+        // id 2 has both trigrams "abc" and "bcd" but not the substring "abcd"
+        assertThat(index.search("abcd", 0, 10)).contains(List.of());
+    }
+
+    @Test
+    @DisplayName("Should page by id and respect the limit")
+    void shouldPageById() {
+        buildWith(
+                UserAddress.builder().id(1L).name("Smith One").build(),
+                UserAddress.builder().id(5L).name("Smith Two").build(),
+                UserAddress.builder().id(9L).name("Smith Three").build());
+
+        assertThat(index.search("smith", 0, 2)).contains(List.of(1L, 5L));
+        assertThat(index.search("smith", 5, 2)).contains(List.of(9L));
+    }
+
+    @Test
+    @DisplayName("Should fall back for short keywords and LIKE wildcards")
+    void shouldFallBackForUnsupportedKeywords() {
+        buildWith(UserAddress.builder().id(1L).name("John").build());
+
+        assertThat(index.search("jo", 0, 10)).isEmpty();
+        assertThat(index.search("jo%n", 0, 10)).isEmpty();
+        assertThat(index.search("jo_n", 0, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should apply created, updated and deleted events")
+    void shouldApplyChangeEvents() {
+        buildWith();
+
+        index.onChange(UserAddressChangedEvent.created(
+                UserAddressDTO.builder().id(7L).name("Alice").city("Seattle").build()));
+        assertThat(index.search("seattle", 0, 10)).contains(List.of(7L));
+
+        index.onChange(UserAddressChangedEvent.updated(
+                UserAddressDTO.builder().id(7L).name("Alice").city("Portland").build()));
+        assertThat(index.search("seattle", 0, 10)).contains(List.of());
+        assertThat(index.search("portland", 0, 10)).contains(List.of(7L));
+        assertThat(index.search("alice", 0, 10)).contains(List.of(7L));
+
+        index.onChange(UserAddressChangedEvent.deleted(7L));
+        assertThat(index.search("alice", 0, 10)).contains(List.of());
+    }
+
+    @Test
+    @DisplayName("Should stay empty when disabled")
+    void shouldStayEmptyWhenDisabled() {
+        properties.getTrigram().setEnabled(false);
+
+        index.build();
+        index.onChange(UserAddressChangedEvent.created(UserAddressDTO.builder().id(1L).name("Alice").build()));
+
+        assertThat(index.isReady()).isFalse();
+        assertThat(index.search("alice", 0, 10)).isEqualTo(Optional.empty());
+    }
+}
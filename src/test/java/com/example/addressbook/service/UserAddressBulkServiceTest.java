@@ -0,0 +1,151 @@
+package com.example.addressbook.service;
+
+import com.example.addressbook.config.BulkProperties;
+import com.example.addressbook.config.ChangesProperties;
+import com.example.addressbook.dto.UserAddressDTO;
+import com.example.addressbook.entity.UserAddress;
+import com.example.addressbook.event.UserAddressChangedEvent;
+import com.example.addressbook.mapper.UserAddressMapper;
+import com.example.addressbook.repository.AddressTombstoneRepository;
+import com.example.addressbook.repository.UserAddressRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UserAddressBulkService.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserAddressBulkServiceTest {
+
+    @Mock
+    private UserAddressRepository repository;
+
+    @Mock
+    private AddressTombstoneRepository tombstones;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher publisher;
+
+    private UserAddressBulkService service;
+
+    @BeforeEach
+    void setUp() {
+        BulkProperties bulk = new BulkProperties();
+        bulk.setChunkSize(2);
+        ChangesProperties changes = new ChangesProperties();
+        changes.setTombstoneRetention(Duration.ofDays(1));
+        service = new UserAddressBulkService(repository, tombstones, new UserAddressMapper(), bulk, changes,
+                transactionTemplate, entityManager, publisher);
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("Should insert in chunks, one transaction per chunk, and return ids in order")
+    @SuppressWarnings("unchecked")
+    void shouldInsertInChunks() {
+        AtomicLong sequence = new AtomicLong();
+        when(repository.saveAll(any())).thenAnswer(invocation -> {
+            List<UserAddress> entities = invocation.getArgument(0);
+            entities.forEach(entity -> entity.setId(sequence.incrementAndGet()));
+            return entities;
+        });
+
+        List<UserAddressDTO> dtos = List.of(
+                UserAddressDTO.builder().id(99L).name("One").build(),
+                UserAddressDTO.builder().name("Two").build(),
+                UserAddressDTO.builder().name("Three").build());
+
+        List<Long> ids = service.createAll(dtos);
+
+        assertThat(ids).containsExactly(1L, 2L, 3L);
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(repository, times(2)).saveAll(any());
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    @DisplayName("Should delete existing ids in chunks, leaving tombstones, and publish an event per deleted id")
+    void shouldDeleteByIdInChunks() {
+        when(repository.findIdsByIdIn(List.of(1L, 2L))).thenReturn(List.of(1L));
+        when(repository.findIdsByIdIn(List.of(3L))).thenReturn(List.of(3L));
+        when(repository.deleteAllByIdIn(any())).thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+
+        long deleted = service.deleteAllById(List.of(1L, 2L, 3L));
+
+        assertThat(deleted).isEqualTo(2);
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(repository).deleteAllByIdIn(List.of(1L));
+        verify(repository).deleteAllByIdIn(List.of(3L));
+        verify(tombstones).insertForAddresses(eq(List.of(1L)), any());
+        verify(tombstones).insertForAddresses(eq(List.of(3L)), any());
+        ArgumentCaptor<UserAddressChangedEvent> events = ArgumentCaptor.forClass(UserAddressChangedEvent.class);
+        verify(publisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).extracting(UserAddressChangedEvent::getId).containsExactly(1L, 3L);
+    }
+
+    @Test
+    @DisplayName("Should delete by location chunk by chunk until no rows match")
+    void shouldDeleteByLocationInChunks() {
+        when(repository.findIdsByLocation("Boston", null, 0L, PageRequest.ofSize(2))).thenReturn(List.of(4L, 7L));
+        when(repository.findIdsByLocation("Boston", null, 7L, PageRequest.ofSize(2))).thenReturn(List.of(9L));
+        when(repository.findIdsByLocation("Boston", null, 9L, PageRequest.ofSize(2))).thenReturn(List.of());
+        when(repository.deleteAllByIdIn(any())).thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+
+        long deleted = service.deleteAllByLocation("Boston", null);
+
+        assertThat(deleted).isEqualTo(3);
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(publisher, times(3)).publishEvent(any(UserAddressChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should skip the delete statement when no ids exist")
+    void shouldSkipDeleteWhenNothingExists() {
+        when(repository.findIdsByIdIn(List.of(5L))).thenReturn(List.of());
+
+        assertThat(service.deleteAllById(List.of(5L))).isZero();
+        verify(repository, never()).deleteAllByIdIn(any());
+        verifyNoInteractions(publisher, tombstones);
+    }
+
+    @Test
+    @DisplayName("Should purge tombstones older than the retention")
+    void shouldPurgeExpiredTombstones() {
+        when(tombstones.deleteByDeletedAtBefore(any())).thenReturn(4);
+
+        assertThat(service.purgeTombstones()).isEqualTo(4);
+        LocalDateTime dayAgo = LocalDateTime.now().minusDays(1);
+        verify(tombstones).deleteByDeletedAtBefore(argThat(cutoff ->
+                !cutoff.isAfter(dayAgo.plusSeconds(5)) && cutoff.isAfter(dayAgo.minusSeconds(5))));
+    }
+}
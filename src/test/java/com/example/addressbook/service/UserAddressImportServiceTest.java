@@ -0,0 +1,148 @@
+package com.example.addressbook.service;
+
+import com.example.addressbook.config.BulkProperties;
+import com.example.addressbook.config.ImportProperties;
+import com.example.addressbook.dto.ImportReport;
+import com.example.addressbook.dto.UserAddressDTO;
+import com.example.addressbook.exception.BadRequestException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UserAddressImportService.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserAddressImportServiceTest {
+
+    @Mock
+    private UserAddressBulkService bulkService;
+
+    private UserAddressImportService service;
+
+    @BeforeEach
+    void setUp() {
+        BulkProperties bulk = new BulkProperties();
+        bulk.setChunkSize(2);
+        ImportProperties properties = new ImportProperties();
+        properties.setParallelism(2);
+        properties.setReadAhead(1);
+        properties.setMaxReportedErrors(1);
+        service = new UserAddressImportService(bulkService, bulk, properties,
+                Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    @Test
+    @DisplayName("Should insert valid rows chunk by chunk in file order and report rejected ones")
+    @SuppressWarnings("unchecked")
+    void shouldImportValidRowsAndReportRejected() throws IOException {
+        ImportReport report = service.importCsv(csv("""
+                Name,City,zip_code,Email
+                Ann,"Oslo, Norway",0150,
+                ,Bergen,5003,
+                "Multi
+                Line",Tromso,9008,bad
+                Dan,Bodo,8006,dan@example.com
+                Eve,Molde
+                Fay,Alta,9510,
+                """), 0);
+
+        assertThat(report.getOutcome()).isEqualTo(ImportReport.Outcome.COMPLETED);
+        assertThat(report.getRows()).isEqualTo(6);
+        assertThat(report.getImported()).isEqualTo(3);
+        assertThat(report.getRejected()).isEqualTo(3);
+        assertThat(report.getCommittedRows()).isEqualTo(6);
+        assertThat(report.getErrors()).hasSize(1);
+        assertThat(report.getErrors().get(0).getRow()).isEqualTo(2);
+        assertThat(report.getErrors().get(0).getErrors()).isEqualTo(Map.of("name", "Name is required"));
+
+        ArgumentCaptor<List<UserAddressDTO>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(bulkService, times(3)).createChunk(chunks.capture());
+        assertThat(chunks.getAllValues()).extracting(List::size).containsExactly(1, 1, 1);
+        UserAddressDTO ann = chunks.getAllValues().get(0).get(0);
+        assertThat(ann.getCity()).isEqualTo("Oslo, Norway");
+        assertThat(ann.getZipCode()).isEqualTo("0150");
+        assertThat(ann.getEmail()).isNull();
+        assertThat(chunks.getAllValues()).extracting(chunk -> chunk.get(0).getName())
+                .containsExactly("Ann", "Dan", "Fay");
+    }
+
+    @Test
+    @DisplayName("Should pass over the rows committed by an earlier attempt")
+    void shouldResumeAfterSkippedRows() throws IOException {
+        ImportReport report = service.importCsv(csv("name\nA\nB\nC\n"), 2);
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getCommittedRows()).isEqualTo(3);
+        verify(bulkService).createChunk(argThat(chunk -> chunk.size() == 1 && "C".equals(chunk.get(0).getName())));
+    }
+
+    @Test
+    @DisplayName("Should stop at a chunk that cannot be written and report the rows committed before it")
+    void shouldStopWhenAChunkFails() throws IOException {
+        when(bulkService.createChunk(anyList()))
+                .thenReturn(List.of(1L, 2L))
+                .thenThrow(new DataAccessResourceFailureException("Database is down"));
+
+        ImportReport report = service.importCsv(csv("name\nA\nB\nC\nD\nE\n"), 0);
+
+        assertThat(report.getOutcome()).isEqualTo(ImportReport.Outcome.FAILED);
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getCommittedRows()).isEqualTo(2);
+        assertThat(report.getMessage()).contains("Rows after 2", "Database is down");
+    }
+
+    @Test
+    @DisplayName("Should import the rows before malformed CSV and report where it broke")
+    void shouldImportRowsBeforeMalformedCsv() throws IOException {
+        ImportReport report = service.importCsv(csv("name,city\nA,Oslo\nB,Bergen\nC,\"Unclosed"), 0);
+
+        assertThat(report.getOutcome()).isEqualTo(ImportReport.Outcome.MALFORMED);
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getCommittedRows()).isEqualTo(2);
+        assertThat(report.getMessage()).startsWith("Row 3 is not valid CSV");
+    }
+
+    @Test
+    @DisplayName("Should reject a missing, unknown or repeated header column")
+    void shouldRejectInvalidHeader() {
+        assertThatThrownBy(() -> service.importCsv(csv(""), 0))
+                .isInstanceOf(BadRequestException.class).hasMessageContaining("header");
+        assertThatThrownBy(() -> service.importCsv(csv("name,planet\n"), 0))
+                .isInstanceOf(BadRequestException.class).hasMessageStartingWith("Unknown column: planet");
+        assertThatThrownBy(() -> service.importCsv(csv("name,zipCode,zip_code\n"), 0))
+                .isInstanceOf(BadRequestException.class).hasMessage("Duplicate column: zip_code");
+        assertThatThrownBy(() -> service.importCsv(csv("city\n"), 0))
+                .isInstanceOf(BadRequestException.class).hasMessage("CSV must have a name column");
+        assertThatThrownBy(() -> service.importCsv(csv("name\n"), -1))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(bulkService);
+    }
+
+    private static ByteArrayInputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,27 +1,59 @@
 package com.example.addressbook.service;
 
+import com.example.addressbook.config.ChangesProperties;
+import com.example.addressbook.config.ExportProperties;
+import com.example.addressbook.config.PaginationProperties;
+import com.example.addressbook.dto.AddressFields;
+import com.example.addressbook.dto.ChangeSet;
+import com.example.addressbook.dto.CollectionVersion;
+import com.example.addressbook.dto.CursorPage;
+import com.example.addressbook.dto.FullTextSearchResult;
 import com.example.addressbook.dto.UserAddressDTO;
+import com.example.addressbook.entity.AddressTombstone;
 import com.example.addressbook.entity.UserAddress;
+import com.example.addressbook.event.UserAddressChangedEvent;
+import com.example.addressbook.exception.BadRequestException;
+import com.example.addressbook.exception.ResourceGoneException;
 import com.example.addressbook.exception.ResourceNotFoundException;
 import com.example.addressbook.mapper.UserAddressMapper;
+import com.example.addressbook.repository.AddressTombstoneRepository;
 import com.example.addressbook.repository.UserAddressRepository;
+import com.example.addressbook.search.FullTextIndex;
+import com.example.addressbook.search.TrigramIndex;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -33,9 +65,39 @@ class UserAddressServiceTest {
     @Mock
     private UserAddressRepository repository;
 
+    @Mock
+    private AddressTombstoneRepository tombstones;
+
     @Mock
     private UserAddressMapper mapper;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TrigramIndex trigramIndex;
+
+    @Mock
+    private FullTextIndex fullTextIndex;
+
+    @Mock
+    private ApplicationEventPublisher publisher;
+
+    @Spy
+    private PaginationProperties pagination = new PaginationProperties();
+
+    @Spy
+    private ExportProperties export = new ExportProperties();
+
+    @Spy
+    private ChangesProperties changes = new ChangesProperties();
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private UserAddressService service;
 
@@ -99,20 +161,20 @@ class UserAddressServiceTest {
         @Test
         @DisplayName("Should get address by ID successfully")
         void shouldGetAddressByIdSuccessfully() {
-            when(repository.findById(1L)).thenReturn(Optional.of(testEntity));
-            when(mapper.toDTO(testEntity)).thenReturn(testDTO);
+            when(repository.findDTOById(1L)).thenReturn(Optional.of(testDTO));
 
             UserAddressDTO result = service.getById(1L);
 
             assertThat(result).isNotNull();
             assertThat(result.getId()).isEqualTo(1L);
             assertThat(result.getName()).isEqualTo("John Doe");
+            verifyNoInteractions(mapper);
         }
 
         @Test
         @DisplayName("Should throw exception when address not found")
         void shouldThrowExceptionWhenNotFound() {
-            when(repository.findById(999L)).thenReturn(Optional.empty());
+            when(repository.findDTOById(999L)).thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> service.getById(999L))
                     .isInstanceOf(ResourceNotFoundException.class)
@@ -120,26 +182,130 @@ class UserAddressServiceTest {
         }
 
         @Test
-        @DisplayName("Should get all addresses")
+        @DisplayName("Should look up versions without loading rows")
+        void shouldLookUpVersions() {
+            LocalDateTime updatedAt = testDTO.getUpdatedAt();
+            when(repository.findUpdatedAtById(1L)).thenReturn(Optional.of(updatedAt));
+            when(repository.findUpdatedAtById(999L)).thenReturn(Optional.empty());
+            when(repository.findCollectionVersion()).thenReturn(new CollectionVersion(3, updatedAt));
+
+            assertThat(service.getVersion(1L)).isEqualTo(updatedAt);
+            assertThatThrownBy(() -> service.getVersion(999L))
+                    .isInstanceOf(ResourceNotFoundException.class);
+            assertThat(service.getCollectionVersion().getCount()).isEqualTo(3);
+            verify(repository, never()).findDTOById(any());
+        }
+
+        @Test
+        @DisplayName("Should get first page of addresses")
         void shouldGetAllAddresses() {
-            UserAddress anotherEntity = UserAddress.builder()
+            UserAddressDTO anotherDTO = UserAddressDTO.builder()
+                    .id(2L)
+                    .name("Jane Doe")
+                    .build();
+
+            when(repository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.ofSize(51)))
+                    .thenReturn(Arrays.asList(testDTO, anotherDTO));
+
+            CursorPage<UserAddressDTO> result = service.getAll(null, null);
+
+            assertThat(result.getItems()).hasSize(2);
+            assertThat(result.getItems().get(0).getName()).isEqualTo("John Doe");
+            assertThat(result.getItems().get(1).getName()).isEqualTo("Jane Doe");
+            assertThat(result.getNextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should return next cursor when more rows exist")
+        void shouldReturnNextCursorWhenMoreRowsExist() {
+            UserAddressDTO anotherDTO = UserAddressDTO.builder()
                     .id(2L)
                     .name("Jane Doe")
                     .build();
+
+            when(repository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.ofSize(2)))
+                    .thenReturn(Arrays.asList(testDTO, anotherDTO));
+
+            CursorPage<UserAddressDTO> first = service.getAll(null, 1);
+
+            assertThat(first.getItems()).hasSize(1);
+            assertThat(first.getNextCursor()).isNotNull();
+
+            when(repository.findByIdGreaterThanOrderByIdAsc(1L, PageRequest.ofSize(2)))
+                    .thenReturn(List.of(anotherDTO));
+
+            service.getAll(first.getNextCursor(), 1);
+
+            verify(repository).findByIdGreaterThanOrderByIdAsc(1L, PageRequest.ofSize(2));
+        }
+
+        @Test
+        @DisplayName("Should clamp limit to configured maximum")
+        void shouldClampLimitToMaximum() {
+            when(repository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.ofSize(1001)))
+                    .thenReturn(List.of());
+
+            CursorPage<UserAddressDTO> result = service.getAll(null, 5000);
+
+            assertThat(result.getItems()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should reject non-positive limit and malformed cursor")
+        void shouldRejectInvalidPagingParameters() {
+            assertThatThrownBy(() -> service.getAll(null, 0))
+                    .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> service.getAll("not-a-cursor", 10))
+                    .isInstanceOf(BadRequestException.class);
+        }
+
+        @Test
+        @DisplayName("Should page by updatedAt using composite cursor")
+        void shouldPageByUpdatedAt() {
             UserAddressDTO anotherDTO = UserAddressDTO.builder()
                     .id(2L)
                     .name("Jane Doe")
+                    .updatedAt(testDTO.getUpdatedAt())
                     .build();
 
-            when(repository.findAll()).thenReturn(Arrays.asList(testEntity, anotherEntity));
-            when(mapper.toDTO(testEntity)).thenReturn(testDTO);
-            when(mapper.toDTO(anotherEntity)).thenReturn(anotherDTO);
+            when(repository.findAllByOrderByUpdatedAtAscIdAsc(PageRequest.ofSize(2)))
+                    .thenReturn(Arrays.asList(testDTO, anotherDTO));
+
+            CursorPage<UserAddressDTO> first = service.getAllByUpdatedAt(null, 1);
+
+            assertThat(first.getNextCursor()).isNotNull();
+
+            when(repository.findPageByUpdatedAtAfter(testDTO.getUpdatedAt(), 1L, PageRequest.ofSize(2)))
+                    .thenReturn(List.of(anotherDTO));
 
-            List<UserAddressDTO> result = service.getAll();
+            service.getAllByUpdatedAt(first.getNextCursor(), 1);
 
-            assertThat(result).hasSize(2);
-            assertThat(result.get(0).getName()).isEqualTo("John Doe");
-            assertThat(result.get(1).getName()).isEqualTo("Jane Doe");
+            verify(repository).findPageByUpdatedAtAfter(testDTO.getUpdatedAt(), 1L, PageRequest.ofSize(2));
+            assertThatThrownBy(() -> service.getAllByUpdatedAt(PageCursor.encodeId(1L), 1))
+                    .isInstanceOf(BadRequestException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Export Address Tests")
+    class ExportTests {
+
+        @Test
+        @DisplayName("Should stream every address and clear the persistence context in chunks")
+        void shouldStreamAndClearInChunks() {
+            UserAddress anotherEntity = UserAddress.builder().id(2L).name("Jane Doe").build();
+            UserAddress thirdEntity = UserAddress.builder().id(3L).name("Jim Doe").build();
+            export.setClearInterval(2);
+
+            when(repository.streamAll()).thenReturn(Stream.of(testEntity, anotherEntity, thirdEntity));
+            when(mapper.toDTO(any(UserAddress.class))).thenReturn(testDTO);
+
+            List<UserAddressDTO> received = new ArrayList<>();
+            long count = service.exportAll(received::add);
+
+            assertThat(count).isEqualTo(3);
+            assertThat(received).hasSize(3);
+            verify(entityManager, times(1)).clear();
         }
     }
 
@@ -176,28 +342,199 @@ class UserAddressServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Patch Address Tests")
+    class PatchTests {
+
+        @Test
+        @DisplayName("Should write only the supplied fields, ignore read-only ones and publish the change")
+        void shouldApplyOnlySuppliedFields() {
+            when(repository.updateFields(eq(1L), any(), any())).thenReturn(1);
+            when(repository.findDTOById(1L)).thenReturn(Optional.of(testDTO));
+            Map<String, Object> patch = new HashMap<>();
+            patch.put("city", "Boston");
+            patch.put("phone", null);
+            patch.put("id", 99);
+
+            assertThat(service.patch(1L, patch)).isSameAs(testDTO);
+
+            Map<String, String> expected = new HashMap<>();
+            expected.put("city", "Boston");
+            expected.put("phone", null);
+            verify(repository).updateFields(eq(1L), eq(expected), any());
+            verify(repository, never()).findById(any());
+            verify(publisher).publishEvent(argThat((Object event) -> event instanceof UserAddressChangedEvent changed
+                    && changed.getType() == UserAddressChangedEvent.ChangeType.UPDATED
+                    && changed.getAddress() == testDTO));
+        }
+
+        @Test
+        @DisplayName("Should return the address unchanged and publish nothing when no value differs")
+        void shouldSkipNoOpPatch() {
+            when(repository.updateFields(eq(1L), eq(Map.of("city", "New York")), any())).thenReturn(0);
+            when(repository.findDTOById(1L)).thenReturn(Optional.of(testDTO));
+
+            assertThat(service.patch(1L, Map.of("city", "New York"))).isSameAs(testDTO);
+
+            verifyNoInteractions(publisher);
+        }
+
+        @Test
+        @DisplayName("Should reject unknown fields and non-string values")
+        void shouldRejectMalformedPatch() {
+            assertThatThrownBy(() -> service.patch(1L, Map.of("nickname", "JD")))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("nickname");
+            assertThatThrownBy(() -> service.patch(1L, Map.of("zipCode", 10001)))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("zipCode");
+            verify(repository, never()).updateFields(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should validate the supplied values")
+        void shouldValidateSuppliedValues() {
+            Map<String, Object> patch = new HashMap<>();
+            patch.put("name", null);
+            patch.put("email", "not-an-email");
+
+            assertThatThrownBy(() -> service.patch(1L, patch))
+                    .isInstanceOf(ConstraintViolationException.class)
+                    .hasMessageContaining("Name is required")
+                    .hasMessageContaining("Email must be valid");
+            verify(repository, never()).updateFields(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should throw exception when patching non-existent address")
+        void shouldThrowExceptionWhenPatchingNonExistent() {
+            when(repository.findDTOById(999L)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> service.patch(999L, Map.of("city", "Boston")))
+                    .isInstanceOf(ResourceNotFoundException.class);
+            verifyNoInteractions(publisher);
+        }
+    }
+
     @Nested
     @DisplayName("Delete Address Tests")
     class DeleteTests {
 
         @Test
-        @DisplayName("Should delete address successfully")
+        @DisplayName("Should delete address in one statement and publish the change")
         void shouldDeleteAddressSuccessfully() {
-            when(repository.existsById(1L)).thenReturn(true);
-            doNothing().when(repository).deleteById(1L);
+            when(tombstones.insertForAddresses(eq(List.of(1L)), any())).thenReturn(1);
+            when(repository.deleteAllByIdIn(List.of(1L))).thenReturn(1);
 
             service.delete(1L);
 
-            verify(repository, times(1)).deleteById(1L);
+            ArgumentCaptor<UserAddressChangedEvent> event = ArgumentCaptor.forClass(UserAddressChangedEvent.class);
+            verify(publisher).publishEvent(event.capture());
+            assertThat(event.getValue().getType()).isEqualTo(UserAddressChangedEvent.ChangeType.DELETED);
+            assertThat(event.getValue().getId()).isEqualTo(1L);
+            verify(repository, never()).findById(any());
+            verify(repository, never()).existsById(any());
         }
 
         @Test
         @DisplayName("Should throw exception when deleting non-existent address")
         void shouldThrowExceptionWhenDeletingNonExistent() {
-            when(repository.existsById(999L)).thenReturn(false);
+            when(tombstones.insertForAddresses(eq(List.of(999L)), any())).thenReturn(0);
 
             assertThatThrownBy(() -> service.delete(999L))
                     .isInstanceOf(ResourceNotFoundException.class);
+            verify(repository, never()).deleteAllByIdIn(any());
+            verifyNoInteractions(publisher);
+        }
+
+        @Test
+        @DisplayName("Should throw not found when a concurrent delete already wrote the tombstone")
+        void shouldThrowNotFoundWhenDeletedConcurrently() {
+            when(tombstones.insertForAddresses(eq(List.of(1L)), any()))
+                    .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+            assertThatThrownBy(() -> service.delete(1L))
+                    .isInstanceOf(ResourceNotFoundException.class);
+            verify(repository, never()).deleteAllByIdIn(any());
+            verifyNoInteractions(publisher);
+        }
+    }
+
+    @Nested
+    @DisplayName("Changes Tests")
+    class ChangesTests {
+
+        private final LocalDateTime start = LocalDateTime.now().minusHours(1);
+
+        @Test
+        @DisplayName("Should merge updates and deletes in change order and hand out the last position")
+        void shouldMergeUpdatesAndDeletes() {
+            UserAddressDTO first = UserAddressDTO.builder().id(3L).updatedAt(start).build();
+            UserAddressDTO third = UserAddressDTO.builder().id(1L).updatedAt(start.plusSeconds(2)).build();
+            when(repository.findPageChangedAfter(any(), eq(0L), any(), eq(PageRequest.ofSize(3))))
+                    .thenReturn(List.of(first, third));
+            when(tombstones.findPageByDeletedAtAfter(any(), eq(0L), any(), eq(PageRequest.ofSize(3))))
+                    .thenReturn(List.of(new AddressTombstone(2L, start.plusSeconds(1)),
+                            new AddressTombstone(4L, start.plusSeconds(3))));
+
+            ChangeSet changes = service.getChanges(null, 2);
+
+            assertThat(changes.getUpdated()).containsExactly(first);
+            assertThat(changes.getDeleted()).containsExactly(2L);
+            assertThat(changes.isHasMore()).isTrue();
+
+            service.getChanges(changes.getNextToken(), 2);
+
+            verify(repository).findPageChangedAfter(eq(start.plusSeconds(1)), eq(2L), any(), any());
+            verify(tombstones).findPageByDeletedAtAfter(eq(start.plusSeconds(1)), eq(2L), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should move the token up to the settle horizon once caught up")
+        void shouldAdvanceTokenWhenCaughtUp() {
+            when(repository.findPageChangedAfter(any(), anyLong(), any(), any())).thenReturn(List.of());
+            when(tombstones.findPageByDeletedAtAfter(any(), anyLong(), any(), any())).thenReturn(List.of());
+
+            ChangeSet changes = service.getChanges(null, null);
+            service.getChanges(changes.getNextToken(), null);
+
+            assertThat(changes.getUpdated()).isEmpty();
+            assertThat(changes.getDeleted()).isEmpty();
+            assertThat(changes.isHasMore()).isFalse();
+            verify(repository).findPageChangedAfter(
+                    argThat(from -> from.isAfter(start)), eq(Long.MAX_VALUE), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should page a first sync through rows last changed before the tombstone retention")
+        void shouldPageRowsOlderThanRetention() {
+            LocalDateTime old = LocalDateTime.now().minusDays(40);
+            UserAddressDTO first = UserAddressDTO.builder().id(1L).updatedAt(old).build();
+            UserAddressDTO second = UserAddressDTO.builder().id(2L).updatedAt(old.plusSeconds(1)).build();
+            when(repository.findPageChangedAfter(any(), eq(0L), any(), any())).thenReturn(List.of(first, second));
+            when(repository.findPageChangedAfter(eq(old), eq(1L), any(), any())).thenReturn(List.of(second));
+            when(tombstones.findPageByDeletedAtAfter(any(), anyLong(), any(), any())).thenReturn(List.of());
+
+            ChangeSet page1 = service.getChanges(null, 1);
+            ChangeSet page2 = service.getChanges(page1.getNextToken(), 1);
+
+            assertThat(page1.getUpdated()).containsExactly(first);
+            assertThat(page1.isHasMore()).isTrue();
+            assertThat(page2.getUpdated()).containsExactly(second);
+            assertThat(PageCursor.decodeSince(page2.getNextToken()).getSyncedAt()).isAfter(old.plusDays(30));
+        }
+
+        @Test
+        @DisplayName("Should reject tokens whose sync is older than the tombstone retention")
+        void shouldRejectExpiredToken() {
+            LocalDateTime old = LocalDateTime.now().minusDays(31);
+            String expired = PageCursor.encodeSince(old, 1L, old);
+
+            assertThatThrownBy(() -> service.getChanges(expired, null)).isInstanceOf(ResourceGoneException.class);
+            assertThatThrownBy(() -> service.getChanges(PageCursor.encodeUpdatedAt(start, 1L), null))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessage("Invalid since token");
+            verifyNoInteractions(tombstones);
         }
     }
 
@@ -208,59 +545,208 @@ class UserAddressServiceTest {
         @Test
         @DisplayName("Should search addresses by keyword")
         void shouldSearchAddressesByKeyword() {
-            when(repository.searchByKeyword("John")).thenReturn(Arrays.asList(testEntity));
-            when(mapper.toDTO(testEntity)).thenReturn(testDTO);
+            when(repository.searchByKeywordAfter(eq("John"), eq(0L), any()))
+                    .thenReturn(Arrays.asList(testDTO));
 
-            List<UserAddressDTO> result = service.search("John");
+            CursorPage<UserAddressDTO> result = service.search("John", null, null);
 
-            assertThat(result).hasSize(1);
-            assertThat(result.get(0).getName()).isEqualTo("John Doe");
+            assertThat(result.getItems()).hasSize(1);
+            assertThat(result.getItems().get(0).getName()).isEqualTo("John Doe");
+        }
+
+        @Test
+        @DisplayName("Should record the number of rows each search returns")
+        void shouldRecordResultCount() {
+            when(repository.searchByKeywordAfter(eq("John"), eq(0L), any()))
+                    .thenReturn(Arrays.asList(testDTO));
+
+            service.search("John", null, null);
+            service.search("John", null, null);
+
+            DistributionSummary results = meterRegistry.get(UserAddressService.RESULTS_METRIC)
+                    .tag("query", "search").summary();
+            assertThat(results.count()).isEqualTo(2);
+            assertThat(results.totalAmount()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should serve keyword search from the trigram index when it can")
+        void shouldSearchUsingTrigramIndex() {
+            when(trigramIndex.search("John", 0L, 51)).thenReturn(Optional.of(List.of(1L)));
+            when(repository.findByIdInOrderByIdAsc(List.of(1L))).thenReturn(List.of(testDTO));
+
+            CursorPage<UserAddressDTO> result = service.search("John", null, null);
+
+            assertThat(result.getItems()).hasSize(1);
+            verify(repository, never()).searchByKeywordAfter(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should page by the index ids when some of them are missing from the database")
+        void shouldPageByIndexIdsWhenRowsAreMissing() {
+            UserAddressDTO third = UserAddressDTO.builder().id(3L).name("John Third").build();
+            when(trigramIndex.search("John", 0L, 3)).thenReturn(Optional.of(List.of(1L, 2L, 3L)));
+            when(repository.findByIdInOrderByIdAsc(List.of(1L, 2L))).thenReturn(List.of(testDTO));
+            when(trigramIndex.search("John", 2L, 3)).thenReturn(Optional.of(List.of(3L)));
+            when(repository.findByIdInOrderByIdAsc(List.of(3L))).thenReturn(List.of(third));
+
+            CursorPage<UserAddressDTO> first = service.search("John", null, 2);
+            CursorPage<UserAddressDTO> second = service.search("John", first.getNextCursor(), 2);
+
+            assertThat(first.getItems()).containsExactly(testDTO);
+            assertThat(PageCursor.decodeId(first.getNextCursor())).isEqualTo(2L);
+            assertThat(second.getItems()).containsExactly(third);
+            assertThat(second.getNextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should skip the row fetch when the index finds nothing")
+        void shouldSkipFetchWhenIndexFindsNothing() {
+            when(trigramIndex.search("Nobody", 0L, 51)).thenReturn(Optional.of(List.of()));
+
+            CursorPage<UserAddressDTO> result = service.search("Nobody", null, null);
+
+            assertThat(result.getItems()).isEmpty();
+            verifyNoInteractions(repository);
+        }
+
+        @Test
+        @DisplayName("Should return full-text hits in score order")
+        void shouldReturnFullTextHitsInScoreOrder() {
+            UserAddressDTO anotherDTO = UserAddressDTO.builder().id(2L).name("Jane Doe").build();
+            when(fullTextIndex.search("doe", 50)).thenReturn(new FullTextIndex.Result(3, List.of(
+                    new FullTextIndex.Hit(2L, 3.5f),
+                    new FullTextIndex.Hit(1L, 1.2f),
+                    new FullTextIndex.Hit(9L, 0.4f))));
+            when(repository.findByIdInOrderByIdAsc(List.of(2L, 1L, 9L)))
+                    .thenReturn(List.of(testDTO, anotherDTO));
+
+            FullTextSearchResult result = service.fullTextSearch(" doe ", null);
+
+            assertThat(result.getTotalHits()).isEqualTo(3);
+            assertThat(result.getHits()).hasSize(2);
+            assertThat(result.getHits().get(0).getAddress().getName()).isEqualTo("Jane Doe");
+            assertThat(result.getHits().get(0).getScore()).isEqualTo(3.5f);
+            assertThat(result.getHits().get(1).getAddress().getName()).isEqualTo("John Doe");
+        }
+
+        @Test
+        @DisplayName("Should require a query for full-text search")
+        void shouldRequireQueryForFullText() {
+            assertThatThrownBy(() -> service.fullTextSearch(" ", null))
+                    .isInstanceOf(BadRequestException.class);
         }
 
         @Test
         @DisplayName("Should return all addresses when keyword is empty")
         void shouldReturnAllWhenKeywordEmpty() {
-            when(repository.findAll()).thenReturn(Arrays.asList(testEntity));
-            when(mapper.toDTO(testEntity)).thenReturn(testDTO);
+            when(repository.findByIdGreaterThanOrderByIdAsc(eq(0L), any())).thenReturn(Arrays.asList(testDTO));
 
-            List<UserAddressDTO> result = service.search("");
+            CursorPage<UserAddressDTO> result = service.search("", null, null);
 
-            assertThat(result).hasSize(1);
-            verify(repository, times(1)).findAll();
+            assertThat(result.getItems()).hasSize(1);
+            verify(repository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(0L), any());
         }
 
         @Test
         @DisplayName("Should return all addresses when keyword is null")
         void shouldReturnAllWhenKeywordNull() {
-            when(repository.findAll()).thenReturn(Arrays.asList(testEntity));
-            when(mapper.toDTO(testEntity)).thenReturn(testDTO);
+            when(repository.findByIdGreaterThanOrderByIdAsc(eq(0L), any())).thenReturn(Arrays.asList(testDTO));
 
-            List<UserAddressDTO> result = service.search(null);
+            CursorPage<UserAddressDTO> result = service.search(null, null, null);
 
-            assertThat(result).hasSize(1);
-            verify(repository, times(1)).findAll();
+            assertThat(result.getItems()).hasSize(1);
+            verify(repository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(0L), any());
         }
 
         @Test
         @DisplayName("Should find addresses by name")
         void shouldFindAddressesByName() {
-            when(repository.findByNameContainingIgnoreCase("John")).thenReturn(Arrays.asList(testEntity));
-            when(mapper.toDTO(testEntity)).thenReturn(testDTO);
+            when(repository.findByNameContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(
+                    eq("John"), eq('\\'), eq(0L), any()))
+                    .thenReturn(Arrays.asList(testDTO));
 
-            List<UserAddressDTO> result = service.findByName("John");
+            CursorPage<UserAddressDTO> result = service.findByName("John", null, null);
 
-            assertThat(result).hasSize(1);
+            assertThat(result.getItems()).hasSize(1);
         }
 
         @Test
         @DisplayName("Should find addresses by city")
         void shouldFindAddressesByCity() {
-            when(repository.findByCityIgnoreCase("New York")).thenReturn(Arrays.asList(testEntity));
-            when(mapper.toDTO(testEntity)).thenReturn(testDTO);
+            when(repository.findByCityIgnoreCaseAndIdGreaterThanOrderByIdAsc(eq("New York"), eq(0L), any()))
+                    .thenReturn(Arrays.asList(testDTO));
+
+            CursorPage<UserAddressDTO> result = service.findByCity("New York", null, null);
+
+            assertThat(result.getItems()).hasSize(1);
+        }
+    }
+    @Nested
+    @DisplayName("Sparse Fieldset Tests")
+    class SparseFieldTests {
+
+        @Test
+        @DisplayName("Should select the cursor column too and clear it from the returned items")
+        void shouldSelectCursorColumn() {
+            AddressFields fields = AddressFields.parse("name");
+            UserAddressDTO first = UserAddressDTO.builder().id(1L).name("John Doe").build();
+            UserAddressDTO second = UserAddressDTO.builder().id(2L).name("Jane Doe").build();
+            when(repository.findFields(AddressFields.parse("id,name"), UserAddressRepository.AFTER_ID,
+                    Map.of("id", 0L), 2, false)).thenReturn(List.of(first, second));
+
+            CursorPage<UserAddressDTO> page = service.getAll(null, 1, fields);
+
+            assertThat(page.getItems()).hasSize(1);
+            assertThat(page.getItems().get(0).getId()).isNull();
+            assertThat(page.getItems().get(0).getName()).isEqualTo("John Doe");
+            assertThat(PageCursor.decodeId(page.getNextCursor())).isEqualTo(1L);
+            verify(repository, never()).findByIdGreaterThanOrderByIdAsc(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should escape LIKE wildcards and cache name lookups")
+        void shouldEscapeNameWildcards() {
+            AddressFields fields = AddressFields.parse("id,city");
+            when(repository.findFields(eq(fields), eq(UserAddressRepository.NAME_AFTER_ID), any(), eq(21), eq(true)))
+                    .thenReturn(List.of());
+
+            service.findByName("50%_", null, 20, fields);
 
-            List<UserAddressDTO> result = service.findByCity("New York");
+            verify(repository).findFields(fields, UserAddressRepository.NAME_AFTER_ID,
+                    Map.of("name", "50\\%\\_", "escape", '\\', "id", 0L), 21, true);
 
-            assertThat(result).hasSize(1);
+            service.findByName("50%_", null, 20);
+
+            verify(repository).findByNameContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(
+                    eq("50\\%\\_"), eq('\\'), eq(0L), any());
+        }
+
+        @Test
+        @DisplayName("Should throw when the selected address does not exist")
+        void shouldThrowWhenSparseAddressNotFound() {
+            AddressFields fields = AddressFields.parse("name");
+            when(repository.findFields(fields, UserAddressRepository.BY_ID, Map.of("id", 999L), 1, false))
+                    .thenReturn(List.of());
+
+            assertThatThrownBy(() -> service.getById(999L, fields))
+                    .isInstanceOf(ResourceNotFoundException.class);
+        }
+
+        @Test
+        @DisplayName("Should export a projection without loading entities")
+        void shouldExportProjection() {
+            AddressFields fields = AddressFields.parse("email");
+            when(repository.streamFields(fields, UserAddressRepository.ORDER_BY_ID))
+                    .thenReturn(Stream.of(UserAddressDTO.builder().email("john@example.com").build()));
+
+            List<UserAddressDTO> received = new ArrayList<>();
+            long count = service.exportAll(received::add, fields);
+
+            assertThat(count).isEqualTo(1);
+            assertThat(received.get(0).getEmail()).isEqualTo("john@example.com");
+            verify(repository, never()).streamAll();
+            verifyNoInteractions(mapper);
         }
     }
 }
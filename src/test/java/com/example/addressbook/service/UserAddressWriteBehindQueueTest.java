@@ -0,0 +1,245 @@
+package com.example.addressbook.service;
+
+import com.example.addressbook.config.WriteBehindProperties;
+import com.example.addressbook.dto.CreateTicket;
+import com.example.addressbook.dto.UserAddressDTO;
+import com.example.addressbook.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UserAddressWriteBehindQueue.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserAddressWriteBehindQueueTest {
+
+    @Mock
+    private UserAddressBulkService bulkService;
+
+    private final WriteBehindProperties properties = new WriteBehindProperties();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final CountDownLatch firstWrite = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private UserAddressWriteBehindQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        properties.setOfferTimeout(Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        release.countDown();
+        if (queue != null) {
+            queue.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should write addresses queued behind a running write as one group")
+    void shouldGroupQueuedAddresses() throws Exception {
+        blockFirstWrite();
+        start();
+
+        CreateTicket first = queue.submit(address("First"));
+        assertThat(firstWrite.await(5, TimeUnit.SECONDS)).isTrue();
+        List<CreateTicket> grouped = List.of(queue.submit(address("A")), queue.submit(address("B")),
+                queue.submit(address("C")));
+        assertThat(queue.getTicket(grouped.get(0).getTicket()).orElseThrow().getStatus())
+                .isEqualTo(CreateTicket.Status.PENDING);
+        release.countDown();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> status(grouped.get(2)) == CreateTicket.Status.CREATED);
+        verify(bulkService).createChunk(argThat(group -> group.size() == 3));
+        assertThat(queue.getTicket(first.getTicket()).orElseThrow().getId()).isEqualTo(1L);
+        assertThat(grouped).extracting(ticket -> queue.getTicket(ticket.getTicket()).orElseThrow().getId())
+                .containsExactly(2L, 3L, 4L);
+        assertThat(registry.get(UserAddressWriteBehindQueue.BATCH_METRIC).summary().max()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should retry a failed group one by one and fail only the bad address")
+    void shouldIsolateFailures() throws Exception {
+        blockFirstWrite();
+        start();
+
+        queue.submit(address("First"));
+        assertThat(firstWrite.await(5, TimeUnit.SECONDS)).isTrue();
+        CreateTicket good = queue.submit(address("Good"));
+        CreateTicket bad = queue.submit(address("Bad"));
+        release.countDown();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> status(bad) == CreateTicket.Status.FAILED);
+        assertThat(queue.getTicket(bad.getTicket()).orElseThrow().getMessage()).isEqualTo("constraint violated");
+        assertThat(status(good)).isEqualTo(CreateTicket.Status.CREATED);
+    }
+
+    @Test
+    @DisplayName("Should reject with 503 when the queue stays full")
+    void shouldApplyBackpressure() throws Exception {
+        properties.setQueueCapacity(1);
+        blockFirstWrite();
+        start();
+
+        queue.submit(address("First"));
+        assertThat(firstWrite.await(5, TimeUnit.SECONDS)).isTrue();
+        queue.submit(address("Queued"));
+
+        assertThatThrownBy(() -> queue.submit(address("Rejected")))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .hasMessageContaining("full");
+        assertThat(queue.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep pending tickets beyond the ticket limit")
+    void shouldKeepPendingTickets() throws Exception {
+        properties.setMaxTickets(1);
+        blockFirstWrite();
+        start();
+
+        CreateTicket first = queue.submit(address("First"));
+        assertThat(firstWrite.await(5, TimeUnit.SECONDS)).isTrue();
+        List<CreateTicket> waiting = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            waiting.add(queue.submit(address("Waiting " + i)));
+        }
+
+        assertThat(status(first)).isEqualTo(CreateTicket.Status.PENDING);
+        assertThat(waiting).allSatisfy(ticket -> assertThat(status(ticket)).isEqualTo(CreateTicket.Status.PENDING));
+        release.countDown();
+        await().atMost(Duration.ofSeconds(5)).until(() -> queue.size() == 0);
+    }
+
+    @Test
+    @DisplayName("Should write every queued address before stopping")
+    void shouldDrainOnStop() throws Exception {
+        blockFirstWrite();
+        start();
+
+        queue.submit(address("First"));
+        assertThat(firstWrite.await(5, TimeUnit.SECONDS)).isTrue();
+        CreateTicket last = queue.submit(address("Last"));
+        release.countDown();
+        queue.stop();
+
+        assertThat(status(last)).isEqualTo(CreateTicket.Status.CREATED);
+        assertThatThrownBy(() -> queue.submit(address("Late")))
+                .isInstanceOf(ServiceUnavailableException.class);
+    }
+
+    @Test
+    @DisplayName("Should write an address whose request was already enqueueing when stop began")
+    void shouldWaitForEnqueueingRequestsOnStop() throws Exception {
+        CountDownLatch checked = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        WriteBehindProperties racing = new WriteBehindProperties() {
+            /**
+             * Read by submit between its running check and the offer; holds it there.
+             */
+            @Override
+            public Duration getOfferTimeout() {
+                checked.countDown();
+                try {
+                    resume.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getOfferTimeout();
+            }
+        };
+        when(bulkService.createChunk(anyList()))
+                .thenAnswer(invocation -> List.of(nextId.getAndIncrement()));
+        queue = new UserAddressWriteBehindQueue(bulkService, racing, registry);
+        queue.start();
+        ExecutorService requests = Executors.newFixedThreadPool(2);
+        try {
+            Future<CreateTicket> submitted = requests.submit(() -> queue.submit(address("Racing")));
+            assertThat(checked.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<?> stopping = requests.submit(() -> {
+                queue.stop();
+                return null;
+            });
+
+            // Long enough for the idle writer to have exited, had stop() not waited
+            assertThatThrownBy(() -> stopping.get(500, TimeUnit.MILLISECONDS))
+                    .isInstanceOf(TimeoutException.class);
+            resume.countDown();
+            CreateTicket ticket = submitted.get(5, TimeUnit.SECONDS);
+            stopping.get(5, TimeUnit.SECONDS);
+
+            assertThat(status(ticket)).isEqualTo(CreateTicket.Status.CREATED);
+        } finally {
+            resume.countDown();
+            requests.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject with 503 when disabled")
+    void shouldRejectWhenDisabled() {
+        properties.setEnabled(false);
+        start();
+
+        assertThatThrownBy(() -> queue.submit(address("Anyone")))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .hasMessageContaining("disabled");
+        verifyNoInteractions(bulkService);
+    }
+
+    private void start() {
+        queue = new UserAddressWriteBehindQueue(bulkService, properties, registry);
+        queue.start();
+    }
+
+    /**
+     * Holds the writer inside its first write until released, so later submissions queue up,
+     * and fails any write containing an address named "Bad".
+     */
+    private void blockFirstWrite() {
+        when(bulkService.createChunk(anyList())).thenAnswer(invocation -> {
+            List<UserAddressDTO> group = invocation.getArgument(0);
+            if (firstWrite.getCount() > 0) {
+                firstWrite.countDown();
+                release.await();
+            }
+            if (group.stream().anyMatch(address -> "Bad".equals(address.getName()))) {
+                throw new IllegalStateException("constraint violated");
+            }
+            return group.stream().map(address -> nextId.getAndIncrement()).toList();
+        });
+    }
+
+    private CreateTicket.Status status(CreateTicket ticket) {
+        return queue.getTicket(ticket.getTicket()).orElseThrow().getStatus();
+    }
+
+    private static UserAddressDTO address(String name) {
+        return UserAddressDTO.builder().name(name).build();
+    }
+}